@@ -0,0 +1,31 @@
+package br.com.ecommerce.benchmarks;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Main do benchmarks.jar: repassa os argumentos ao JMH e, salvo -rf/-rff
+ * explícitos, grava o resultado em JSON (jmh-result.json)
+ * para acompanhar regressões com o JmhResultComparison.
+ *
+ * Execução: java -jar target/benchmarks.jar [opções do JMH]
+ */
+public final class BenchmarkMain {
+
+    static final String DEFAULT_RESULT_FILE = "jmh-result.json";
+
+    private BenchmarkMain() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        List<String> jmhArgs = new ArrayList<>(List.of(args));
+        // -rff sozinho mudaria só o arquivo e o JMH gravaria CSV
+        if (!jmhArgs.contains("-rf")) {
+            jmhArgs.addAll(List.of("-rf", "json"));
+        }
+        if (!jmhArgs.contains("-rff")) {
+            jmhArgs.addAll(List.of("-rff", DEFAULT_RESULT_FILE));
+        }
+        org.openjdk.jmh.Main.main(jmhArgs.toArray(String[]::new));
+    }
+}
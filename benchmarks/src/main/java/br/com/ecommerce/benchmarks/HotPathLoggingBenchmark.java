@@ -0,0 +1,182 @@
+package br.com.ecommerce.benchmarks;
+
+import br.com.ecommerce.notificationservice.audit.AuditLog;
+import br.com.ecommerce.notificationservice.event.OrderCreatedEvent;
+import br.com.ecommerce.orderservice.model.Order;
+import ch.qos.logback.classic.AsyncAppender;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.encoder.PatternLayoutEncoder;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.Appender;
+import ch.qos.logback.core.FileAppender;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Custo dos logs por pedido no caminho crítico, somando os dois serviços.
+ *
+ * - legacy-sync: as ~27 linhas INFO que o controller, o service, o producer,
+ *   o consumer, o NotificationService e os canais escreviam por pedido
+ *   (banners e toString() completos), com appender síncrono
+ * - audit-sync: os registros do AuditLog (um por etapa), appender síncrono
+ * - audit-async: os mesmos registros pelo AsyncAppender (never-block), como
+ *   no logback-spring.xml dos serviços
+ * - audit-async-sampled: como audit-async, com audit.sample-rate=0.1
+ *
+ * As linhas vão para um arquivo temporário com flush a cada evento, como o
+ * console. Nos modos assíncronos o número mede o custo para a thread da
+ * aplicação; eventos descartados com o buffer cheio não são escritos.
+ *
+ * Execução: java -jar target/benchmarks.jar HotPathLoggingBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Threads(4)
+@Fork(1)
+public class HotPathLoggingBenchmark {
+
+    private static final String PATTERN = "%d{yyyy-MM-dd HH:mm:ss} [%thread] %-5level %logger{36} - %msg%n";
+
+    private static final Logger controller = LoggerFactory.getLogger("br.com.ecommerce.orderservice.controller.OrderController");
+    private static final Logger orderService = LoggerFactory.getLogger("br.com.ecommerce.orderservice.service.OrderService");
+    private static final Logger producer = LoggerFactory.getLogger("br.com.ecommerce.orderservice.producer.OrderMessageProducer");
+    private static final Logger consumer = LoggerFactory.getLogger("br.com.ecommerce.notificationservice.consumer.OrderMessageConsumer");
+    private static final Logger notification = LoggerFactory.getLogger("br.com.ecommerce.notificationservice.service.NotificationService");
+    private static final Logger email = LoggerFactory.getLogger("br.com.ecommerce.notificationservice.channel.EmailNotificationChannel");
+    private static final Logger sms = LoggerFactory.getLogger("br.com.ecommerce.notificationservice.channel.SmsNotificationChannel");
+    private static final Logger push = LoggerFactory.getLogger("br.com.ecommerce.notificationservice.channel.PushNotificationChannel");
+
+    @Param({"legacy-sync", "audit-sync", "audit-async", "audit-async-sampled"})
+    public String mode;
+
+    private final AtomicLong orderIds = new AtomicLong();
+
+    private Path logFile;
+    private br.com.ecommerce.orderservice.audit.AuditLog orderAudit;
+    private AuditLog notificationAudit;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        logFile = Files.createTempFile("hot-path-logging", ".log");
+
+        LoggerContext context = (LoggerContext) LoggerFactory.getILoggerFactory();
+        context.reset();
+
+        PatternLayoutEncoder encoder = new PatternLayoutEncoder();
+        encoder.setContext(context);
+        encoder.setPattern(PATTERN);
+        encoder.start();
+
+        FileAppender<ILoggingEvent> file = new FileAppender<>();
+        file.setContext(context);
+        file.setFile(logFile.toString());
+        file.setEncoder(encoder);
+        file.start();
+
+        Appender<ILoggingEvent> target = file;
+        if (mode.startsWith("audit-async")) {
+            AsyncAppender async = new AsyncAppender();
+            async.setContext(context);
+            async.setQueueSize(16_384);
+            async.setDiscardingThreshold(0);
+            async.setNeverBlock(true);
+            async.addAppender(file);
+            async.start();
+            target = async;
+        }
+
+        ch.qos.logback.classic.Logger root = context.getLogger(org.slf4j.Logger.ROOT_LOGGER_NAME);
+        root.setLevel(ch.qos.logback.classic.Level.INFO);
+        root.addAppender(target);
+
+        double sampleRate = mode.endsWith("sampled") ? 0.1 : 1.0;
+        orderAudit = new br.com.ecommerce.orderservice.audit.AuditLog(true, sampleRate);
+        notificationAudit = new AuditLog(true, sampleRate);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        ((LoggerContext) LoggerFactory.getILoggerFactory()).reset();
+        Files.deleteIfExists(logFile);
+    }
+
+    @Benchmark
+    public void logOrder() {
+        long id = orderIds.incrementAndGet();
+        Order order = new Order(id, OrderFixtures.CUSTOMERS[(int) (id % OrderFixtures.CUSTOMERS.length)],
+                OrderFixtures.PRODUCTS[(int) (id % OrderFixtures.PRODUCTS.length)], 1_499.90);
+        OrderCreatedEvent event = new OrderCreatedEvent(order.getId(), order.getCustomerName(),
+                order.getProduct(), order.getAmount());
+
+        if (mode.equals("legacy-sync")) {
+            legacy(order, event);
+        } else {
+            orderAudit.orderCreated(order);
+            orderAudit.orderPublished(id, 1, 850_000);
+            List<OrderCreatedEvent> events = List.of(event);
+            notificationAudit.notificationReceived(events);
+            notificationAudit.notificationSent("email", events);
+            notificationAudit.notificationSent("sms", events);
+            notificationAudit.notificationSent("push", events);
+        }
+    }
+
+    // Sequência de logs INFO por pedido antes do AuditLog
+    private static void legacy(Order order, OrderCreatedEvent event) {
+        controller.info("=================================================");
+        controller.info("[CONTROLLER] Recebida requisição POST /orders");
+        controller.info("[CONTROLLER] Request: {}", order);
+        orderService.info("Criando novo pedido para cliente: {}", order.getCustomerName());
+        orderService.info("Pedido salvo com ID: {}", order.getId());
+        producer.info("[PRODUCER] Enfileirando evento do pedido {} para publicação", order.getId());
+        controller.info("[CONTROLLER] Pedido criado com sucesso: {}", order);
+        controller.info("=================================================");
+        producer.info("[PRODUCER] Pedido {} confirmado pelo broker", order.getId());
+
+        consumer.info("##################################################");
+        consumer.info("[CONSUMER] Mensagem recebida do RabbitMQ!");
+        consumer.info("[CONSUMER] Evento: {}", event);
+        notification.info("*****************************************************");
+        notification.info("[NOTIFICATION] Pedido {} do cliente {} ({}) recebido – notificação enviada.",
+                event.getOrderId(), event.getCustomerName(), event.getAmount());
+        notification.info("*****************************************************");
+        email.info("Enviando {} e-mail(s) para os clientes...", 1);
+        email.info("   Assunto: Confirmação do Pedido #{}", event.getOrderId());
+        email.info("   Destinatário: {} <cliente@email.com>", event.getCustomerName());
+        email.info("   Conteúdo: Seu pedido de {} no valor de {} foi confirmado!",
+                event.getProduct(), event.getAmount());
+        email.info("   Data/Hora: {}", "17/10/2026 12:00:00");
+        sms.info("Enviando {} SMS para os clientes...", 1);
+        sms.info("   Mensagem: Olá {}! Pedido #{} ({}) confirmado. Valor: {}",
+                event.getCustomerName(), event.getOrderId(), event.getProduct(), event.getAmount());
+        push.info("Enviando {} push notification(s)...", 1);
+        push.info("   Título: Pedido Confirmado!");
+        push.info("   Corpo: {} - {} por {}", event.getProduct(), event.getAmount(), event.getCustomerName());
+        consumer.info("[CONSUMER] Mensagem processada com sucesso!");
+        consumer.info("##################################################");
+    }
+}
@@ -0,0 +1,93 @@
+package br.com.ecommerce.benchmarks;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Compara dois resultados JSON do JMH (baseline e atual) e aponta regressões
+ * acima do limite, por padrão 10%. Não é JMH.
+ *
+ * Cada resultado é identificado pelo benchmark e seus parâmetros. Em modo
+ * thrpt um score menor é regressão; nos demais modos (avgt, sample, ss),
+ * um score maior. O processo termina com código 1 se houver regressão,
+ * para poder ser usado como etapa de CI.
+ *
+ * Execução: java -cp target/benchmarks.jar br.com.ecommerce.benchmarks.JmhResultComparison
+ *           baseline.json jmh-result.json [limite-percentual]
+ */
+public final class JmhResultComparison {
+
+    private JmhResultComparison() {
+    }
+
+    record Score(String mode, double score, double error, String unit) {
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 2) {
+            System.err.println("Uso: JmhResultComparison <baseline.json> <atual.json> [limite-percentual]");
+            System.exit(2);
+        }
+        double threshold = args.length > 2 ? Double.parseDouble(args[2]) : 10.0;
+
+        Map<String, Score> baseline = read(new File(args[0]));
+        Map<String, Score> current = read(new File(args[1]));
+
+        int regressions = 0;
+        System.out.printf("%-90s %14s %14s %9s%n", "Benchmark", "Baseline", "Atual", "Variação");
+        for (Map.Entry<String, Score> entry : current.entrySet()) {
+            Score now = entry.getValue();
+            Score before = baseline.get(entry.getKey());
+            if (before == null) {
+                System.out.printf("%-90s %14s %14.3f %9s  %s%n", entry.getKey(), "-", now.score(), "-", now.unit());
+                continue;
+            }
+            double change = (now.score() - before.score()) / before.score() * 100;
+            // Em thrpt maior é melhor; em avgt/sample/ss, menor é melhor
+            double worsening = "thrpt".equals(now.mode()) ? -change : change;
+            boolean regression = worsening > threshold;
+            if (regression) {
+                regressions++;
+            }
+            System.out.printf("%-90s %14.3f %14.3f %+8.1f%%  %s%s%n", entry.getKey(), before.score(), now.score(),
+                    change, now.unit(), regression ? "  REGRESSÃO" : "");
+        }
+        for (String removed : baseline.keySet()) {
+            if (!current.containsKey(removed)) {
+                System.out.printf("%-90s (ausente no resultado atual)%n", removed);
+            }
+        }
+
+        System.out.printf("%n%d regressões acima de %.1f%%%n", regressions, threshold);
+        if (regressions > 0) {
+            System.exit(1);
+        }
+    }
+
+    private static Map<String, Score> read(File file) throws IOException {
+        Map<String, Score> scores = new LinkedHashMap<>();
+        for (JsonNode result : new ObjectMapper().readTree(file)) {
+            JsonNode metric = result.path("primaryMetric");
+            scores.put(key(result), new Score(
+                    result.path("mode").asText(),
+                    metric.path("score").asDouble(),
+                    metric.path("scoreError").asDouble(),
+                    metric.path("scoreUnit").asText()));
+        }
+        return scores;
+    }
+
+    // benchmark + parâmetros em ordem alfabética, ex.: ...OrderServiceBenchmark.createOrder{engine=map}
+    private static String key(JsonNode result) {
+        Map<String, String> params = new TreeMap<>();
+        result.path("params").fields().forEachRemaining(param -> params.put(param.getKey(), param.getValue().asText()));
+        String benchmark = result.path("benchmark").asText().replace("br.com.ecommerce.benchmarks.", "");
+        return params.isEmpty() ? benchmark : benchmark + params;
+    }
+}
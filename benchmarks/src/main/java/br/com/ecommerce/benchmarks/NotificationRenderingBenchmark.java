@@ -0,0 +1,84 @@
+package br.com.ecommerce.benchmarks;
+
+import br.com.ecommerce.notificationservice.event.OrderCreatedEvent;
+import br.com.ecommerce.notificationservice.template.BrlCurrencyFormatter;
+import br.com.ecommerce.notificationservice.template.NotificationTemplate;
+import br.com.ecommerce.notificationservice.template.TimestampCache;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.text.NumberFormat;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Renderização das notificações: formatação anterior do NotificationService
+ * (NumberFormat, LocalDateTime.now().format e concatenação de strings) x
+ * templates pré-compilados com BrlCurrencyFormatter e TimestampCache.
+ *
+ * O NumberFormat não é thread-safe, então cada thread do benchmark usa a sua
+ * instância (o NotificationService compartilhava uma só entre os listeners).
+ *
+ * Execução: java -jar target/benchmarks.jar NotificationRenderingBenchmark -prof gc
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class NotificationRenderingBenchmark {
+
+    private static final String SMS_TEMPLATE =
+            "Olá {customerName}! Pedido #{orderId} ({product}) confirmado. Valor: {amount}";
+
+    private final NumberFormat currencyFormat = NumberFormat.getCurrencyInstance(Locale.of("pt", "BR"));
+    private final DateTimeFormatter dateFormat = DateTimeFormatter.ofPattern("dd/MM/yyyy HH:mm:ss");
+    private final NotificationTemplate smsTemplate = NotificationTemplate.compile(SMS_TEMPLATE);
+    private final StringBuilder buffer = new StringBuilder(64);
+
+    private final OrderCreatedEvent event = new OrderCreatedEvent(
+            1_234_567L, OrderFixtures.CUSTOMERS[4_321], OrderFixtures.PRODUCTS[17], 1_499.90);
+
+    @Benchmark
+    public String currencyNumberFormat() {
+        return currencyFormat.format(event.getAmount());
+    }
+
+    @Benchmark
+    public int currencyBrlFormatter() {
+        buffer.setLength(0);
+        return BrlCurrencyFormatter.appendTo(buffer, event.getAmount()).length();
+    }
+
+    @Benchmark
+    public String timestampFormat() {
+        return LocalDateTime.now().format(dateFormat);
+    }
+
+    @Benchmark
+    public String timestampCache() {
+        return TimestampCache.now();
+    }
+
+    @Benchmark
+    public String smsConcatenation() {
+        String valor = currencyFormat.format(event.getAmount());
+        return "Olá " + event.getCustomerName() + "! Pedido #" + event.getOrderId()
+                + " (" + event.getProduct() + ") confirmado. Valor: " + valor;
+    }
+
+    @Benchmark
+    public int smsTemplate() {
+        return smsTemplate.render(event, TimestampCache.now()).length();
+    }
+}
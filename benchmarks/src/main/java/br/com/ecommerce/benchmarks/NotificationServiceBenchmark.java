@@ -0,0 +1,85 @@
+package br.com.ecommerce.benchmarks;
+
+import br.com.ecommerce.notificationservice.audit.AuditLog;
+import br.com.ecommerce.notificationservice.channel.EmailNotificationChannel;
+import br.com.ecommerce.notificationservice.channel.PushNotificationChannel;
+import br.com.ecommerce.notificationservice.channel.SmsNotificationChannel;
+import br.com.ecommerce.notificationservice.dedup.OrderDeduplicator;
+import br.com.ecommerce.notificationservice.event.OrderCreatedEvent;
+import br.com.ecommerce.notificationservice.service.NotificationService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.core.env.StandardEnvironment;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * NotificationService.processOrderNotification com os três canais simulados
+ * sem latência: deduplicação, renderização dos templates, agrupamento por
+ * canal, bulkheads e a espera pelos canais obrigatórios.
+ *
+ * Cada chamada usa um orderId novo (nenhuma é descartada pela deduplicação).
+ * Com threads > 1, várias chamadas são agrupadas na mesma entrega ao canal.
+ *
+ * Execução: java -jar target/benchmarks.jar NotificationServiceBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@Threads(4)
+public class NotificationServiceBenchmark {
+
+    @Param({"true", "false"})
+    public boolean dedup;
+
+    private final AtomicLong orderIds = new AtomicLong();
+
+    private NotificationService notificationService;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        StandardEnvironment environment = new StandardEnvironment();
+        notificationService = new NotificationService(
+                List.of(new EmailNotificationChannel(0, 0, environment),
+                        new SmsNotificationChannel(0, 0, environment),
+                        new PushNotificationChannel(0, 0, environment)),
+                environment,
+                new OrderDeduplicator(dedup, 1_000_000, TimeUnit.HOURS.toMillis(24), 64,
+                        false, "", 100, 0),
+                new AuditLog(false, 0),
+                new SimpleMeterRegistry());
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        notificationService.shutdown();
+    }
+
+    @Benchmark
+    public void processOrderNotification() {
+        long id = orderIds.incrementAndGet();
+        notificationService.processOrderNotification(new OrderCreatedEvent(id,
+                OrderFixtures.CUSTOMERS[(int) (id % OrderFixtures.CUSTOMERS.length)],
+                OrderFixtures.PRODUCTS[(int) (id % OrderFixtures.PRODUCTS.length)],
+                1_499.90));
+    }
+}
@@ -0,0 +1,82 @@
+package br.com.ecommerce.benchmarks;
+
+import br.com.ecommerce.notificationservice.config.RabbitMQConfig;
+import br.com.ecommerce.orderservice.event.OrderCreatedEvent;
+import br.com.ecommerce.orderservice.event.OrderEventBinaryConverter;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.core.MessageProperties;
+import org.springframework.amqp.support.converter.Jackson2JsonMessageConverter;
+import org.springframework.amqp.support.converter.MessageConverter;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Custo de serialização do OrderCreatedEvent: JSON (Jackson2JsonMessageConverter)
+ * x formato binário (OrderEventBinaryConverter).
+ *
+ * - encode: conversor do order-service (producer)
+ * - decode: conversor do notification-service (consumer), que escolhe o
+ *   formato pelo content-type
+ *
+ * O tamanho em bytes por mensagem é medido por {@link OrderEventWireSize}.
+ *
+ * Execução: java -jar target/benchmarks.jar OrderEventSerializationBenchmark -prof gc
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class OrderEventSerializationBenchmark {
+
+    @Param({"json", "binary"})
+    public String format;
+
+    private MessageConverter producerConverter;
+    private MessageConverter consumerConverter;
+    private OrderCreatedEvent event;
+    private Message message;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        producerConverter = "binary".equals(format)
+                ? new OrderEventBinaryConverter()
+                : new Jackson2JsonMessageConverter();
+        consumerConverter = new RabbitMQConfig().eventMessageConverter();
+        event = new OrderCreatedEvent(1_234_567L, OrderFixtures.CUSTOMERS[4_321], OrderFixtures.PRODUCTS[17], 1_499.90);
+        message = encodeForConsumer();
+    }
+
+    @Benchmark
+    public Message encode() {
+        return producerConverter.toMessage(event, new MessageProperties());
+    }
+
+    @Benchmark
+    public Object decode() {
+        return consumerConverter.fromMessage(message);
+    }
+
+    /**
+     * O listener do notification-service informa o tipo do parâmetro ao conversor JSON.
+     */
+    private Message encodeForConsumer() {
+        Message encoded = producerConverter.toMessage(event, new MessageProperties());
+        encoded.getMessageProperties().setInferredArgumentType(
+                br.com.ecommerce.notificationservice.event.OrderCreatedEvent.class);
+        return encoded;
+    }
+}
@@ -0,0 +1,54 @@
+package br.com.ecommerce.benchmarks;
+
+import br.com.ecommerce.orderservice.event.OrderCreatedEvent;
+import br.com.ecommerce.orderservice.event.OrderEventBinaryConverter;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.core.MessageProperties;
+import org.springframework.amqp.support.converter.Jackson2JsonMessageConverter;
+import org.springframework.amqp.support.converter.MessageConverter;
+
+import java.util.Map;
+import java.util.SplittableRandom;
+
+/**
+ * Mede os bytes por mensagem de cada formato de serialização do OrderCreatedEvent.
+ *
+ * Não é um benchmark JMH: converte eventos sintéticos e soma o tamanho do
+ * corpo e dos cabeçalhos customizados (como o __TypeId__ do JSON).
+ *
+ * java -cp target/benchmarks.jar br.com.ecommerce.benchmarks.OrderEventWireSize 100000
+ */
+public final class OrderEventWireSize {
+
+    private OrderEventWireSize() {
+    }
+
+    public static void main(String[] args) {
+        int events = args.length > 0 ? Integer.parseInt(args[0]) : 100_000;
+
+        Map<String, MessageConverter> converters = Map.of(
+                "json", new Jackson2JsonMessageConverter(),
+                "binary", new OrderEventBinaryConverter());
+
+        for (String format : new String[]{"json", "binary"}) {
+            MessageConverter converter = converters.get(format);
+            SplittableRandom random = new SplittableRandom(42);
+            long bodyBytes = 0;
+            long headerBytes = 0;
+            for (int i = 0; i < events; i++) {
+                OrderCreatedEvent event = new OrderCreatedEvent(
+                        random.nextLong(1, 10_000_000),
+                        OrderFixtures.CUSTOMERS[random.nextInt(OrderFixtures.CUSTOMERS.length)],
+                        OrderFixtures.PRODUCTS[random.nextInt(OrderFixtures.PRODUCTS.length)],
+                        random.nextInt(1, 1_000_000) / 100.0);
+                Message message = converter.toMessage(event, new MessageProperties());
+                bodyBytes += message.getBody().length;
+                for (Map.Entry<String, Object> header : message.getMessageProperties().getHeaders().entrySet()) {
+                    headerBytes += header.getKey().length() + String.valueOf(header.getValue()).length();
+                }
+            }
+            System.out.printf("%-7s corpo: %,.1f bytes/mensagem | cabeçalhos: %,.1f bytes/mensagem%n",
+                    format, bodyBytes / (double) events, headerBytes / (double) events);
+        }
+    }
+}
@@ -0,0 +1,55 @@
+package br.com.ecommerce.benchmarks;
+
+import br.com.ecommerce.orderservice.model.Order;
+import br.com.ecommerce.orderservice.repository.ColumnarOrderRepository;
+import br.com.ecommerce.orderservice.repository.InMemoryOrderRepository;
+import br.com.ecommerce.orderservice.repository.OrderRepository;
+
+import java.util.SplittableRandom;
+
+/**
+ * Dados sintéticos compartilhados pelos benchmarks.
+ *
+ * Clientes e produtos se repetem como em uma loja real: poucos produtos
+ * e um conjunto limitado de clientes recorrentes.
+ */
+final class OrderFixtures {
+
+    static final String[] PRODUCTS = new String[50];
+    static final String[] CUSTOMERS = new String[10_000];
+
+    static {
+        for (int i = 0; i < PRODUCTS.length; i++) {
+            PRODUCTS[i] = "Produto " + i;
+        }
+        for (int i = 0; i < CUSTOMERS.length; i++) {
+            CUSTOMERS[i] = "Cliente " + i;
+        }
+    }
+
+    private OrderFixtures() {
+    }
+
+    static OrderRepository newRepository(String engine) {
+        return switch (engine) {
+            case "map" -> new InMemoryOrderRepository();
+            case "columnar" -> new ColumnarOrderRepository();
+            default -> throw new IllegalArgumentException("Engine desconhecida: " + engine);
+        };
+    }
+
+    static Order randomOrder(SplittableRandom random) {
+        return new Order(
+                null,
+                CUSTOMERS[random.nextInt(CUSTOMERS.length)],
+                PRODUCTS[random.nextInt(PRODUCTS.length)],
+                random.nextInt(1, 1_000_000) / 100.0);
+    }
+
+    static void fill(OrderRepository repository, int orders, long seed) {
+        SplittableRandom random = new SplittableRandom(seed);
+        for (int i = 0; i < orders; i++) {
+            repository.save(randomOrder(random));
+        }
+    }
+}
@@ -0,0 +1,93 @@
+package br.com.ecommerce.benchmarks;
+
+import br.com.ecommerce.orderservice.repository.OrderRepository;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Group;
+import org.openjdk.jmh.annotations.GroupThreads;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * OrderRepository sob contenção: save, findById e findAll com várias threads
+ * no mesmo repositório, nas engines map e columnar.
+ *
+ * - save: 4 threads inserindo pedidos
+ * - readWrite: 1 thread inserindo e 3 lendo por ID ao mesmo tempo (o caso da
+ *   API sob carga); o JMH reporta a vazão de cada papel separadamente
+ * - findAll: 4 threads copiando o repositório inteiro
+ *
+ * O repositório é recriado a cada iteração para que os saves não acumulem
+ * pedidos indefinidamente; as iterações são curtas pelo mesmo motivo.
+ *
+ * Execução: java -jar target/benchmarks.jar OrderRepositoryContentionBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgs = {"-Xmx6g"})
+public class OrderRepositoryContentionBenchmark {
+
+    @Param({"map", "columnar"})
+    public String engine;
+
+    @Param({"100000"})
+    public int orders;
+
+    private OrderRepository repository;
+
+    @Setup(Level.Iteration)
+    public void setUp() {
+        repository = OrderFixtures.newRepository(engine);
+        OrderFixtures.fill(repository, orders, 42);
+    }
+
+    @State(Scope.Thread)
+    public static class Writer {
+
+        private final SplittableRandom random = new SplittableRandom(7);
+    }
+
+    @Benchmark
+    @Threads(4)
+    public Object save(Writer writer) {
+        return repository.save(OrderFixtures.randomOrder(writer.random));
+    }
+
+    @Benchmark
+    @Group("readWrite")
+    @GroupThreads(1)
+    public Object readWriteSave(Writer writer) {
+        return repository.save(OrderFixtures.randomOrder(writer.random));
+    }
+
+    @Benchmark
+    @Group("readWrite")
+    @GroupThreads(3)
+    public Object readWriteFindById() {
+        long id = ThreadLocalRandom.current().nextLong(1, orders + 1);
+        return repository.findById(id).orElse(null);
+    }
+
+    @Benchmark
+    @Threads(4)
+    @OutputTimeUnit(TimeUnit.SECONDS)
+    public Object findAll() {
+        return repository.findAll();
+    }
+}
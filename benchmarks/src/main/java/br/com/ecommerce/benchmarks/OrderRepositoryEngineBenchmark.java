@@ -0,0 +1,69 @@
+package br.com.ecommerce.benchmarks;
+
+import br.com.ecommerce.orderservice.repository.OrderRepository;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Vazão de leitura das engines do OrderRepository (map x columnar).
+ *
+ * O footprint em bytes por pedido é medido por {@link RepositoryFootprint}.
+ *
+ * Execução: java -jar target/benchmarks.jar OrderRepositoryEngineBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgs = {"-Xmx4g"})
+@Threads(4)
+public class OrderRepositoryEngineBenchmark {
+
+    @Param({"map", "columnar"})
+    public String engine;
+
+    @Param({"1000000"})
+    public int orders;
+
+    private OrderRepository repository;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        repository = OrderFixtures.newRepository(engine);
+        OrderFixtures.fill(repository, orders, 42);
+    }
+
+    @Benchmark
+    public Object findById() {
+        long id = ThreadLocalRandom.current().nextLong(1, orders + 1);
+        return repository.findById(id).orElse(null);
+    }
+
+    @Benchmark
+    public Object findPage() {
+        long cursor = ThreadLocalRandom.current().nextLong(0, orders - 100);
+        return repository.findPage(cursor, 100);
+    }
+
+    @Benchmark
+    public Object findByCustomerName() {
+        String customer = OrderFixtures.CUSTOMERS[
+                ThreadLocalRandom.current().nextInt(OrderFixtures.CUSTOMERS.length)];
+        return repository.findByCustomerName(customer, null, 20);
+    }
+}
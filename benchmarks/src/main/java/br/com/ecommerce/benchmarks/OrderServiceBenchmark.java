@@ -0,0 +1,103 @@
+package br.com.ecommerce.benchmarks;
+
+import br.com.ecommerce.orderservice.analytics.OrderAnalytics;
+import br.com.ecommerce.orderservice.audit.AuditLog;
+import br.com.ecommerce.orderservice.dto.OrderRequest;
+import br.com.ecommerce.orderservice.dto.OrderResponse;
+import br.com.ecommerce.orderservice.event.OrderCreatedEvent;
+import br.com.ecommerce.orderservice.outbox.OutboxJournal;
+import br.com.ecommerce.orderservice.producer.FailedEventLog;
+import br.com.ecommerce.orderservice.producer.OrderMessageProducer;
+import br.com.ecommerce.orderservice.producer.OrderShardRouter;
+import br.com.ecommerce.orderservice.producer.PublisherMetrics;
+import br.com.ecommerce.orderservice.service.OrderService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.amqp.rabbit.core.BatchingRabbitTemplate;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.beans.factory.support.DefaultListableBeanFactory;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * OrderService.createOrder sem o RabbitMQ: o producer é substituído por um
+ * stub que conclui o envio imediatamente, então o número mede a criação do
+ * pedido, o save no repositório, o AuditLog, o OrderAnalytics e a montagem do
+ * evento e da resposta.
+ *
+ * Execução: java -jar target/benchmarks.jar OrderServiceBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgs = {"-Xmx6g"})
+@Threads(4)
+public class OrderServiceBenchmark {
+
+    @Param({"map", "columnar"})
+    public String engine;
+
+    private OrderService orderService;
+
+    // Repositório novo a cada iteração, para não acumular pedidos indefinidamente
+    @Setup(Level.Iteration)
+    public void setUp() {
+        DefaultListableBeanFactory beanFactory = new DefaultListableBeanFactory();
+        orderService = new OrderService(
+                OrderFixtures.newRepository(engine),
+                new StubOrderMessageProducer(beanFactory),
+                new AuditLog(false, 0),
+                new OrderAnalytics(1_000, 100_000, 60),
+                beanFactory.getBeanProvider(OutboxJournal.class));
+    }
+
+    @Benchmark
+    public OrderResponse createOrder() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        return orderService.createOrder(new OrderRequest(
+                OrderFixtures.CUSTOMERS[random.nextInt(OrderFixtures.CUSTOMERS.length)],
+                OrderFixtures.PRODUCTS[random.nextInt(OrderFixtures.PRODUCTS.length)],
+                random.nextInt(1, 1_000_000) / 100.0));
+    }
+
+    /**
+     * Producer que não publica: o future já vem concluído, como um confirm imediato.
+     */
+    static final class StubOrderMessageProducer extends OrderMessageProducer {
+
+        private static final CompletableFuture<Void> CONFIRMED = CompletableFuture.completedFuture(null);
+
+        StubOrderMessageProducer(DefaultListableBeanFactory beanFactory) {
+            super(new RabbitTemplate(),
+                    beanFactory.getBeanProvider(BatchingRabbitTemplate.class),
+                    Runnable::run,
+                    OrderShardRouter.unsharded("orders.created"),
+                    new PublisherMetrics(new SimpleMeterRegistry()),
+                    new FailedEventLog(new ObjectMapper(), "failed-events.ndjson"),
+                    new AuditLog(false, 0),
+                    1);
+        }
+
+        @Override
+        public CompletableFuture<Void> sendOrderCreatedEvent(OrderCreatedEvent event) {
+            return CONFIRMED;
+        }
+    }
+}
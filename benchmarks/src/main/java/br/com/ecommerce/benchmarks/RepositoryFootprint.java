@@ -0,0 +1,47 @@
+package br.com.ecommerce.benchmarks;
+
+import br.com.ecommerce.orderservice.repository.OrderRepository;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+
+/**
+ * Mede o footprint de heap por pedido de cada engine do OrderRepository.
+ *
+ * Não é um benchmark JMH: preenche o repositório, força GC e compara o
+ * heap usado antes e depois. Execute com heap fixo para reduzir ruído:
+ *
+ * java -Xms4g -Xmx4g -cp target/benchmarks.jar br.com.ecommerce.benchmarks.RepositoryFootprint 1000000
+ */
+public final class RepositoryFootprint {
+
+    private RepositoryFootprint() {
+    }
+
+    public static void main(String[] args) throws InterruptedException {
+        int orders = args.length > 0 ? Integer.parseInt(args[0]) : 1_000_000;
+
+        for (String engine : new String[]{"map", "columnar"}) {
+            long before = usedHeap();
+            OrderRepository repository = OrderFixtures.newRepository(engine);
+            OrderFixtures.fill(repository, orders, 42);
+            long after = usedHeap();
+
+            System.out.printf("%-9s %,d pedidos: %,.1f bytes/pedido%n",
+                    engine, repository.count(), (after - before) / (double) orders);
+            // Mantém o repositório vivo até a medição
+            if (repository.count() != orders) {
+                throw new IllegalStateException("Quantidade inesperada de pedidos");
+            }
+        }
+    }
+
+    private static long usedHeap() throws InterruptedException {
+        MemoryMXBean memory = ManagementFactory.getMemoryMXBean();
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+            Thread.sleep(200);
+        }
+        return memory.getHeapMemoryUsage().getUsed();
+    }
+}
@@ -0,0 +1,153 @@
+package br.com.ecommerce.benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Compara threads de plataforma e threads virtuais em alta concorrência.
+ *
+ * Cada invocação dispara {@code concurrency} tarefas que simulam uma
+ * requisição HTTP: um trecho de CPU, uma seção crítica curta que bloqueia
+ * (como a gravação no journal do outbox) e uma espera de I/O mais longa
+ * (round trip ao broker). O modo "platform" usa um pool de 200
+ * threads, o tamanho padrão do pool do Tomcat; o modo "virtual" usa uma
+ * thread virtual por tarefa, como com spring.threads.virtual.enabled=true.
+ *
+ * O parâmetro {@code guard} mostra o custo do pinning: com "synchronized"
+ * a thread virtual fica presa à thread carregadora enquanto bloqueia na
+ * seção crítica; com "reentrantLock" ela é desmontada normalmente.
+ *
+ * Execução: java -jar target/benchmarks.jar VirtualThreadBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class VirtualThreadBenchmark {
+
+    private static final int PLATFORM_POOL_SIZE = 200;
+    private static final int LOCK_STRIPES = 64;
+
+    @Param({"platform", "virtual"})
+    public String threads;
+
+    @Param({"reentrantLock", "synchronized"})
+    public String guard;
+
+    @Param({"1000", "10000"})
+    public int concurrency;
+
+    @Param({"2"})
+    public int ioMillis;
+
+    @Param({"50"})
+    public int criticalSectionMicros;
+
+    private TaskExecutor executor;
+    private ThreadPoolTaskExecutor platformPool;
+    private final Object[] monitors = new Object[LOCK_STRIPES];
+    private final ReentrantLock[] locks = new ReentrantLock[LOCK_STRIPES];
+
+    // Consome o resultado do trecho de CPU (Blackhole não é seguro entre threads)
+    private final LongAdder sink = new LongAdder();
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        for (int i = 0; i < LOCK_STRIPES; i++) {
+            monitors[i] = new Object();
+            locks[i] = new ReentrantLock();
+        }
+
+        if ("virtual".equals(threads)) {
+            SimpleAsyncTaskExecutor virtual = new SimpleAsyncTaskExecutor("bench-virtual-");
+            virtual.setVirtualThreads(true);
+            executor = virtual;
+        } else {
+            platformPool = new ThreadPoolTaskExecutor();
+            platformPool.setCorePoolSize(PLATFORM_POOL_SIZE);
+            platformPool.setMaxPoolSize(PLATFORM_POOL_SIZE);
+            platformPool.setQueueCapacity(Integer.MAX_VALUE);
+            platformPool.setThreadNamePrefix("bench-platform-");
+            platformPool.initialize();
+            executor = platformPool;
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        if (platformPool != null) {
+            platformPool.shutdown();
+        }
+    }
+
+    @Benchmark
+    public long burst() throws InterruptedException {
+        CountDownLatch done = new CountDownLatch(concurrency);
+        boolean useMonitor = "synchronized".equals(guard);
+
+        for (int i = 0; i < concurrency; i++) {
+            int stripe = i % LOCK_STRIPES;
+            executor.execute(() -> {
+                try {
+                    sink.add(work(stripe));
+                    if (useMonitor) {
+                        synchronized (monitors[stripe]) {
+                            LockSupport.parkNanos(criticalSectionMicros * 1_000L);
+                        }
+                    } else {
+                        locks[stripe].lock();
+                        try {
+                            LockSupport.parkNanos(criticalSectionMicros * 1_000L);
+                        } finally {
+                            locks[stripe].unlock();
+                        }
+                    }
+                    simulateIo();
+                } finally {
+                    done.countDown();
+                }
+            });
+        }
+
+        done.await();
+        return sink.sum();
+    }
+
+    private long work(int seed) {
+        long value = seed;
+        for (int i = 0; i < 1_000; i++) {
+            value = value * 31 + i;
+        }
+        return value;
+    }
+
+    private void simulateIo() {
+        try {
+            Thread.sleep(ioMillis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
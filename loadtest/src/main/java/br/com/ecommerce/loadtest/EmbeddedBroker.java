@@ -0,0 +1,108 @@
+package br.com.ecommerce.loadtest;
+
+import org.apache.qpid.server.SystemLauncher;
+import org.apache.qpid.server.model.SystemConfig;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.net.ServerSocket;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.stream.Stream;
+
+/**
+ * Broker AMQP 0-9-1 embarcado (Qpid Broker-J) para o teste de carga.
+ *
+ * O broker roda no mesmo processo dos serviços, em uma porta livre, com um
+ * único virtual host em memória: nada é gravado em disco além do diretório
+ * de trabalho temporário, apagado no close().
+ *
+ * Recursos usados pelos serviços no caminho feliz (exchanges direct/fanout,
+ * publisher confirms, returns, consumers exclusivos, prefetch) são suportados
+ * pelo Broker-J; o TTL e o dead-lettering das filas de retry do
+ * notification-service seguem a semântica do RabbitMQ e não devem ser
+ * avaliados com este broker.
+ */
+public final class EmbeddedBroker implements AutoCloseable {
+
+    public static final String USERNAME = "loadtest";
+    public static final String PASSWORD = "loadtest";
+    public static final String VIRTUAL_HOST = "loadtest";
+
+    private static final String CONFIGURATION = "broker-config.json";
+
+    private final SystemLauncher launcher;
+    private final Path workDirectory;
+    private final int port;
+
+    private EmbeddedBroker(SystemLauncher launcher, Path workDirectory, int port) {
+        this.launcher = launcher;
+        this.workDirectory = workDirectory;
+        this.port = port;
+    }
+
+    /**
+     * Inicia o broker em uma porta livre.
+     */
+    public static EmbeddedBroker start() throws Exception {
+        Path workDirectory = Files.createTempDirectory("loadtest-broker");
+        Path configuration = workDirectory.resolve(CONFIGURATION);
+        try (InputStream in = EmbeddedBroker.class.getClassLoader().getResourceAsStream(CONFIGURATION)) {
+            if (in == null) {
+                throw new IllegalStateException(CONFIGURATION + " não encontrado no classpath");
+            }
+            Files.copy(in, configuration, StandardCopyOption.REPLACE_EXISTING);
+        }
+        int port = freePort();
+
+        Map<String, String> context = new HashMap<>();
+        context.put("qpid.work_dir", workDirectory.toString());
+        context.put("qpid.amqp_port", Integer.toString(port));
+        context.put("loadtest.broker.username", USERNAME);
+        context.put("loadtest.broker.password", PASSWORD);
+        context.put("loadtest.broker.virtual-host", VIRTUAL_HOST);
+
+        Map<String, Object> attributes = new HashMap<>();
+        attributes.put(SystemConfig.TYPE, "Memory");
+        attributes.put(SystemConfig.INITIAL_CONFIGURATION_LOCATION, configuration.toUri().toString());
+        attributes.put(SystemConfig.STARTUP_LOGGED_TO_SYSTEM_OUT, false);
+        attributes.put(SystemConfig.CONTEXT, context);
+
+        SystemLauncher launcher = new SystemLauncher();
+        launcher.startup(attributes);
+        return new EmbeddedBroker(launcher, workDirectory, port);
+    }
+
+    private static int freePort() throws IOException {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            socket.setReuseAddress(true);
+            return socket.getLocalPort();
+        }
+    }
+
+    public int port() {
+        return port;
+    }
+
+    @Override
+    public void close() {
+        try {
+            launcher.shutdown();
+        } finally {
+            deleteRecursively(workDirectory);
+        }
+    }
+
+    private static void deleteRecursively(Path directory) {
+        try (Stream<Path> paths = Files.walk(directory)) {
+            paths.sorted(Comparator.reverseOrder()).forEach(path -> path.toFile().delete());
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
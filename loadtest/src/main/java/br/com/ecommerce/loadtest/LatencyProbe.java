@@ -0,0 +1,70 @@
+package br.com.ecommerce.loadtest;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Liga cada notificação entregue ao pedido que a originou.
+ *
+ * O pedido não precisa da resposta HTTP para ser identificado: o gerador de
+ * carga codifica a fase e o número da requisição no customerName
+ * ("loadtest-<fase>-<requisição>"), que chega intacto ao canal de probe.
+ * Notificações de fases anteriores que chegam atrasadas são apenas contadas.
+ */
+public class LatencyProbe {
+
+    static final String CUSTOMER_PREFIX = "loadtest-";
+
+    private volatile LoadPhase current;
+
+    private final LongAdder stale = new LongAdder();
+    private final LongAdder unknown = new LongAdder();
+
+    static String customerName(int phase, int request) {
+        return CUSTOMER_PREFIX + phase + "-" + request;
+    }
+
+    void begin(LoadPhase phase) {
+        current = phase;
+    }
+
+    void onNotified(String customerName, long nanos) {
+        if (customerName == null || !customerName.startsWith(CUSTOMER_PREFIX)) {
+            unknown.increment();
+            return;
+        }
+        int separator = customerName.indexOf('-', CUSTOMER_PREFIX.length());
+        if (separator < 0) {
+            unknown.increment();
+            return;
+        }
+        int phaseIndex;
+        int request;
+        try {
+            phaseIndex = Integer.parseInt(customerName, CUSTOMER_PREFIX.length(), separator, 10);
+            request = Integer.parseInt(customerName, separator + 1, customerName.length(), 10);
+        } catch (NumberFormatException e) {
+            unknown.increment();
+            return;
+        }
+        LoadPhase phase = current;
+        if (phase == null || phase.index() != phaseIndex) {
+            stale.increment();
+            return;
+        }
+        phase.onNotified(request, nanos);
+    }
+
+    /**
+     * Notificações de fases já encerradas (chegaram depois do prazo de drenagem).
+     */
+    long stale() {
+        return stale.sum();
+    }
+
+    /**
+     * Notificações de pedidos que não foram criados pelo gerador de carga.
+     */
+    long unknown() {
+        return unknown.sum();
+    }
+}
@@ -0,0 +1,180 @@
+package br.com.ecommerce.loadtest;
+
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+
+import java.io.PrintStream;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Estado de uma fase do teste de carga (uma taxa de requisições).
+ *
+ * As latências são medidas a partir do instante planejado de cada requisição
+ * (início da fase + n / taxa), e não do instante em que ela foi enviada: se
+ * o gerador, a API ou o broker atrasarem, a espera entra na latência em vez
+ * de reduzir a taxa de envio (correção da coordinated omission). As
+ * requisições do aquecimento são enviadas normalmente, mas não são medidas.
+ *
+ * Requisições ainda sem notificação no fim da fase (após o drain) entram no
+ * histograma ponta a ponta com a latência até esse instante: excluí-las
+ * descartaria justamente as piores amostras.
+ */
+class LoadPhase {
+
+    private final int index;
+    private final int ratePerSecond;
+    private final int warmupRequests;
+    private final int totalRequests;
+
+    // Instante planejado de cada requisição (System.nanoTime)
+    private final AtomicLongArray intendedStart;
+    // Instante da primeira notificação de cada requisição (0 = ainda não notificada)
+    private final AtomicLongArray notifiedAt;
+
+    private final Recorder endToEnd = new Recorder(3);
+    private final Recorder httpResponse = new Recorder(3);
+
+    private final LongAdder httpErrors = new LongAdder();
+    private final LongAdder notified = new LongAdder();
+    private final LongAdder duplicates = new LongAdder();
+    private final LongAccumulator lastNotified = new LongAccumulator(Math::max, Long.MIN_VALUE);
+
+    private volatile long measurementStart;
+    private volatile long sendingFinished;
+    private volatile long maxSendLagNanos;
+
+    LoadPhase(int index, int ratePerSecond, int warmupRequests, int totalRequests) {
+        this.index = index;
+        this.ratePerSecond = ratePerSecond;
+        this.warmupRequests = warmupRequests;
+        this.totalRequests = totalRequests;
+        this.intendedStart = new AtomicLongArray(totalRequests);
+        this.notifiedAt = new AtomicLongArray(totalRequests);
+    }
+
+    int index() {
+        return index;
+    }
+
+    int ratePerSecond() {
+        return ratePerSecond;
+    }
+
+    int totalRequests() {
+        return totalRequests;
+    }
+
+    int measuredRequests() {
+        return totalRequests - warmupRequests;
+    }
+
+    void onScheduled(int request, long intended) {
+        intendedStart.set(request, intended);
+        if (request == warmupRequests) {
+            measurementStart = intended;
+        }
+    }
+
+    void onSendLag(long lagNanos) {
+        if (lagNanos > maxSendLagNanos) {
+            maxSendLagNanos = lagNanos;
+        }
+    }
+
+    void onSendingFinished(long nanos) {
+        sendingFinished = nanos;
+    }
+
+    void onHttpResponse(int request, long nanos, boolean success) {
+        if (!success) {
+            httpErrors.increment();
+        }
+        if (request >= warmupRequests) {
+            httpResponse.recordValue(Math.max(0, nanos - intendedStart.get(request)));
+        }
+    }
+
+    void onNotified(int request, long nanos) {
+        if (request < 0 || request >= totalRequests) {
+            return;
+        }
+        // Reentregas do mesmo pedido contam só a primeira notificação
+        if (!notifiedAt.compareAndSet(request, 0, nanos)) {
+            duplicates.increment();
+            return;
+        }
+        if (request < warmupRequests) {
+            return;
+        }
+        endToEnd.recordValue(Math.max(0, nanos - intendedStart.get(request)));
+        notified.increment();
+        lastNotified.accumulate(nanos);
+    }
+
+    long notified() {
+        return notified.sum();
+    }
+
+    /**
+     * Imprime o resumo da fase. Os histogramas são consumidos (chamar uma vez).
+     *
+     * @return histogramas ponta a ponta e da resposta HTTP, para o .hgrm
+     */
+    Histogram[] printSummary(PrintStream out) {
+        long deadline = System.nanoTime();
+        Histogram endToEndHistogram = endToEnd.getIntervalHistogram();
+        Histogram httpHistogram = httpResponse.getIntervalHistogram();
+
+        // Pendentes contam como notificadas no fim da fase (limite inferior da latência real)
+        long pending = 0;
+        for (int request = warmupRequests; request < totalRequests; request++) {
+            long intended = intendedStart.get(request);
+            if (notifiedAt.get(request) == 0 && intended != 0) {
+                endToEndHistogram.recordValue(Math.max(0, deadline - intended));
+                pending++;
+            }
+        }
+
+        long completed = notified.sum();
+        long last = lastNotified.get();
+        double elapsedSeconds = completed == 0 ? 0
+                : (last - measurementStart) / (double) TimeUnit.SECONDS.toNanos(1);
+        double sendSeconds = (sendingFinished - measurementStart) / (double) TimeUnit.SECONDS.toNanos(1);
+
+        out.printf("%n=== Fase %d: %d req/s ===%n", index, ratePerSecond);
+        out.printf("Requisições medidas:  %d (aquecimento: %d)%n", measuredRequests(), warmupRequests);
+        out.printf("Taxa de envio:        %.1f req/s (maior atraso do gerador: %.2f ms)%n",
+                sendSeconds > 0 ? measuredRequests() / sendSeconds : 0, maxSendLagNanos / 1e6);
+        out.printf("Notificações:         %d (%.1f/s), perdidas: %d, duplicadas: %d, erros HTTP: %d%n",
+                completed, elapsedSeconds > 0 ? completed / elapsedSeconds : 0,
+                measuredRequests() - completed, duplicates.sum(), httpErrors.sum());
+        if (pending > 0) {
+            out.printf("Sem notificação:      %d contadas com a latência até o fim da fase; "
+                    + "os percentis são um limite inferior%n", pending);
+        }
+        printPercentiles(out, "POST /orders -> notificação", endToEndHistogram);
+        printPercentiles(out, "POST /orders -> resposta", httpHistogram);
+        return new Histogram[]{endToEndHistogram, httpHistogram};
+    }
+
+    private static void printPercentiles(PrintStream out, String label, Histogram histogram) {
+        if (histogram.getTotalCount() == 0) {
+            out.printf("%-28s sem amostras%n", label);
+            return;
+        }
+        out.printf("%-28s p50=%.2f p90=%.2f p99=%.2f p99.9=%.2f p99.99=%.2f max=%.2f ms%n", label,
+                millis(histogram.getValueAtPercentile(50)),
+                millis(histogram.getValueAtPercentile(90)),
+                millis(histogram.getValueAtPercentile(99)),
+                millis(histogram.getValueAtPercentile(99.9)),
+                millis(histogram.getValueAtPercentile(99.99)),
+                millis(histogram.getMaxValue()));
+    }
+
+    private static double millis(long nanos) {
+        return nanos / 1e6;
+    }
+}
@@ -0,0 +1,155 @@
+package br.com.ecommerce.loadtest;
+
+import br.com.ecommerce.notificationservice.NotificationServiceApplication;
+import br.com.ecommerce.orderservice.OrderServiceApplication;
+import org.HdrHistogram.Histogram;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ApplicationContextInitializer;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Teste de carga ponta a ponta sem infraestrutura externa: sobe um broker
+ * AMQP embarcado, o notification-service e o order-service no mesmo
+ * processo, envia POST /orders em malha aberta em cada taxa configurada e
+ * reporta vazão e percentis de latência até a entrega da notificação.
+ *
+ * Cada serviço usa o próprio application.properties, com o broker, a porta
+ * HTTP (aleatória) e as propriedades passadas em --order.* e --notification.*
+ * sobrescritos pelo harness.
+ *
+ * Execução: java -jar target/loadtest.jar --rates=500,1000,2000 --duration-s=30 --warmup-s=10
+ *           [--drain-timeout-s=30] [--pause-s=5] [--hgrm-dir=resultados]
+ *           [--order.rabbitmq.producer.batch.enabled=true] [--notification.rabbitmq.consumer.prefetch=500]
+ */
+public final class LoadTestHarness {
+
+    private static final String ORDER_PREFIX = "order.";
+    private static final String NOTIFICATION_PREFIX = "notification.";
+
+    private LoadTestHarness() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = new HashMap<>();
+        Map<String, String> orderOverrides = new HashMap<>();
+        Map<String, String> notificationOverrides = new HashMap<>();
+        for (String arg : args) {
+            if (!arg.startsWith("--") || !arg.contains("=")) {
+                throw new IllegalArgumentException("Argumento inválido (use --chave=valor): " + arg);
+            }
+            int separator = arg.indexOf('=');
+            String key = arg.substring(2, separator);
+            String value = arg.substring(separator + 1);
+            if (key.startsWith(ORDER_PREFIX)) {
+                orderOverrides.put(key.substring(ORDER_PREFIX.length()), value);
+            } else if (key.startsWith(NOTIFICATION_PREFIX)) {
+                notificationOverrides.put(key.substring(NOTIFICATION_PREFIX.length()), value);
+            } else {
+                options.put(key, value);
+            }
+        }
+
+        int[] rates = Arrays.stream(options.getOrDefault("rates", "200,500,1000").split(","))
+                .map(String::trim)
+                .mapToInt(Integer::parseInt)
+                .toArray();
+        int durationSeconds = Integer.parseInt(options.getOrDefault("duration-s", "30"));
+        int warmupSeconds = Integer.parseInt(options.getOrDefault("warmup-s", "10"));
+        long drainTimeoutMs = TimeUnit.SECONDS.toMillis(Long.parseLong(options.getOrDefault("drain-timeout-s", "30")));
+        long pauseMs = TimeUnit.SECONDS.toMillis(Long.parseLong(options.getOrDefault("pause-s", "5")));
+        Path hgrmDirectory = options.containsKey("hgrm-dir") ? Path.of(options.get("hgrm-dir")) : null;
+
+        LatencyProbe probe = new LatencyProbe();
+        try (EmbeddedBroker broker = EmbeddedBroker.start()) {
+            System.out.printf("[LOADTEST] Broker AMQP embarcado na porta %d%n", broker.port());
+
+            // O notification-service sobe primeiro para que a fila já tenha consumer
+            // quando os primeiros pedidos forem publicados
+            try (ConfigurableApplicationContext notificationService = start(NotificationServiceApplication.class,
+                         "notification-service", broker, notificationOverrides,
+                         context -> context.getBeanFactory().registerSingleton("probeNotificationChannel",
+                                 new ProbeNotificationChannel(probe)));
+                 ConfigurableApplicationContext orderService = start(OrderServiceApplication.class,
+                         "order-service", broker, orderOverrides, context -> { });
+                 OpenLoopLoadGenerator generator = new OpenLoopLoadGenerator(
+                         orderService.getEnvironment().getRequiredProperty("local.server.port", Integer.class))) {
+
+                for (int i = 0; i < rates.length; i++) {
+                    LoadPhase phase = new LoadPhase(i, rates[i], rates[i] * warmupSeconds,
+                            rates[i] * (warmupSeconds + durationSeconds));
+                    probe.begin(phase);
+                    System.out.printf("[LOADTEST] Fase %d: %d req/s por %d s (+%d s de aquecimento)%n",
+                            i, rates[i], durationSeconds, warmupSeconds);
+
+                    generator.run(phase);
+                    drain(phase, generator, drainTimeoutMs);
+
+                    Histogram[] histograms = phase.printSummary(System.out);
+                    if (hgrmDirectory != null) {
+                        String prefix = "fase-" + i + "-" + rates[i] + "rps";
+                        writeHgrm(hgrmDirectory.resolve(prefix + "-notificacao.hgrm"), histograms[0]);
+                        writeHgrm(hgrmDirectory.resolve(prefix + "-resposta.hgrm"), histograms[1]);
+                    }
+                    if (i < rates.length - 1) {
+                        Thread.sleep(pauseMs);
+                    }
+                }
+                System.out.printf("%n[LOADTEST] Notificações fora da fase: %d, de pedidos desconhecidos: %d%n",
+                        probe.stale(), probe.unknown());
+            }
+        }
+    }
+
+    private static ConfigurableApplicationContext start(Class<?> application, String service, EmbeddedBroker broker,
+                                                        Map<String, String> overrides,
+                                                        ApplicationContextInitializer<ConfigurableApplicationContext> initializer) {
+        Map<String, String> properties = new LinkedHashMap<>();
+        properties.put("spring.config.location", "classpath:/" + service + "/application.properties");
+        properties.put("spring.main.banner-mode", "off");
+        properties.put("server.port", "0");
+        properties.put("spring.rabbitmq.host", "localhost");
+        properties.put("spring.rabbitmq.port", Integer.toString(broker.port()));
+        properties.put("spring.rabbitmq.username", EmbeddedBroker.USERNAME);
+        properties.put("spring.rabbitmq.password", EmbeddedBroker.PASSWORD);
+        properties.put("spring.rabbitmq.virtual-host", EmbeddedBroker.VIRTUAL_HOST);
+        // Um argumento repetido viraria uma lista ("a,b"), então as sobrescritas substituem a entrada
+        properties.putAll(overrides);
+        String[] args = properties.entrySet().stream()
+                .map(property -> "--" + property.getKey() + "=" + property.getValue())
+                .toArray(String[]::new);
+        ConfigurableApplicationContext context = new SpringApplicationBuilder(application)
+                .initializers(initializer)
+                .run(args);
+        System.out.printf("[LOADTEST] %s na porta %s%n", service,
+                context.getEnvironment().getProperty("local.server.port"));
+        return context;
+    }
+
+    // Espera as respostas HTTP e as notificações pendentes da fase, até o timeout
+    private static void drain(LoadPhase phase, OpenLoopLoadGenerator generator, long timeoutMs)
+            throws InterruptedException {
+        long deadline = System.currentTimeMillis() + timeoutMs;
+        while (System.currentTimeMillis() < deadline
+                && (phase.notified() < phase.measuredRequests() || generator.inFlight() > 0)) {
+            Thread.sleep(50);
+        }
+    }
+
+    private static void writeHgrm(Path file, Histogram histogram) throws IOException {
+        Files.createDirectories(file.getParent());
+        try (PrintStream out = new PrintStream(Files.newOutputStream(file))) {
+            // Valores em milissegundos
+            histogram.outputPercentileDistribution(out, 1e6);
+        }
+    }
+}
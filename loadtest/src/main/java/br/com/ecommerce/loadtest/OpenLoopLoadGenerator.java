@@ -0,0 +1,102 @@
+package br.com.ecommerce.loadtest;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.Locale;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Gerador de carga em malha aberta: as requisições seguem um cronograma
+ * fixo (uma a cada 1/taxa segundos) e são enviadas de forma assíncrona,
+ * sem esperar a resposta da anterior. Uma API lenta não reduz a taxa
+ * oferecida; se o próprio gerador atrasar, as requisições atrasadas são
+ * enviadas imediatamente e o atraso é medido a partir do instante planejado.
+ */
+class OpenLoopLoadGenerator implements AutoCloseable {
+
+    // Abaixo disso o gerador faz spin em vez de estacionar a thread
+    private static final long SPIN_THRESHOLD_NANOS = TimeUnit.MICROSECONDS.toNanos(100);
+
+    private static final String[] PRODUCTS = {"Notebook", "Smartphone", "Monitor", "Teclado", "Mouse"};
+
+    private final URI ordersUri;
+    private final ExecutorService clientExecutor = Executors.newVirtualThreadPerTaskExecutor();
+    private final HttpClient client;
+    private final LongAdder inFlight = new LongAdder();
+
+    OpenLoopLoadGenerator(int orderServicePort) {
+        this.ordersUri = URI.create("http://localhost:" + orderServicePort + "/orders");
+        this.client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(5))
+                .executor(clientExecutor)
+                .build();
+    }
+
+    /**
+     * Envia todas as requisições da fase no cronograma e retorna quando a
+     * última foi enviada (as respostas e notificações continuam chegando).
+     */
+    void run(LoadPhase phase) {
+        long intervalNanos = TimeUnit.SECONDS.toNanos(1) / phase.ratePerSecond();
+        long start = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(10);
+        for (int request = 0; request < phase.totalRequests(); request++) {
+            long intended = start + request * intervalNanos;
+            waitUntil(intended);
+            phase.onScheduled(request, intended);
+            phase.onSendLag(System.nanoTime() - intended);
+            send(phase, request);
+        }
+        phase.onSendingFinished(System.nanoTime());
+    }
+
+    private static void waitUntil(long deadline) {
+        long remaining;
+        while ((remaining = deadline - System.nanoTime()) > 0) {
+            if (remaining > SPIN_THRESHOLD_NANOS) {
+                LockSupport.parkNanos(remaining - SPIN_THRESHOLD_NANOS);
+            } else {
+                Thread.onSpinWait();
+            }
+        }
+    }
+
+    private void send(LoadPhase phase, int request) {
+        String body = String.format(Locale.ROOT,
+                "{\"customerName\":\"%s\",\"product\":\"%s\",\"amount\":%d.90}",
+                LatencyProbe.customerName(phase.index(), request),
+                PRODUCTS[request % PRODUCTS.length],
+                100 + request % 5_000);
+        HttpRequest httpRequest = HttpRequest.newBuilder(ordersUri)
+                .timeout(Duration.ofSeconds(30))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(body))
+                .build();
+        inFlight.increment();
+        client.sendAsync(httpRequest, HttpResponse.BodyHandlers.discarding())
+                .whenComplete((response, error) -> {
+                    inFlight.decrement();
+                    boolean success = error == null && response.statusCode() / 100 == 2;
+                    phase.onHttpResponse(request, System.nanoTime(), success);
+                });
+    }
+
+    /**
+     * Requisições HTTP ainda sem resposta.
+     */
+    long inFlight() {
+        return inFlight.sum();
+    }
+
+    @Override
+    public void close() {
+        clientExecutor.shutdownNow();
+    }
+}
@@ -0,0 +1,37 @@
+package br.com.ecommerce.loadtest;
+
+import br.com.ecommerce.notificationservice.channel.NotificationBatch;
+import br.com.ecommerce.notificationservice.channel.NotificationChannel;
+import br.com.ecommerce.notificationservice.event.OrderCreatedEvent;
+
+/**
+ * Canal registrado no notification-service durante o teste de carga: cada
+ * notificação entregue a ele marca o fim da latência ponta a ponta do pedido
+ * (POST /orders até a entrega da notificação).
+ *
+ * Recebe os lotes como qualquer outro canal (bulkhead, agrupador, rate
+ * limit em notification.channel.probe.*), em paralelo com e-mail, SMS e push.
+ */
+public class ProbeNotificationChannel implements NotificationChannel {
+
+    public static final String NAME = "probe";
+
+    private final LatencyProbe probe;
+
+    public ProbeNotificationChannel(LatencyProbe probe) {
+        this.probe = probe;
+    }
+
+    @Override
+    public String name() {
+        return NAME;
+    }
+
+    @Override
+    public void send(NotificationBatch batch) {
+        long now = System.nanoTime();
+        for (OrderCreatedEvent event : batch.events()) {
+            probe.onNotified(event.getCustomerName(), now);
+        }
+    }
+}
@@ -0,0 +1,64 @@
+package br.com.ecommerce.notificationservice.audit;
+
+import br.com.ecommerce.notificationservice.event.OrderCreatedEvent;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+// Registro de auditoria das notificações: uma linha compacta (chave=valor) por
+// etapa no logger "audit" (assíncrono, descarta quando o buffer enche).
+//
+// A amostragem (audit.sample-rate) usa o mesmo hash do orderId do
+// order-service: um pedido amostrado lá também é registrado aqui.
+@Component
+public class AuditLog {
+
+    private static final Logger audit = LoggerFactory.getLogger("audit");
+
+    private final boolean enabled;
+    private final double sampleRate;
+
+    public AuditLog(@Value("${audit.enabled:true}") boolean enabled,
+                    @Value("${audit.sample-rate:1.0}") double sampleRate) {
+        this.enabled = enabled;
+        this.sampleRate = sampleRate;
+    }
+
+    public void notificationReceived(List<OrderCreatedEvent> events) {
+        for (OrderCreatedEvent event : events) {
+            if (isSampled(event.getOrderId())) {
+                audit.info("event=notification.received orderId={} customer=\"{}\" amount={}",
+                        event.getOrderId(), event.getCustomerName(), event.getAmount());
+            }
+        }
+    }
+
+    public void notificationSent(String channel, List<OrderCreatedEvent> events) {
+        for (OrderCreatedEvent event : events) {
+            if (isSampled(event.getOrderId())) {
+                audit.info("event=notification.sent channel={} orderId={}", channel, event.getOrderId());
+            }
+        }
+    }
+
+    public boolean isSampled(Long orderId) {
+        if (!enabled || sampleRate <= 0 || !audit.isInfoEnabled()) {
+            return false;
+        }
+        return sampleRate >= 1 || orderId == null || sample(orderId) < sampleRate;
+    }
+
+    // Valor em [0, 1) derivado do orderId (finalizador do MurmurHash3)
+    static double sample(long orderId) {
+        long h = orderId;
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        h ^= h >>> 33;
+        return (h >>> 11) * 0x1.0p-53;
+    }
+}
@@ -0,0 +1,74 @@
+package br.com.ecommerce.notificationservice.channel;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Isola um canal em seu próprio pool limitado (bulkhead): um canal lento ou
+// com falha esgota apenas o seu pool, sem atrasar os demais canais nem a fila.
+// Cada envio tem timeout; ao expirar, a thread do envio é interrompida.
+public class ChannelBulkhead {
+
+    private final NotificationChannel channel;
+    private final ThreadPoolExecutor executor;
+    private final long timeoutMs;
+    private final boolean required;
+
+    public ChannelBulkhead(NotificationChannel channel, int threads, int queueCapacity,
+                           long timeoutMs, boolean required) {
+        this.channel = channel;
+        this.timeoutMs = timeoutMs;
+        this.required = required;
+        AtomicInteger counter = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "notification-" + channel.name() + "-" + counter.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+    }
+
+    public CompletableFuture<Void> submit(NotificationBatch batch) {
+        CompletableFuture<Void> result = new CompletableFuture<>();
+        Future<?> task;
+        try {
+            task = executor.submit(() -> {
+                try {
+                    channel.send(batch);
+                    result.complete(null);
+                } catch (Throwable e) {
+                    result.completeExceptionally(e);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            // Bulkhead cheio: falha imediata em vez de enfileirar sem limite
+            return CompletableFuture.failedFuture(
+                    new RejectedExecutionException("Bulkhead do canal " + channel.name() + " cheio", e));
+        }
+        return result.orTimeout(timeoutMs, TimeUnit.MILLISECONDS)
+                .whenComplete((ignored, error) -> {
+                    if (error instanceof TimeoutException) {
+                        task.cancel(true);
+                    }
+                });
+    }
+
+    public String name() {
+        return channel.name();
+    }
+
+    public boolean isRequired() {
+        return required;
+    }
+
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+}
@@ -0,0 +1,198 @@
+package br.com.ecommerce.notificationservice.channel;
+
+import br.com.ecommerce.notificationservice.event.OrderCreatedEvent;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+// Fila por canal que agrupa as notificações de várias mensagens em uma única
+// chamada ao provedor (até batchSize pedidos ou lingerMs de espera) e respeita
+// o limite de chamadas por segundo do provedor (TokenBucket).
+//
+// A fila é limitada a maxPending pedidos: quando ela enche, o listener que
+// está enviando fica bloqueado, deixa de confirmar mensagens e o prefetch
+// segura o restante no broker em vez de acumular pedidos no heap.
+public class ChannelMicroBatcher {
+
+    private static final Logger logger = LoggerFactory.getLogger(ChannelMicroBatcher.class);
+
+    private final ChannelBulkhead bulkhead;
+    private final TokenBucket rateLimiter;
+    private final int batchSize;
+    private final long lingerNanos;
+    private final int maxPending;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition notEmpty = lock.newCondition();
+    private final Condition notFull = lock.newCondition();
+    private final Deque<Pending> queue = new ArrayDeque<>();
+    private int pendingOrders;
+
+    private final Thread flusher;
+    private volatile boolean running = true;
+
+    private ChannelMicroBatcher(ChannelBulkhead bulkhead, TokenBucket rateLimiter,
+                                int batchSize, long lingerMs, int maxPending) {
+        this.bulkhead = bulkhead;
+        this.rateLimiter = rateLimiter;
+        this.batchSize = Math.max(1, batchSize);
+        this.lingerNanos = TimeUnit.MILLISECONDS.toNanos(lingerMs);
+        this.maxPending = Math.max(this.batchSize, maxPending);
+        this.flusher = new Thread(this::flushLoop, "notification-" + bulkhead.name() + "-batcher");
+        this.flusher.setDaemon(true);
+    }
+
+    // Cria o agrupador e inicia a thread de envio depois da construção completa
+    public static ChannelMicroBatcher start(ChannelBulkhead bulkhead, TokenBucket rateLimiter,
+                                            int batchSize, long lingerMs, int maxPending) {
+        ChannelMicroBatcher batcher = new ChannelMicroBatcher(bulkhead, rateLimiter, batchSize, lingerMs, maxPending);
+        batcher.flusher.start();
+        return batcher;
+    }
+
+    // Enfileira o lote; o future conclui quando a chamada ao provedor que o incluiu terminar
+    public CompletableFuture<Void> submit(NotificationBatch batch) {
+        Pending pending = new Pending(batch, new CompletableFuture<>(), System.nanoTime());
+        lock.lock();
+        try {
+            // Um lote sozinho maior que maxPending é aceito com a fila vazia
+            while (running && pendingOrders > 0 && pendingOrders + batch.size() > maxPending) {
+                notFull.await();
+            }
+            if (!running) {
+                return CompletableFuture.failedFuture(new IllegalStateException("Canal " + name() + " encerrado"));
+            }
+            queue.addLast(pending);
+            pendingOrders += batch.size();
+            notEmpty.signal();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return CompletableFuture.failedFuture(e);
+        } finally {
+            lock.unlock();
+        }
+        return pending.done;
+    }
+
+    private void flushLoop() {
+        while (running) {
+            try {
+                List<Pending> group = takeGroup();
+                if (group.isEmpty()) {
+                    continue;
+                }
+                rateLimiter.acquire();
+                send(group);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            } catch (Exception e) {
+                logger.error("[NOTIFICATION] Erro no agrupador do canal {}: {}", name(), e.getMessage());
+            }
+        }
+    }
+
+    // Espera até ter batchSize pedidos ou o mais antigo completar lingerMs, e retira o grupo
+    private List<Pending> takeGroup() throws InterruptedException {
+        lock.lock();
+        try {
+            while (queue.isEmpty()) {
+                if (!running) {
+                    return List.of();
+                }
+                notEmpty.await(100, TimeUnit.MILLISECONDS);
+            }
+            long deadline = queue.peekFirst().enqueuedAt + lingerNanos;
+            while (running && pendingOrders < batchSize) {
+                long remaining = deadline - System.nanoTime();
+                if (remaining <= 0) {
+                    break;
+                }
+                notEmpty.awaitNanos(remaining);
+            }
+
+            List<Pending> group = new ArrayList<>();
+            int orders = 0;
+            while (!queue.isEmpty() && (group.isEmpty() || orders + queue.peekFirst().batch.size() <= batchSize)) {
+                Pending next = queue.pollFirst();
+                group.add(next);
+                orders += next.batch.size();
+            }
+            pendingOrders -= orders;
+            notFull.signalAll();
+            return group;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void send(List<Pending> group) {
+        NotificationBatch merged = merge(group);
+        bulkhead.submit(merged).whenComplete((ignored, error) -> {
+            for (Pending pending : group) {
+                if (error == null) {
+                    pending.done.complete(null);
+                } else {
+                    pending.done.completeExceptionally(error);
+                }
+            }
+        });
+    }
+
+    private static NotificationBatch merge(List<Pending> group) {
+        if (group.size() == 1) {
+            return group.get(0).batch;
+        }
+        List<OrderCreatedEvent> events = new ArrayList<>();
+        for (Pending pending : group) {
+            events.addAll(pending.batch.events());
+        }
+        return new NotificationBatch(events, group.get(0).batch.timestamp());
+    }
+
+    public String name() {
+        return bulkhead.name();
+    }
+
+    public boolean isRequired() {
+        return bulkhead.isRequired();
+    }
+
+    // Pedidos aguardando envio neste canal (usado pelo controle de backpressure)
+    public int pendingOrders() {
+        lock.lock();
+        try {
+            return pendingOrders;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public void shutdown() {
+        running = false;
+        flusher.interrupt();
+        lock.lock();
+        try {
+            notFull.signalAll();
+            Pending pending;
+            while ((pending = queue.pollFirst()) != null) {
+                pending.done.completeExceptionally(new IllegalStateException("Canal " + name() + " encerrado"));
+            }
+            pendingOrders = 0;
+        } finally {
+            lock.unlock();
+        }
+        bulkhead.shutdown();
+    }
+
+    private record Pending(NotificationBatch batch, CompletableFuture<Void> done, long enqueuedAt) {
+    }
+}
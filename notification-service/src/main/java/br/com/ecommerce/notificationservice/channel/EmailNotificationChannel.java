@@ -0,0 +1,52 @@
+package br.com.ecommerce.notificationservice.channel;
+
+import br.com.ecommerce.notificationservice.event.OrderCreatedEvent;
+import br.com.ecommerce.notificationservice.template.NotificationTemplate;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Component;
+
+@Component
+public class EmailNotificationChannel extends SimulatedNotificationChannel {
+
+    private static final Logger logger = LoggerFactory.getLogger(EmailNotificationChannel.class);
+
+    private static final String DEFAULT_SUBJECT = "Confirmação do Pedido #{orderId}";
+    private static final String DEFAULT_BODY = "Seu pedido de {product} no valor de {amount} foi confirmado!";
+
+    private final NotificationTemplate subject;
+    private final NotificationTemplate body;
+
+    public EmailNotificationChannel(
+            @Value("${notification.channel.email.latency-ms:0}") long latencyMs,
+            @Value("${notification.channel.email.failure-rate:0}") double failureRate,
+            Environment environment) {
+        super(latencyMs, failureRate);
+        this.subject = NotificationTemplate.compile(
+                environment.getProperty("notification.template.email.subject", DEFAULT_SUBJECT));
+        this.body = NotificationTemplate.compile(
+                environment.getProperty("notification.template.email.body", DEFAULT_BODY));
+    }
+
+    @Override
+    public String name() {
+        return "email";
+    }
+
+    @Override
+    protected void deliver(NotificationBatch batch) {
+        // Conteúdo de cada notificação só em DEBUG; o envio é registrado no AuditLog
+        if (!logger.isDebugEnabled()) {
+            return;
+        }
+        logger.debug("Enviando {} e-mail(s) para os clientes...", batch.size());
+        for (OrderCreatedEvent event : batch.events()) {
+            logger.debug("   Assunto: {}", subject.render(event, batch.timestamp()));
+            logger.debug("   Destinatário: {} <cliente@email.com>", event.getCustomerName());
+            logger.debug("   Conteúdo: {}", body.render(event, batch.timestamp()));
+            logger.debug("   Data/Hora: {}", batch.timestamp());
+        }
+    }
+}
@@ -0,0 +1,13 @@
+package br.com.ecommerce.notificationservice.channel;
+
+import br.com.ecommerce.notificationservice.event.OrderCreatedEvent;
+
+import java.util.List;
+
+// Lote entregue a cada canal: os eventos e a data/hora já formatada do recebimento
+public record NotificationBatch(List<OrderCreatedEvent> events, String timestamp) {
+
+    public int size() {
+        return events.size();
+    }
+}
@@ -0,0 +1,11 @@
+package br.com.ecommerce.notificationservice.channel;
+
+// Canal de entrega das notificações (e-mail, SMS, push...).
+// Novos canais são registrados como @Component e configurados em
+// notification.channel.<name>.* no application.properties.
+public interface NotificationChannel {
+
+    String name();
+
+    void send(NotificationBatch batch) throws Exception;
+}
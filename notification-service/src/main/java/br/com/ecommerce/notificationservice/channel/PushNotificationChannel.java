@@ -0,0 +1,50 @@
+package br.com.ecommerce.notificationservice.channel;
+
+import br.com.ecommerce.notificationservice.event.OrderCreatedEvent;
+import br.com.ecommerce.notificationservice.template.NotificationTemplate;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Component;
+
+@Component
+public class PushNotificationChannel extends SimulatedNotificationChannel {
+
+    private static final Logger logger = LoggerFactory.getLogger(PushNotificationChannel.class);
+
+    private static final String DEFAULT_TITLE = "Pedido Confirmado!";
+    private static final String DEFAULT_BODY = "{product} - {amount} por {customerName}";
+
+    private final NotificationTemplate title;
+    private final NotificationTemplate body;
+
+    public PushNotificationChannel(
+            @Value("${notification.channel.push.latency-ms:0}") long latencyMs,
+            @Value("${notification.channel.push.failure-rate:0}") double failureRate,
+            Environment environment) {
+        super(latencyMs, failureRate);
+        this.title = NotificationTemplate.compile(
+                environment.getProperty("notification.template.push.title", DEFAULT_TITLE));
+        this.body = NotificationTemplate.compile(
+                environment.getProperty("notification.template.push.body", DEFAULT_BODY));
+    }
+
+    @Override
+    public String name() {
+        return "push";
+    }
+
+    @Override
+    protected void deliver(NotificationBatch batch) {
+        // Conteúdo de cada notificação só em DEBUG; o envio é registrado no AuditLog
+        if (!logger.isDebugEnabled()) {
+            return;
+        }
+        logger.debug("Enviando {} push notification(s)...", batch.size());
+        for (OrderCreatedEvent event : batch.events()) {
+            logger.debug("   Título: {}", title.render(event, batch.timestamp()));
+            logger.debug("   Corpo: {}", body.render(event, batch.timestamp()));
+        }
+    }
+}
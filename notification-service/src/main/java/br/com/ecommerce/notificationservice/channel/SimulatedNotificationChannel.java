@@ -0,0 +1,29 @@
+package br.com.ecommerce.notificationservice.channel;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+// Base dos canais simulados: aplica a latência e a taxa de falha configuradas
+// para permitir testes de carga locais sem provedores reais
+public abstract class SimulatedNotificationChannel implements NotificationChannel {
+
+    private final long latencyMs;
+    private final double failureRate;
+
+    protected SimulatedNotificationChannel(long latencyMs, double failureRate) {
+        this.latencyMs = latencyMs;
+        this.failureRate = failureRate;
+    }
+
+    @Override
+    public void send(NotificationBatch batch) throws Exception {
+        if (latencyMs > 0) {
+            Thread.sleep(latencyMs);
+        }
+        if (failureRate > 0 && ThreadLocalRandom.current().nextDouble() < failureRate) {
+            throw new IllegalStateException("Falha simulada no canal " + name());
+        }
+        deliver(batch);
+    }
+
+    protected abstract void deliver(NotificationBatch batch);
+}
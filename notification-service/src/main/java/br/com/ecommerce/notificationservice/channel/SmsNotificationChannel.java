@@ -0,0 +1,46 @@
+package br.com.ecommerce.notificationservice.channel;
+
+import br.com.ecommerce.notificationservice.event.OrderCreatedEvent;
+import br.com.ecommerce.notificationservice.template.NotificationTemplate;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Component;
+
+@Component
+public class SmsNotificationChannel extends SimulatedNotificationChannel {
+
+    private static final Logger logger = LoggerFactory.getLogger(SmsNotificationChannel.class);
+
+    private static final String DEFAULT_BODY =
+            "Olá {customerName}! Pedido #{orderId} ({product}) confirmado. Valor: {amount}";
+
+    private final NotificationTemplate body;
+
+    public SmsNotificationChannel(
+            @Value("${notification.channel.sms.latency-ms:0}") long latencyMs,
+            @Value("${notification.channel.sms.failure-rate:0}") double failureRate,
+            Environment environment) {
+        super(latencyMs, failureRate);
+        this.body = NotificationTemplate.compile(
+                environment.getProperty("notification.template.sms.body", DEFAULT_BODY));
+    }
+
+    @Override
+    public String name() {
+        return "sms";
+    }
+
+    @Override
+    protected void deliver(NotificationBatch batch) {
+        // Conteúdo de cada notificação só em DEBUG; o envio é registrado no AuditLog
+        if (!logger.isDebugEnabled()) {
+            return;
+        }
+        logger.debug("Enviando {} SMS para os clientes...", batch.size());
+        for (OrderCreatedEvent event : batch.events()) {
+            logger.debug("   Mensagem: {}", body.render(event, batch.timestamp()));
+        }
+    }
+}
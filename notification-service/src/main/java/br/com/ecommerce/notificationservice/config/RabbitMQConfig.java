@@ -1,13 +1,32 @@
 package br.com.ecommerce.notificationservice.config;
 
+import br.com.ecommerce.notificationservice.consumer.ListenerMetrics;
+import br.com.ecommerce.notificationservice.event.OrderEventBinaryConverter;
+import br.com.ecommerce.notificationservice.retry.RetryTierRecoverer;
+import br.com.ecommerce.notificationservice.retry.RetryTopology;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.amqp.core.BindingBuilder;
+import org.springframework.amqp.core.Declarable;
+import org.springframework.amqp.core.Declarables;
+import org.springframework.amqp.core.DirectExchange;
+import org.springframework.amqp.core.HeadersExchange;
 import org.springframework.amqp.core.Queue;
+import org.springframework.amqp.core.QueueBuilder;
 import org.springframework.amqp.rabbit.config.SimpleRabbitListenerContainerFactory;
+import org.springframework.amqp.rabbit.config.RetryInterceptorBuilder;
 import org.springframework.amqp.rabbit.connection.ConnectionFactory;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.amqp.support.converter.ContentTypeDelegatingMessageConverter;
 import org.springframework.amqp.support.converter.Jackson2JsonMessageConverter;
 import org.springframework.amqp.support.converter.MessageConverter;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
 
 
 @Configuration
@@ -16,6 +35,27 @@ public class RabbitMQConfig {
     @Value("${rabbitmq.queue.name}")
     private String queueName;
 
+    @Value("${spring.threads.virtual.enabled:false}")
+    private boolean virtualThreads;
+
+    @Value("${rabbitmq.consumer.batch.enabled:false}")
+    private boolean batchEnabled;
+
+    @Value("${rabbitmq.consumer.batch.size:100}")
+    private int batchSize;
+
+    @Value("${rabbitmq.consumer.batch.receive-timeout-ms:1000}")
+    private long batchReceiveTimeoutMs;
+
+    @Value("${rabbitmq.consumer.prefetch:250}")
+    private int prefetch;
+
+    @Value("${notification.autoscaling.enabled:false}")
+    private boolean autoscalingEnabled;
+
+    @Value("${notification.autoscaling.min-consumers:1}")
+    private int autoscalingMinConsumers;
+
 
     @Bean
     public Queue ordersQueue() {
@@ -23,21 +63,122 @@ public class RabbitMQConfig {
     }
 
 
+    // A fila principal é declarada pelo order-service sem argumentos, então o
+    // retry não usa x-dead-letter-exchange nela: o RetryTierRecoverer publica a
+    // mensagem que falhou em uma fila de retry com TTL, que a devolve pela
+    // exchange padrão à fila de origem (a routing key da publicação) quando o
+    // atraso expira. Assim uma mensagem de shard volta ao mesmo shard, e não à
+    // fila principal, consumida por todas as instâncias
     @Bean
-    public MessageConverter jsonMessageConverter() {
-        return new Jackson2JsonMessageConverter();
+    public RetryTopology retryTopology(
+            @Value("${notification.retry.delays-ms:1000,5000,30000,120000}") List<Long> delaysMs,
+            @Value("${notification.retry.max-attempts:5}") int maxAttempts) {
+        return new RetryTopology(queueName, List.copyOf(delaysMs), maxAttempts);
+    }
+
+
+    @Bean
+    public Declarables retryDeclarables(RetryTopology retryTopology) {
+        List<Declarable> declarables = new ArrayList<>();
+
+        HeadersExchange retryExchange = new HeadersExchange(retryTopology.retryExchange(), true, false);
+        declarables.add(retryExchange);
+        for (Long delayMs : retryTopology.delaysMs()) {
+            // Sem x-dead-letter-routing-key: o dead-letter usa a routing key original (fila de origem)
+            Queue retryQueue = QueueBuilder.durable(retryTopology.retryQueue(delayMs))
+                    .ttl(delayMs.intValue())
+                    .deadLetterExchange("")
+                    .build();
+            declarables.add(retryQueue);
+            declarables.add(BindingBuilder.bind(retryQueue).to(retryExchange)
+                    .whereAll(Map.of(RetryTopology.DELAY_HEADER, retryTopology.delayHeaderValue(delayMs)))
+                    .match());
+        }
+
+        DirectExchange deadLetterExchange = new DirectExchange(retryTopology.deadLetterExchange(), true, false);
+        Queue parkingLot = QueueBuilder.durable(retryTopology.parkingLotQueue()).build();
+        declarables.add(deadLetterExchange);
+        declarables.add(parkingLot);
+        declarables.add(BindingBuilder.bind(parkingLot).to(deadLetterExchange)
+                .with(RetryTopology.PARKING_LOT_ROUTING_KEY));
+
+        return new Declarables(declarables);
+    }
+
+
+    @Bean
+    public RetryTierRecoverer retryTierRecoverer(RabbitTemplate rabbitTemplate, RetryTopology retryTopology) {
+        return new RetryTierRecoverer(rabbitTemplate, retryTopology);
+    }
+
+
+    @Bean
+    public ListenerMetrics listenerMetrics(MeterRegistry meterRegistry) {
+        return new ListenerMetrics(meterRegistry);
+    }
+
+
+    // Escolhe o conversor pelo content-type da mensagem: JSON (padrão) ou
+    // o formato binário compacto, para aceitar os dois durante a migração
+    @Bean
+    public MessageConverter eventMessageConverter() {
+        Jackson2JsonMessageConverter jsonConverter = new Jackson2JsonMessageConverter();
+        ContentTypeDelegatingMessageConverter converter = new ContentTypeDelegatingMessageConverter(jsonConverter);
+        converter.addDelegate(OrderEventBinaryConverter.CONTENT_TYPE, new OrderEventBinaryConverter());
+        return converter;
     }
 
 
     @Bean
     public SimpleRabbitListenerContainerFactory rabbitListenerContainerFactory(
-            ConnectionFactory connectionFactory) {
+            ConnectionFactory connectionFactory, RetryTierRecoverer retryTierRecoverer,
+            ListenerMetrics listenerMetrics) {
         
         SimpleRabbitListenerContainerFactory factory = new SimpleRabbitListenerContainerFactory();
         factory.setConnectionFactory(connectionFactory);
-        factory.setMessageConverter(jsonMessageConverter());
+        factory.setMessageConverter(eventMessageConverter());
+
+        // Mensagens publicadas em lote pelo order-service (BatchingRabbitTemplate)
+        // são desempacotadas aqui e entregues ao listener um evento por vez
+        factory.setDeBatchingEnabled(true);
+
+        // Falhas não voltam direto para a fila (loop de reentrega): a mensagem é
+        // enviada ao nível de retry seguinte ou ao parking lot e confirmada.
+        // O ListenerMetrics vem antes para medir o tempo total de cada entrega;
+        // o endToEndAdvice vem depois do retry para só medir as entregas com sucesso
+        factory.setAdviceChain(listenerMetrics, RetryInterceptorBuilder.stateless()
+                .maxAttempts(1)
+                .recoverer(retryTierRecoverer)
+                .build(), listenerMetrics.endToEndAdvice());
+        factory.setPrefetchCount(prefetch);
+
+        // Modo lote: o listener recebe uma List<OrderCreatedEvent> com até batchSize
+        // eventos (ou o que chegar até o receive timeout) e o lote inteiro é
+        // confirmado com um único ack. O prefetch acompanha o tamanho do lote
+        // para que o broker entregue um lote completo de uma vez
+        if (batchEnabled) {
+            factory.setBatchListener(true);
+            factory.setConsumerBatchEnabled(true);
+            factory.setBatchSize(batchSize);
+            factory.setPrefetchCount(batchSize);
+            factory.setReceiveTimeout(batchReceiveTimeoutMs);
+        }
+
+        // Com o autoscaling, os consumers começam no mínimo e o ListenerAutoscaler
+        // ajusta a quantidade; o maxConcurrentConsumers não é definido para que o
+        // escalonamento próprio do container não concorra com o autoscaler
+        if (autoscalingEnabled) {
+            factory.setConcurrentConsumers(autoscalingMinConsumers);
+        }
+
+        // Com threads virtuais, cada consumer do container roda em uma thread
+        // virtual em vez de uma thread de plataforma dedicada
+        if (virtualThreads) {
+            SimpleAsyncTaskExecutor listenerExecutor = new SimpleAsyncTaskExecutor("rabbit-listener-");
+            listenerExecutor.setVirtualThreads(true);
+            factory.setTaskExecutor(listenerExecutor);
+        }
 
-        
         return factory;
     }
 }
@@ -0,0 +1,114 @@
+package br.com.ecommerce.notificationservice.config;
+
+import br.com.ecommerce.notificationservice.service.NotificationService;
+import br.com.ecommerce.notificationservice.shard.ShardCoordinator;
+import br.com.ecommerce.notificationservice.shard.ShardMembership;
+import br.com.ecommerce.notificationservice.shard.ShardMessageListener;
+import br.com.ecommerce.notificationservice.shard.ShardTopology;
+import org.springframework.amqp.core.AcknowledgeMode;
+import org.springframework.amqp.core.AnonymousQueue;
+import org.springframework.amqp.core.BindingBuilder;
+import org.springframework.amqp.core.Declarable;
+import org.springframework.amqp.core.Declarables;
+import org.springframework.amqp.core.FanoutExchange;
+import org.springframework.amqp.core.Queue;
+import org.springframework.amqp.rabbit.config.SimpleRabbitListenerContainerFactory;
+import org.springframework.amqp.rabbit.connection.ConnectionFactory;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.amqp.rabbit.listener.SimpleMessageListenerContainer;
+import org.springframework.amqp.support.converter.MessageConverter;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+
+// Consumo das filas shardeadas (rabbitmq.sharding.enabled=true).
+//
+// O order-service distribui os eventos entre <fila>.shard-0..N-1 pelo hash do
+// cliente, e cada shard é consumido por uma única instância, escolhida pelo
+// ShardCoordinator. A fila principal continua sendo consumida por todas as
+// instâncias e recebe os eventos anteriores ao sharding; as reentregas do
+// retry de uma mensagem de shard voltam para o mesmo shard (RetryTierRecoverer).
+@Configuration
+@ConditionalOnProperty(name = "rabbitmq.sharding.enabled", havingValue = "true")
+public class ShardingConfig {
+
+    @Bean
+    public ShardTopology shardTopology(
+            @Value("${rabbitmq.queue.name}") String queueName,
+            @Value("${rabbitmq.sharding.shards:8}") int shards) {
+        return new ShardTopology(queueName, shards);
+    }
+
+
+    // Fila exclusiva e temporária desta instância para os heartbeats
+    @Bean
+    public Queue shardMembershipQueue() {
+        return new AnonymousQueue();
+    }
+
+
+    @Bean
+    public Declarables shardDeclarables(ShardTopology shardTopology) {
+        List<Declarable> declarables = new ArrayList<>();
+        for (int shard = 0; shard < shardTopology.shards(); shard++) {
+            declarables.add(new Queue(shardTopology.shardQueue(shard), true));
+        }
+        FanoutExchange membershipExchange = new FanoutExchange(shardTopology.membershipExchange(), true, false);
+        declarables.add(membershipExchange);
+        declarables.add(BindingBuilder.bind(shardMembershipQueue()).to(membershipExchange));
+        return new Declarables(declarables);
+    }
+
+
+    @Bean
+    public ShardMembership shardMembership(
+            RabbitTemplate rabbitTemplate, ShardTopology shardTopology,
+            @Value("${notification.sharding.instance-id:}") String instanceId,
+            @Value("${notification.sharding.member-timeout-ms:5000}") long memberTimeoutMs) {
+        return new ShardMembership(rabbitTemplate, shardTopology,
+                instanceId.isBlank() ? defaultInstanceId() : instanceId, memberTimeoutMs);
+    }
+
+
+    // Heartbeats não precisam de confirmação: um perdido é coberto pelo próximo
+    @Bean
+    public SimpleMessageListenerContainer shardMembershipContainer(
+            ConnectionFactory connectionFactory, ShardMembership shardMembership) {
+        SimpleMessageListenerContainer container = new SimpleMessageListenerContainer(connectionFactory);
+        container.setQueues(shardMembershipQueue());
+        container.setMessageListener(shardMembership);
+        container.setAcknowledgeMode(AcknowledgeMode.NONE);
+        return container;
+    }
+
+
+    @Bean(initMethod = "start", destroyMethod = "stop")
+    public ShardCoordinator shardCoordinator(
+            SimpleRabbitListenerContainerFactory rabbitListenerContainerFactory,
+            ShardTopology shardTopology, ShardMembership shardMembership,
+            MessageConverter eventMessageConverter, NotificationService notificationService,
+            @Value("${notification.sharding.heartbeat-interval-ms:1000}") long heartbeatIntervalMs) {
+        return new ShardCoordinator(rabbitListenerContainerFactory, shardTopology, shardMembership,
+                new ShardMessageListener(eventMessageConverter, notificationService), heartbeatIntervalMs);
+    }
+
+
+    private static String defaultInstanceId() {
+        String host;
+        try {
+            host = InetAddress.getLocalHost().getHostName();
+        } catch (UnknownHostException e) {
+            host = "notification-service";
+        }
+        // Sufixo aleatório: duas instâncias no mesmo host não podem ter o mesmo id
+        return host + "-" + UUID.randomUUID().toString().substring(0, 8);
+    }
+}
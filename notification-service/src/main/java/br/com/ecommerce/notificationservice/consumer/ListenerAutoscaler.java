@@ -0,0 +1,330 @@
+package br.com.ecommerce.notificationservice.consumer;
+
+import br.com.ecommerce.notificationservice.shard.ShardCoordinator;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.amqp.core.AmqpAdmin;
+import org.springframework.amqp.core.QueueInformation;
+import org.springframework.amqp.rabbit.listener.MessageListenerContainer;
+import org.springframework.amqp.rabbit.listener.RabbitListenerEndpointRegistry;
+import org.springframework.amqp.rabbit.listener.SimpleMessageListenerContainer;
+import org.springframework.beans.DirectFieldAccessor;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+// Ajusta a quantidade de consumers e o prefetch dos listeners conforme a
+// profundidade da fila, a utilização dos consumers e a latência de processamento.
+//
+// Histerese para não oscilar:
+// - sobe só depois de scale-up-samples amostras seguidas com fila acima de
+//   scale-up-depth e consumers ocupados (utilização >= scale-up-utilization)
+// - desce só depois de scale-down-samples amostras seguidas com fila abaixo
+//   de scale-down-depth e utilização <= scale-down-utilization
+// - após cada mudança, nenhuma outra é feita durante cooldown-ms
+// - não sobe se a latência média passar de max-latency-ms: o gargalo está nos
+//   canais de notificação e mais consumers só aumentariam a pressão sobre eles
+//
+// O prefetch é dimensionado para cobrir prefetch-target-ms de processamento
+// por consumer; o novo valor vale para os consumers criados a partir daí.
+// O valor inicial é o efetivo do container (no modo lote, o tamanho do lote).
+//
+// Com sharding, as filas dos shards desta instância entram na profundidade e
+// os consumers dos shards na utilização, e o prefetch também é aplicado a
+// eles. A quantidade de consumers não é alterada: cada shard tem um único
+// consumer exclusivo (ordem por cliente), e mais consumers na fila principal
+// não drenariam os shards.
+@Component
+@ConditionalOnProperty(name = "notification.autoscaling.enabled", havingValue = "true")
+public class ListenerAutoscaler {
+
+    private static final Logger logger = LoggerFactory.getLogger(ListenerAutoscaler.class);
+
+    private static final int MAX_DECISIONS = 100;
+
+    private final RabbitListenerEndpointRegistry registry;
+    private final AmqpAdmin amqpAdmin;
+    private final ListenerMetrics metrics;
+    private final ObjectProvider<ShardCoordinator> shardCoordinator;
+
+    @Value("${rabbitmq.queue.name}")
+    private String queueName;
+
+    @Value("${rabbitmq.consumer.batch.enabled:false}")
+    private boolean batchEnabled;
+
+    // Prefetch atual; lido do container na primeira amostra (-1 até lá) e
+    // acompanhado aqui porque o container não o expõe publicamente
+    private volatile int prefetch = -1;
+
+    @Value("${notification.autoscaling.min-consumers:1}")
+    private int minConsumers;
+
+    @Value("${notification.autoscaling.max-consumers:16}")
+    private int maxConsumers;
+
+    @Value("${notification.autoscaling.interval-ms:5000}")
+    private long intervalMs;
+
+    @Value("${notification.autoscaling.cooldown-ms:30000}")
+    private long cooldownMs;
+
+    @Value("${notification.autoscaling.scale-up-depth:1000}")
+    private long scaleUpDepth;
+
+    @Value("${notification.autoscaling.scale-down-depth:100}")
+    private long scaleDownDepth;
+
+    @Value("${notification.autoscaling.scale-up-utilization:0.75}")
+    private double scaleUpUtilization;
+
+    @Value("${notification.autoscaling.scale-down-utilization:0.3}")
+    private double scaleDownUtilization;
+
+    @Value("${notification.autoscaling.scale-up-samples:2}")
+    private int scaleUpSamples;
+
+    @Value("${notification.autoscaling.scale-down-samples:6}")
+    private int scaleDownSamples;
+
+    @Value("${notification.autoscaling.max-latency-ms:2000}")
+    private double maxLatencyMs;
+
+    @Value("${notification.autoscaling.min-prefetch:10}")
+    private int minPrefetch;
+
+    @Value("${notification.autoscaling.max-prefetch:500}")
+    private int maxPrefetch;
+
+    @Value("${notification.autoscaling.prefetch-target-ms:1000}")
+    private double prefetchTargetMs;
+
+    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "listener-autoscaler");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private final ReentrantLock decisionsLock = new ReentrantLock();
+    private final Deque<Decision> decisions = new ArrayDeque<>();
+
+    // Estado acessado apenas pela thread do autoscaler
+    private int upStreak;
+    private int downStreak;
+    private long lastChangeNanos = System.nanoTime() - TimeUnit.DAYS.toNanos(1);
+    private long lastSampleNanos = System.nanoTime();
+
+    private volatile Observation lastObservation;
+
+    public ListenerAutoscaler(RabbitListenerEndpointRegistry registry, AmqpAdmin amqpAdmin, ListenerMetrics metrics,
+                              ObjectProvider<ShardCoordinator> shardCoordinator) {
+        this.registry = registry;
+        this.amqpAdmin = amqpAdmin;
+        this.metrics = metrics;
+        this.shardCoordinator = shardCoordinator;
+    }
+
+    @PostConstruct
+    public void start() {
+        scheduler.scheduleWithFixedDelay(this::evaluateQuietly, intervalMs, intervalMs, TimeUnit.MILLISECONDS);
+    }
+
+    private void evaluateQuietly() {
+        try {
+            evaluate();
+        } catch (Exception e) {
+            logger.error("[AUTOSCALER] Falha ao avaliar os consumers: {}", e.getMessage());
+        }
+    }
+
+    private void evaluate() {
+        List<SimpleMessageListenerContainer> containers = containers();
+        if (containers.isEmpty()) {
+            return;
+        }
+        SimpleMessageListenerContainer reference = containers.get(0);
+        if (prefetch < 0) {
+            prefetch = effectivePrefetch(reference);
+        }
+
+        ShardCoordinator shards = shardCoordinator.getIfAvailable();
+        List<SimpleMessageListenerContainer> shardContainers = shards == null ? List.of() : shards.runningContainers();
+
+        long now = System.nanoTime();
+        long elapsedNanos = Math.max(1, now - lastSampleNanos);
+        lastSampleNanos = now;
+        ListenerMetrics.Sample sample = metrics.drain();
+
+        long depth = depth(queueName);
+        if (shards != null) {
+            for (String shardQueue : shards.ownedQueues()) {
+                depth += depth(shardQueue);
+            }
+        }
+        int consumers = reference.getActiveConsumerCount();
+        // O ListenerMetrics mede todos os listeners, então a utilização considera os consumers dos shards
+        int totalConsumers = consumers;
+        for (SimpleMessageListenerContainer shardContainer : shardContainers) {
+            totalConsumers += shardContainer.getActiveConsumerCount();
+        }
+        double utilization = totalConsumers == 0 ? 0
+                : Math.min(1.0, sample.busyNanos() / (double) (elapsedNanos * totalConsumers));
+        double latencyMs = sample.averageLatencyMs();
+        lastObservation = new Observation(depth, consumers, utilization, latencyMs,
+                sample.messages() * 1_000_000_000.0 / elapsedNanos);
+
+        if (!reference.isRunning()) {
+            // Pausado pelo controle de backpressure: não decide com os consumers parados
+            upStreak = 0;
+            downStreak = 0;
+            return;
+        }
+
+        upStreak = depth >= scaleUpDepth && utilization >= scaleUpUtilization ? upStreak + 1 : 0;
+        downStreak = depth <= scaleDownDepth && utilization <= scaleDownUtilization ? downStreak + 1 : 0;
+
+        // Com sharding, só o prefetch é ajustado (ver o comentário da classe)
+        boolean canScale = shards == null
+                && now - lastChangeNanos >= TimeUnit.MILLISECONDS.toNanos(cooldownMs);
+        int target = consumers;
+        String reason = null;
+        if (canScale && upStreak >= scaleUpSamples && consumers < maxConsumers) {
+            if (latencyMs > maxLatencyMs) {
+                logger.info("[AUTOSCALER] Fila {} com {} mensagens, mas latência média de {} ms acima do limite: mantendo {} consumers",
+                        queueName, depth, Math.round(latencyMs), consumers);
+                upStreak = 0;
+            } else {
+                // Sobe rápido (50%) para drenar o backlog
+                target = Math.min(maxConsumers, Math.max(consumers + 1, (int) Math.ceil(consumers * 1.5)));
+                reason = "fila acima de " + scaleUpDepth + " e utilização de " + percent(utilization);
+            }
+        } else if (canScale && downStreak >= scaleDownSamples && consumers > minConsumers) {
+            // Desce devagar (um consumer por vez) para não oscilar
+            target = consumers - 1;
+            reason = "fila abaixo de " + scaleDownDepth + " e utilização de " + percent(utilization);
+        }
+
+        int targetPrefetch = prefetch;
+        if (!batchEnabled && latencyMs > 0) {
+            int ideal = (int) Math.max(minPrefetch, Math.min(maxPrefetch, Math.round(prefetchTargetMs / latencyMs)));
+            // Só ajusta com diferença relevante (25%), também para evitar oscilação
+            if (Math.abs(ideal - prefetch) > prefetch / 4) {
+                targetPrefetch = ideal;
+            }
+        }
+
+        if (target == consumers && targetPrefetch == prefetch) {
+            return;
+        }
+        for (SimpleMessageListenerContainer container : containers) {
+            if (targetPrefetch != prefetch) {
+                container.setPrefetchCount(targetPrefetch);
+            }
+            if (target != consumers) {
+                container.setConcurrentConsumers(target);
+            }
+        }
+        if (shards != null && targetPrefetch != prefetch) {
+            shards.setPrefetchCount(targetPrefetch);
+        }
+        int fromPrefetch = prefetch;
+        prefetch = targetPrefetch;
+        if (target != consumers) {
+            lastChangeNanos = now;
+            upStreak = 0;
+            downStreak = 0;
+        }
+        record(new Decision(Instant.now(), consumers, target, fromPrefetch, targetPrefetch, depth, utilization, latencyMs,
+                reason == null ? "prefetch ajustado para a latência de " + Math.round(latencyMs) + " ms" : reason));
+    }
+
+    private long depth(String queue) {
+        QueueInformation info = amqpAdmin.getQueueInfo(queue);
+        return info == null ? 0 : info.getMessageCount();
+    }
+
+    // No modo lote o container busca max(prefetch, batchSize) mensagens por consumer
+    private static int effectivePrefetch(SimpleMessageListenerContainer container) {
+        DirectFieldAccessor accessor = new DirectFieldAccessor(container);
+        int prefetchCount = (Integer) accessor.getPropertyValue("prefetchCount");
+        if (Boolean.TRUE.equals(accessor.getPropertyValue("consumerBatchEnabled"))) {
+            return Math.max(prefetchCount, (Integer) accessor.getPropertyValue("batchSize"));
+        }
+        return prefetchCount;
+    }
+
+    private List<SimpleMessageListenerContainer> containers() {
+        List<SimpleMessageListenerContainer> containers = new ArrayList<>();
+        for (MessageListenerContainer container : registry.getListenerContainers()) {
+            if (container instanceof SimpleMessageListenerContainer simple) {
+                containers.add(simple);
+            }
+        }
+        return containers;
+    }
+
+    private void record(Decision decision) {
+        logger.info("[AUTOSCALER] consumers {} -> {}, prefetch {} -> {} (fila: {}, utilização: {}, latência: {} ms): {}",
+                decision.fromConsumers(), decision.toConsumers(), decision.fromPrefetch(), decision.toPrefetch(),
+                decision.queueDepth(), percent(decision.utilization()), Math.round(decision.latencyMs()),
+                decision.reason());
+        decisionsLock.lock();
+        try {
+            if (decisions.size() == MAX_DECISIONS) {
+                decisions.removeFirst();
+            }
+            decisions.addLast(decision);
+        } finally {
+            decisionsLock.unlock();
+        }
+    }
+
+    private static String percent(double value) {
+        return Math.round(value * 100) + "%";
+    }
+
+    // Estado atual e últimas decisões, exposto em GET /notifications/autoscaler
+    public Map<String, Object> snapshot() {
+        Map<String, Object> snapshot = new LinkedHashMap<>();
+        snapshot.put("minConsumers", minConsumers);
+        snapshot.put("maxConsumers", maxConsumers);
+        snapshot.put("prefetch", prefetch < 0 ? null : prefetch);
+        snapshot.put("sharded", shardCoordinator.getIfAvailable() != null);
+        snapshot.put("lastObservation", lastObservation);
+        decisionsLock.lock();
+        try {
+            snapshot.put("decisions", new ArrayList<>(decisions));
+        } finally {
+            decisionsLock.unlock();
+        }
+        return snapshot;
+    }
+
+    @PreDestroy
+    public void stop() {
+        scheduler.shutdownNow();
+    }
+
+    public record Observation(long queueDepth, int consumers, double utilization, double latencyMs,
+                              double messagesPerSecond) {
+    }
+
+    public record Decision(Instant at, int fromConsumers, int toConsumers, int fromPrefetch, int toPrefetch,
+                           long queueDepth, double utilization, double latencyMs, String reason) {
+    }
+}
@@ -0,0 +1,98 @@
+package br.com.ecommerce.notificationservice.consumer;
+
+import br.com.ecommerce.notificationservice.service.NotificationService;
+import br.com.ecommerce.notificationservice.shard.ShardCoordinator;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.amqp.rabbit.listener.MessageListenerContainer;
+import org.springframework.amqp.rabbit.listener.RabbitListenerEndpointRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+// Pausa os listeners do RabbitMQ quando a fila de algum canal de notificação
+// passa do high-watermark e os retoma quando ela cai abaixo do low-watermark
+// (histerese, para não alternar a cada verificação). Com os consumers parados,
+// as mensagens ficam no broker em vez de se acumularem no heap.
+@Component
+@ConditionalOnProperty(name = "notification.backpressure.enabled", havingValue = "true", matchIfMissing = true)
+public class ListenerBackpressureController {
+
+    private static final Logger logger = LoggerFactory.getLogger(ListenerBackpressureController.class);
+
+    private final NotificationService notificationService;
+    private final RabbitListenerEndpointRegistry registry;
+
+    // Containers das filas de shard, fora do registry; ausente sem sharding
+    private final ObjectProvider<ShardCoordinator> shardCoordinator;
+
+    @Value("${notification.backpressure.high-watermark:800}")
+    private int highWatermark;
+
+    @Value("${notification.backpressure.low-watermark:200}")
+    private int lowWatermark;
+
+    @Value("${notification.backpressure.check-interval-ms:50}")
+    private long checkIntervalMs;
+
+    private final ScheduledExecutorService monitor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "notification-backpressure");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private volatile boolean paused;
+
+    public ListenerBackpressureController(NotificationService notificationService,
+                                          RabbitListenerEndpointRegistry registry,
+                                          ObjectProvider<ShardCoordinator> shardCoordinator) {
+        this.notificationService = notificationService;
+        this.registry = registry;
+        this.shardCoordinator = shardCoordinator;
+    }
+
+    @PostConstruct
+    public void start() {
+        monitor.scheduleWithFixedDelay(this::check, checkIntervalMs, checkIntervalMs, TimeUnit.MILLISECONDS);
+    }
+
+    private void check() {
+        try {
+            int pending = notificationService.pendingNotifications();
+            if (!paused && pending >= highWatermark) {
+                paused = true;
+                logger.warn("[BACKPRESSURE] {} notificações pendentes, pausando os consumers", pending);
+                for (MessageListenerContainer container : registry.getListenerContainers()) {
+                    // stop assíncrono: a thread de monitoramento não espera os listeners terminarem
+                    container.stop(() -> { });
+                }
+                shardCoordinator.ifAvailable(ShardCoordinator::pause);
+            } else if (paused && pending <= lowWatermark) {
+                paused = false;
+                logger.info("[BACKPRESSURE] {} notificações pendentes, retomando os consumers", pending);
+                for (MessageListenerContainer container : registry.getListenerContainers()) {
+                    container.start();
+                }
+                shardCoordinator.ifAvailable(ShardCoordinator::resume);
+            }
+        } catch (Exception e) {
+            logger.error("[BACKPRESSURE] Falha ao verificar a fila dos canais: {}", e.getMessage());
+        }
+    }
+
+    public boolean isPaused() {
+        return paused;
+    }
+
+    @PreDestroy
+    public void stop() {
+        monitor.shutdownNow();
+    }
+}
@@ -0,0 +1,114 @@
+package br.com.ecommerce.notificationservice.consumer;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.aopalliance.intercept.MethodInterceptor;
+import org.aopalliance.intercept.MethodInvocation;
+import org.springframework.amqp.core.Message;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+// Advice do container que mede o tempo gasto pelos listeners: tempo ocupado
+// (para a utilização dos consumers), mensagens processadas e latência média.
+// Usado pelo ListenerAutoscaler; os contadores são lidos e zerados a cada ciclo.
+//
+// Também registra no Micrometer, para todos os listeners (fila principal,
+// shards e modo lote):
+// - notification.consume: duração de cada entrega (uma mensagem ou um lote)
+// - order.notification.latency: do cabeçalho x-published-at, gravado pelo
+//   OrderMessageProducer, até o fim do processamento de cada mensagem. Inclui o
+//   tempo na fila e nos níveis de retry; compara relógios de máquinas diferentes
+//
+// A latência só é registrada para entregas processadas com sucesso. Como o
+// retry confirma a falha (recoverer) e retorna normalmente, essa medição fica
+// no endToEndAdvice, colocado depois do retry na cadeia: uma falha passa por
+// ele como exceção e não é contada como notificação.
+public class ListenerMetrics implements MethodInterceptor {
+
+    public static final String PUBLISHED_AT_HEADER = "x-published-at";
+
+    private final LongAdder busyNanos = new LongAdder();
+    private final LongAdder invocations = new LongAdder();
+    private final LongAdder messages = new LongAdder();
+
+    private final Timer consume;
+    private final Timer endToEnd;
+
+    public ListenerMetrics(MeterRegistry registry) {
+        this.consume = Timer.builder("notification.consume")
+                .description("Duração de cada entrega no listener")
+                .register(registry);
+        this.endToEnd = Timer.builder("order.notification.latency")
+                .description("Latência da publicação do pedido até a notificação")
+                .register(registry);
+    }
+
+    @Override
+    public Object invoke(MethodInvocation invocation) throws Throwable {
+        long started = System.nanoTime();
+        try {
+            return invocation.proceed();
+        } finally {
+            long elapsed = System.nanoTime() - started;
+            busyNanos.add(elapsed);
+            invocations.increment();
+            consume.record(elapsed, TimeUnit.NANOSECONDS);
+            messages.add(messageCount(invocation.getArguments()));
+        }
+    }
+
+    // Advice interno (depois do retry): registra a latência só quando o listener retorna normalmente
+    public MethodInterceptor endToEndAdvice() {
+        return invocation -> {
+            Object result = invocation.proceed();
+            recordEndToEnd(invocation.getArguments());
+            return result;
+        };
+    }
+
+    // Argumentos do listener do container: (Channel, Message) ou (Channel, List<Message>) no modo lote
+    private static int messageCount(Object[] arguments) {
+        if (arguments.length >= 2 && arguments[1] instanceof List<?> batch) {
+            return batch.size();
+        }
+        return 1;
+    }
+
+    private void recordEndToEnd(Object[] arguments) {
+        if (arguments.length < 2) {
+            return;
+        }
+        long now = System.currentTimeMillis();
+        if (arguments[1] instanceof List<?> batch) {
+            for (Object message : batch) {
+                if (message instanceof Message amqpMessage) {
+                    recordEndToEnd(amqpMessage, now);
+                }
+            }
+        } else if (arguments[1] instanceof Message amqpMessage) {
+            recordEndToEnd(amqpMessage, now);
+        }
+    }
+
+    private void recordEndToEnd(Message message, long now) {
+        Object publishedAt = message.getMessageProperties().getHeader(PUBLISHED_AT_HEADER);
+        if (publishedAt instanceof Number millis) {
+            // Diferença de relógio entre as máquinas pode dar valor negativo
+            endToEnd.record(Math.max(0, now - millis.longValue()), TimeUnit.MILLISECONDS);
+        }
+    }
+
+    // Lê e zera os contadores do intervalo
+    public Sample drain() {
+        return new Sample(busyNanos.sumThenReset(), invocations.sumThenReset(), messages.sumThenReset());
+    }
+
+    public record Sample(long busyNanos, long invocations, long messages) {
+
+        public double averageLatencyMs() {
+            return invocations == 0 ? 0 : busyNanos / 1_000_000.0 / invocations;
+        }
+    }
+}
@@ -0,0 +1,47 @@
+package br.com.ecommerce.notificationservice.consumer;
+
+import br.com.ecommerce.notificationservice.event.OrderCreatedEvent;
+import br.com.ecommerce.notificationservice.service.NotificationService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.amqp.rabbit.annotation.RabbitListener;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+// Substitui o OrderMessageConsumer quando rabbitmq.consumer.batch.enabled=true.
+// Se o processamento falhar, a exceção chega ao RetryTierRecoverer, que
+// republica cada mensagem do lote no nível de retry seguinte (ou no parking
+// lot) e o lote é confirmado. Os pedidos do lote são liberados na
+// deduplicação e notificados de novo quando voltarem do retry.
+@Component
+@ConditionalOnProperty(name = "rabbitmq.consumer.batch.enabled", havingValue = "true")
+public class OrderBatchMessageConsumer {
+
+    private static final Logger logger = LoggerFactory.getLogger(OrderBatchMessageConsumer.class);
+
+    private final NotificationService notificationService;
+
+    public OrderBatchMessageConsumer(NotificationService notificationService) {
+        this.notificationService = notificationService;
+    }
+
+    @RabbitListener(
+            queues = "${rabbitmq.queue.name}",
+            containerFactory = "rabbitListenerContainerFactory"
+    )
+    public void consume(List<OrderCreatedEvent> events) {
+        logger.debug("[CONSUMER] Lote de {} mensagens recebido do RabbitMQ!", events.size());
+
+        try {
+
+            notificationService.processOrderNotifications(events);
+            logger.debug("[CONSUMER] Lote de {} mensagens processado com sucesso!", events.size());
+        } catch (Exception e) {
+            logger.error("[CONSUMER] Erro ao processar lote de {} mensagens: {}", events.size(), e.getMessage());
+
+            throw e;
+        }
+    }
+}
@@ -5,9 +5,11 @@ import br.com.ecommerce.notificationservice.service.NotificationService;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.amqp.rabbit.annotation.RabbitListener;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.stereotype.Component;
 
 @Component
+@ConditionalOnProperty(name = "rabbitmq.consumer.batch.enabled", havingValue = "false", matchIfMissing = true)
 public class OrderMessageConsumer {
 
     private static final Logger logger = LoggerFactory.getLogger(OrderMessageConsumer.class);
@@ -23,20 +25,17 @@ public class OrderMessageConsumer {
             containerFactory = "rabbitListenerContainerFactory"
     )
     public void consume(OrderCreatedEvent event) {
-        logger.info("##################################################");
-        logger.info("[CONSUMER] Mensagem recebida do RabbitMQ!");
-        logger.info("[CONSUMER] Evento: {}", event);
-        
+        // Caminho crítico: o registro por pedido fica no AuditLog (event=notification.received)
+        logger.debug("[CONSUMER] Mensagem recebida do RabbitMQ: {}", event);
+
         try {
 
             notificationService.processOrderNotification(event);
-            logger.info("[CONSUMER] Mensagem processada com sucesso!");
+            logger.debug("[CONSUMER] Mensagem processada com sucesso!");
         } catch (Exception e) {
             logger.error("[CONSUMER] Erro ao processar mensagem: {}", e.getMessage());
 
             throw e;
         }
-        
-        logger.info("##################################################");
     }
 }
@@ -0,0 +1,79 @@
+package br.com.ecommerce.notificationservice.controller;
+
+import br.com.ecommerce.notificationservice.consumer.ListenerAutoscaler;
+import br.com.ecommerce.notificationservice.dedup.OrderDeduplicator;
+import br.com.ecommerce.notificationservice.retry.ParkingLotReplayService;
+import br.com.ecommerce.notificationservice.shard.ShardCoordinator;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.Map;
+
+@RestController
+@RequestMapping("/notifications")
+public class NotificationController {
+
+    private final OrderDeduplicator deduplicator;
+
+    private final ParkingLotReplayService parkingLotReplayService;
+
+    private final ObjectProvider<ListenerAutoscaler> autoscaler;
+
+    private final ObjectProvider<ShardCoordinator> shardCoordinator;
+
+    public NotificationController(OrderDeduplicator deduplicator, ParkingLotReplayService parkingLotReplayService,
+                                  ObjectProvider<ListenerAutoscaler> autoscaler,
+                                  ObjectProvider<ShardCoordinator> shardCoordinator) {
+        this.deduplicator = deduplicator;
+        this.parkingLotReplayService = parkingLotReplayService;
+        this.autoscaler = autoscaler;
+        this.shardCoordinator = shardCoordinator;
+    }
+
+    // Contadores do cache de idempotência: hits (duplicatas descartadas), misses e evictions
+    @GetMapping("/dedup/metrics")
+    public ResponseEntity<Map<String, Object>> dedupMetrics() {
+        return ResponseEntity.ok(deduplicator.metrics());
+    }
+
+    // Agenda a devolução de mensagens do parking lot às filas de origem em ritmo
+    // controlado; o replay roda em segundo plano (202) e o resultado vai para o log
+    @PostMapping("/parking-lot/replay")
+    public ResponseEntity<Map<String, Object>> replayParkingLot(
+            @RequestParam(defaultValue = "100") int max,
+            @RequestParam(defaultValue = "10") int ratePerSecond) {
+        try {
+            int scheduled = parkingLotReplayService.start(max, ratePerSecond);
+            return ResponseEntity.status(HttpStatus.ACCEPTED)
+                    .body(Map.of("max", scheduled, "ratePerSecond", ratePerSecond));
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(Map.of("error", e.getMessage()));
+        }
+    }
+
+    // Estado do autoscaler (última amostra da fila e dos consumers) e as últimas decisões tomadas
+    @GetMapping("/autoscaler")
+    public ResponseEntity<Map<String, Object>> autoscaler() {
+        ListenerAutoscaler listenerAutoscaler = autoscaler.getIfAvailable();
+        if (listenerAutoscaler == null) {
+            return ResponseEntity.ok(Map.of("enabled", false));
+        }
+        return ResponseEntity.ok(listenerAutoscaler.snapshot());
+    }
+
+    // Instâncias ativas e shards consumidos por esta instância
+    @GetMapping("/shards")
+    public ResponseEntity<Map<String, Object>> shards() {
+        ShardCoordinator coordinator = shardCoordinator.getIfAvailable();
+        if (coordinator == null) {
+            return ResponseEntity.ok(Map.of("enabled", false));
+        }
+        return ResponseEntity.ok(coordinator.snapshot());
+    }
+}
@@ -0,0 +1,117 @@
+package br.com.ecommerce.notificationservice.dedup;
+
+import br.com.ecommerce.notificationservice.event.OrderCreatedEvent;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+// Camada de idempotência na frente do NotificationService.
+//
+// Reentregas do RabbitMQ (após um erro no listener) e eventos duplicados
+// publicados pelos retries do producer são descartados pelo orderId. Cada
+// pedido é reservado de forma atômica antes de notificar (claimUnprocessed),
+// então duas cópias entregues a consumers diferentes ao mesmo tempo não
+// notificam duas vezes. O pedido só é marcado como processado depois que a
+// notificação foi concluída; em caso de falha a reserva é liberada (release)
+// e a reentrega o processa de novo.
+@Component
+public class OrderDeduplicator {
+
+    private static final Logger logger = LoggerFactory.getLogger(OrderDeduplicator.class);
+
+    private final boolean enabled;
+    private final ProcessedOrderCache cache;
+    private final ProcessedOrderStore store;
+
+    public OrderDeduplicator(
+            @Value("${notification.dedup.enabled:true}") boolean enabled,
+            @Value("${notification.dedup.max-entries:1000000}") int maxEntries,
+            @Value("${notification.dedup.ttl-ms:86400000}") long ttlMs,
+            @Value("${notification.dedup.concurrency:64}") int concurrency,
+            @Value("${notification.dedup.persistence.enabled:false}") boolean persistent,
+            @Value("${notification.dedup.persistence.dir:./data/dedup}") String directory,
+            @Value("${notification.dedup.persistence.flush-interval-ms:100}") long flushIntervalMs,
+            @Value("${notification.dedup.persistence.compact-threshold-bytes:67108864}") long compactThresholdBytes)
+            throws IOException {
+        this.enabled = enabled;
+        this.cache = new ProcessedOrderCache(maxEntries, ttlMs, concurrency);
+        this.store = enabled && persistent
+                ? new ProcessedOrderStore(Path.of(directory), cache, flushIntervalMs, compactThresholdBytes)
+                : null;
+    }
+
+    // Reserva os eventos ainda não notificados e descarta os já notificados ou
+    // em processamento em outra entrega (inclusive repetições dentro do lote).
+    // Os eventos retornados devem terminar em markProcessed ou release
+    public List<OrderCreatedEvent> claimUnprocessed(List<OrderCreatedEvent> events) {
+        if (!enabled) {
+            return events;
+        }
+        List<OrderCreatedEvent> pending = new ArrayList<>(events.size());
+        for (OrderCreatedEvent event : events) {
+            Long orderId = event.getOrderId();
+            if (orderId == null || cache.tryClaim(orderId)) {
+                pending.add(event);
+            } else {
+                logger.info("[DEDUP] Pedido {} já notificado ou em processamento, ignorando mensagem duplicada",
+                        orderId);
+            }
+        }
+        return pending;
+    }
+
+    // Libera as reservas de eventos cuja notificação falhou
+    public void release(List<OrderCreatedEvent> events) {
+        if (!enabled) {
+            return;
+        }
+        for (OrderCreatedEvent event : events) {
+            if (event.getOrderId() != null) {
+                cache.release(event.getOrderId());
+            }
+        }
+    }
+
+    public void markProcessed(List<OrderCreatedEvent> events) {
+        if (!enabled) {
+            return;
+        }
+        long now = System.currentTimeMillis();
+        for (OrderCreatedEvent event : events) {
+            if (event.getOrderId() != null) {
+                cache.put(event.getOrderId(), now);
+                if (store != null) {
+                    store.append(event.getOrderId(), now);
+                }
+            }
+        }
+    }
+
+    public Map<String, Object> metrics() {
+        Map<String, Object> metrics = new LinkedHashMap<>();
+        metrics.put("enabled", enabled);
+        metrics.put("persistent", store != null);
+        metrics.put("size", cache.size());
+        metrics.put("inFlight", cache.inFlight());
+        metrics.put("hits", cache.hits());
+        metrics.put("misses", cache.misses());
+        metrics.put("evictions", cache.evictions());
+        return metrics;
+    }
+
+    @PreDestroy
+    public void close() throws IOException {
+        if (store != null) {
+            store.close();
+        }
+    }
+}
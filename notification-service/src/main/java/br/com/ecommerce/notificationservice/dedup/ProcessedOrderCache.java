@@ -0,0 +1,195 @@
+package br.com.ecommerce.notificationservice.dedup;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.LongSupplier;
+
+// Cache limitado de orderIds já notificados, com expiração por TTL.
+//
+// As entradas são distribuídas em segmentos (lock striping): cada segmento tem
+// o seu próprio lock e um LinkedHashMap em ordem de inserção. Como o TTL é o
+// mesmo para todas as entradas, a mais antiga de cada segmento é sempre a
+// próxima a expirar, então a expiração e a remoção por capacidade só olham o
+// início do mapa. Não existe lock global: threads de consumers diferentes só
+// disputam o lock quando os orderIds caem no mesmo segmento.
+//
+// Pedidos em processamento ficam reservados (tryClaim) em um conjunto à parte
+// do mesmo segmento, fora do TTL e da capacidade: uma entrega duplicada que
+// chega em outro consumer enquanto a primeira ainda notifica é descartada, em
+// vez de passar pela verificação antes de a primeira marcar o pedido.
+public class ProcessedOrderCache {
+
+    private final Segment[] segments;
+    private final int segmentMask;
+    private final int segmentCapacity;
+    private final long ttlMillis;
+    private final LongSupplier clock;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    public ProcessedOrderCache(int maxEntries, long ttlMillis, int concurrency) {
+        this(maxEntries, ttlMillis, concurrency, System::currentTimeMillis);
+    }
+
+    ProcessedOrderCache(int maxEntries, long ttlMillis, int concurrency, LongSupplier clock) {
+        int segmentCount = 1;
+        while (segmentCount < concurrency) {
+            segmentCount <<= 1;
+        }
+        this.segments = new Segment[segmentCount];
+        for (int i = 0; i < segmentCount; i++) {
+            segments[i] = new Segment();
+        }
+        this.segmentMask = segmentCount - 1;
+        this.segmentCapacity = Math.max(1, maxEntries / segmentCount);
+        this.ttlMillis = ttlMillis;
+        this.clock = clock;
+    }
+
+    // Reserva o pedido para processamento, de forma atômica. Retorna false se
+    // ele já foi notificado dentro do TTL ou está reservado por outra entrega
+    // (conta hit); a reserva termina em add (sucesso) ou release (falha)
+    public boolean tryClaim(long orderId) {
+        Segment segment = segmentFor(orderId);
+        long now = clock.getAsLong();
+        boolean claimed;
+        segment.lock.lock();
+        try {
+            expire(segment, now);
+            claimed = !segment.entries.containsKey(orderId) && segment.inFlight.add(orderId);
+        } finally {
+            segment.lock.unlock();
+        }
+        (claimed ? misses : hits).increment();
+        return claimed;
+    }
+
+    // Libera a reserva de um pedido cuja notificação falhou, para que a reentrega o processe
+    public void release(long orderId) {
+        Segment segment = segmentFor(orderId);
+        segment.lock.lock();
+        try {
+            segment.inFlight.remove(orderId);
+        } finally {
+            segment.lock.unlock();
+        }
+    }
+
+    // Registra o pedido como notificado agora
+    public void add(long orderId) {
+        put(orderId, clock.getAsLong());
+    }
+
+    // Registra o pedido com o instante original do processamento (recuperação do arquivo)
+    void put(long orderId, long processedAtMillis) {
+        Segment segment = segmentFor(orderId);
+        segment.lock.lock();
+        try {
+            expire(segment, clock.getAsLong());
+            segment.inFlight.remove(orderId);
+            segment.entries.remove(orderId);
+            segment.entries.put(orderId, processedAtMillis);
+            if (segment.entries.size() > segmentCapacity) {
+                Iterator<Long> eldest = segment.entries.keySet().iterator();
+                eldest.next();
+                eldest.remove();
+                evictions.increment();
+            }
+        } finally {
+            segment.lock.unlock();
+        }
+    }
+
+    private void expire(Segment segment, long now) {
+        Iterator<Map.Entry<Long, Long>> iterator = segment.entries.entrySet().iterator();
+        while (iterator.hasNext()) {
+            if (now - iterator.next().getValue() < ttlMillis) {
+                break;
+            }
+            iterator.remove();
+            evictions.increment();
+        }
+    }
+
+    // Cópia das entradas vivas (orderId, instante do processamento), um segmento por vez
+    List<long[]> snapshot() {
+        long now = clock.getAsLong();
+        List<long[]> live = new ArrayList<>();
+        for (Segment segment : segments) {
+            segment.lock.lock();
+            try {
+                expire(segment, now);
+                for (Map.Entry<Long, Long> entry : segment.entries.entrySet()) {
+                    live.add(new long[]{entry.getKey(), entry.getValue()});
+                }
+            } finally {
+                segment.lock.unlock();
+            }
+        }
+        return live;
+    }
+
+    long ttlMillis() {
+        return ttlMillis;
+    }
+
+    public long size() {
+        long size = 0;
+        for (Segment segment : segments) {
+            segment.lock.lock();
+            try {
+                size += segment.entries.size();
+            } finally {
+                segment.lock.unlock();
+            }
+        }
+        return size;
+    }
+
+    // Pedidos reservados por entregas ainda em processamento
+    public long inFlight() {
+        long inFlight = 0;
+        for (Segment segment : segments) {
+            segment.lock.lock();
+            try {
+                inFlight += segment.inFlight.size();
+            } finally {
+                segment.lock.unlock();
+            }
+        }
+        return inFlight;
+    }
+
+    public long hits() {
+        return hits.sum();
+    }
+
+    public long misses() {
+        return misses.sum();
+    }
+
+    public long evictions() {
+        return evictions.sum();
+    }
+
+    private Segment segmentFor(long orderId) {
+        // Espalha IDs sequenciais entre os segmentos
+        long hash = orderId * 0x9E3779B97F4A7C15L;
+        return segments[(int) (hash >>> 32) & segmentMask];
+    }
+
+    private static final class Segment {
+
+        private final ReentrantLock lock = new ReentrantLock();
+        private final LinkedHashMap<Long, Long> entries = new LinkedHashMap<>();
+        private final HashSet<Long> inFlight = new HashSet<>();
+    }
+}
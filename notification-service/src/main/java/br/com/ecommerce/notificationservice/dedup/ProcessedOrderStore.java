@@ -0,0 +1,157 @@
+package br.com.ecommerce.notificationservice.dedup;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+// Persistência opcional do ProcessedOrderCache em um arquivo append-only
+// de registros [long orderId][long processado em (epoch ms)].
+//
+// Os consumers só enfileiram o orderId (fila sem lock); uma thread de fundo
+// grava os registros pendentes a cada flush-interval-ms. Um crash pode perder
+// o último intervalo, o que no pior caso gera uma notificação duplicada.
+// Quando o arquivo passa do limite, ele é reescrito só com as entradas vivas.
+public class ProcessedOrderStore implements Closeable {
+
+    private static final Logger logger = LoggerFactory.getLogger(ProcessedOrderStore.class);
+
+    private static final int RECORD_SIZE = Long.BYTES * 2;
+
+    private final Path file;
+    private final ProcessedOrderCache cache;
+    private final long compactThresholdBytes;
+    private final Queue<long[]> pending = new ConcurrentLinkedQueue<>();
+    private final ScheduledExecutorService flusher;
+    private FileChannel channel;
+
+    public ProcessedOrderStore(Path directory, ProcessedOrderCache cache, long flushIntervalMs,
+                               long compactThresholdBytes) throws IOException {
+        Files.createDirectories(directory);
+        this.file = directory.resolve("processed-orders.log");
+        this.cache = cache;
+        this.compactThresholdBytes = compactThresholdBytes;
+        load();
+        compact();
+        this.flusher = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "dedup-flusher");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.flusher.scheduleWithFixedDelay(this::flushQuietly, flushIntervalMs, flushIntervalMs, TimeUnit.MILLISECONDS);
+    }
+
+    public void append(long orderId, long processedAtMillis) {
+        pending.add(new long[]{orderId, processedAtMillis});
+    }
+
+    // Carrega as entradas ainda dentro do TTL; um registro incompleto no fim é ignorado
+    private void load() throws IOException {
+        if (!Files.exists(file)) {
+            return;
+        }
+        long cutoff = System.currentTimeMillis() - cache.ttlMillis();
+        long loaded = 0;
+        try (FileChannel input = FileChannel.open(file, StandardOpenOption.READ)) {
+            ByteBuffer buffer = ByteBuffer.allocate(RECORD_SIZE * 4096);
+            while (input.read(buffer) > 0) {
+                buffer.flip();
+                while (buffer.remaining() >= RECORD_SIZE) {
+                    long orderId = buffer.getLong();
+                    long processedAt = buffer.getLong();
+                    if (processedAt > cutoff) {
+                        cache.put(orderId, processedAt);
+                        loaded++;
+                    }
+                }
+                buffer.compact();
+            }
+        }
+        logger.info("[DEDUP] {} pedidos processados recuperados de {}", loaded, file);
+    }
+
+    // Reescreve o arquivo apenas com as entradas vivas do cache
+    private void compact() throws IOException {
+        Path temp = file.resolveSibling(file.getFileName() + ".tmp");
+        List<long[]> live = cache.snapshot();
+        try (FileChannel output = FileChannel.open(temp, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            ByteBuffer buffer = ByteBuffer.allocate(RECORD_SIZE * 4096);
+            for (long[] entry : live) {
+                if (!buffer.hasRemaining()) {
+                    write(output, buffer);
+                }
+                buffer.putLong(entry[0]).putLong(entry[1]);
+            }
+            write(output, buffer);
+            output.force(true);
+        }
+        if (channel != null) {
+            channel.close();
+        }
+        Files.move(temp, file, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        channel = FileChannel.open(file, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+    }
+
+    private void flushQuietly() {
+        try {
+            flush();
+        } catch (Exception e) {
+            logger.error("[DEDUP] Falha ao gravar pedidos processados: {}", e.getMessage());
+        }
+    }
+
+    // Executado apenas pela thread de flush (e no close, depois que ela parou)
+    private void flush() throws IOException {
+        if (pending.isEmpty()) {
+            return;
+        }
+        ByteBuffer buffer = ByteBuffer.allocate(RECORD_SIZE * 4096);
+        long[] entry;
+        while ((entry = pending.poll()) != null) {
+            if (!buffer.hasRemaining()) {
+                write(channel, buffer);
+            }
+            buffer.putLong(entry[0]).putLong(entry[1]);
+        }
+        write(channel, buffer);
+        channel.force(false);
+
+        if (channel.size() > compactThresholdBytes) {
+            compact();
+        }
+    }
+
+    private static void write(FileChannel output, ByteBuffer buffer) throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            output.write(buffer);
+        }
+        buffer.clear();
+    }
+
+    @Override
+    public void close() throws IOException {
+        flusher.shutdown();
+        try {
+            flusher.awaitTermination(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        flush();
+        channel.close();
+    }
+}
@@ -0,0 +1,149 @@
+package br.com.ecommerce.notificationservice.retry;
+
+import com.rabbitmq.client.AMQP;
+import com.rabbitmq.client.Channel;
+import com.rabbitmq.client.GetResponse;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.core.MessageBuilder;
+import org.springframework.amqp.core.MessageProperties;
+import org.springframework.amqp.rabbit.connection.ConnectionFactory;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.amqp.rabbit.support.DefaultMessagePropertiesConverter;
+import org.springframework.amqp.rabbit.support.MessagePropertiesConverter;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.LockSupport;
+
+// Devolve mensagens do parking lot para a fila de origem (principal ou shard,
+// cabeçalho x-origin-queue) em ritmo controlado, com o contador de tentativas
+// zerado. Apenas um replay roda por vez, em uma thread própria: o endpoint
+// só o agenda, sem prender a thread HTTP durante o ritmo controlado.
+//
+// Cada mensagem é lida sem auto-ack em um canal transacional; a republicação
+// e o ack são confirmados juntos no commit. Se a republicação falhar, a
+// mensagem volta ao parking lot em vez de se perder.
+@Service
+public class ParkingLotReplayService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ParkingLotReplayService.class);
+
+    private final RabbitTemplate transactedTemplate;
+    private final RetryTopology topology;
+    private final int maxMessagesLimit;
+    private final MessagePropertiesConverter propertiesConverter = new DefaultMessagePropertiesConverter();
+    private final AtomicBoolean running = new AtomicBoolean();
+
+    private final ExecutorService executor = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "parking-lot-replay");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    public ParkingLotReplayService(ConnectionFactory connectionFactory, RetryTopology topology,
+                                   @Value("${notification.retry.replay.max-messages:10000}") int maxMessagesLimit) {
+        this.transactedTemplate = new RabbitTemplate(connectionFactory);
+        this.transactedTemplate.setChannelTransacted(true);
+        this.topology = topology;
+        this.maxMessagesLimit = maxMessagesLimit;
+    }
+
+    // Agenda o replay de até maxMessages mensagens (limitado por
+    // notification.retry.replay.max-messages), no máximo ratePerSecond por
+    // segundo. Retorna a quantidade efetivamente agendada.
+    public int start(int maxMessages, int ratePerSecond) {
+        if (!running.compareAndSet(false, true)) {
+            throw new IllegalStateException("Já existe um replay do parking lot em andamento");
+        }
+        int limit = Math.max(0, Math.min(maxMessages, maxMessagesLimit));
+        try {
+            executor.execute(() -> {
+                try {
+                    replay(limit, ratePerSecond);
+                } catch (RuntimeException e) {
+                    logger.error("[RETRY] Replay do parking lot interrompido: {}", e.getMessage(), e);
+                } finally {
+                    running.set(false);
+                }
+            });
+        } catch (RuntimeException e) {
+            running.set(false);
+            throw e;
+        }
+        return limit;
+    }
+
+    public boolean isRunning() {
+        return running.get();
+    }
+
+    private int replay(int maxMessages, int ratePerSecond) {
+        long intervalNanos = TimeUnit.SECONDS.toNanos(1) / Math.max(1, ratePerSecond);
+        long next = System.nanoTime();
+        int replayed = 0;
+        while (replayed < maxMessages) {
+            long wait = next - System.nanoTime();
+            if (wait > 0) {
+                LockSupport.parkNanos(wait);
+            }
+            next += intervalNanos;
+
+            Boolean moved = transactedTemplate.execute(this::replayOne);
+            if (!Boolean.TRUE.equals(moved)) {
+                break;
+            }
+            replayed++;
+        }
+        logger.info("[RETRY] {} mensagem(ns) do parking lot devolvida(s) às filas de origem", replayed);
+        return replayed;
+    }
+
+    // Move uma mensagem; false se o parking lot estiver vazio
+    private Boolean replayOne(Channel channel) throws IOException {
+        GetResponse response = channel.basicGet(topology.parkingLotQueue(), false);
+        if (response == null) {
+            return false;
+        }
+        long deliveryTag = response.getEnvelope().getDeliveryTag();
+        try {
+            MessageProperties properties = propertiesConverter.toMessageProperties(
+                    response.getProps(), response.getEnvelope(), StandardCharsets.UTF_8.name());
+            String originQueue = properties.getHeader(RetryTopology.ORIGIN_QUEUE_HEADER);
+            Message message = MessageBuilder.withBody(response.getBody())
+                    .copyProperties(properties)
+                    .removeHeader(RetryTopology.ATTEMPT_HEADER)
+                    .removeHeader(RetryTopology.EXCEPTION_HEADER)
+                    .removeHeader(RetryTopology.DELAY_HEADER)
+                    .build();
+            AMQP.BasicProperties outgoing = propertiesConverter.fromMessageProperties(
+                    message.getMessageProperties(), StandardCharsets.UTF_8.name());
+
+            // Exchange padrão: a routing key é o nome da fila de destino
+            channel.basicPublish("", originQueue == null ? topology.mainQueue() : originQueue,
+                    false, outgoing, message.getBody());
+            channel.basicAck(deliveryTag, false);
+            channel.txCommit();
+            return true;
+        } catch (IOException | RuntimeException e) {
+            // Descarta a republicação e devolve a mensagem ao parking lot
+            channel.txRollback();
+            channel.basicNack(deliveryTag, false, true);
+            channel.txCommit();
+            throw e;
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+}
@@ -0,0 +1,95 @@
+package br.com.ecommerce.notificationservice.retry;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.core.MessageBuilder;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.amqp.rabbit.retry.MessageBatchRecoverer;
+import org.springframework.amqp.support.converter.MessageConversionException;
+
+import java.util.List;
+
+// Recebe as mensagens cujo processamento falhou, em vez de devolvê-las
+// imediatamente à fila (o que gera um loop de reentrega quente):
+// - incrementa o cabeçalho x-retry-attempt e publica a mensagem na fila de
+//   retry do nível correspondente; ela volta à fila de origem após o TTL
+//   (a fila do shard, com sharding, para não ser consumida por outra instância)
+// - após maxAttempts tentativas, ou se a mensagem nem pode ser convertida,
+//   publica no parking lot para análise e replay manual
+// A mensagem original é então confirmada (ack).
+public class RetryTierRecoverer implements MessageBatchRecoverer {
+
+    private static final Logger logger = LoggerFactory.getLogger(RetryTierRecoverer.class);
+
+    private final RabbitTemplate rabbitTemplate;
+    private final RetryTopology topology;
+
+    public RetryTierRecoverer(RabbitTemplate rabbitTemplate, RetryTopology topology) {
+        this.rabbitTemplate = rabbitTemplate;
+        this.topology = topology;
+    }
+
+    @Override
+    public void recover(Message failed, Throwable cause) {
+        Integer previous = failed.getMessageProperties().getHeader(RetryTopology.ATTEMPT_HEADER);
+        int attempt = (previous == null ? 0 : previous) + 1;
+        String originQueue = originQueue(failed);
+
+        // Copia as propriedades: mensagens desempacotadas de um mesmo lote compartilham o objeto original
+        Message message = MessageBuilder.fromMessage(failed)
+                .setHeader(RetryTopology.ATTEMPT_HEADER, attempt)
+                .setHeader(RetryTopology.EXCEPTION_HEADER, String.valueOf(rootCause(cause).getMessage()))
+                .setHeaderIfAbsent(RetryTopology.FIRST_FAILURE_HEADER, System.currentTimeMillis())
+                .setHeader(RetryTopology.ORIGIN_QUEUE_HEADER, originQueue)
+                .build();
+
+        if (isFatal(cause) || attempt > topology.maxAttempts()) {
+            logger.error("[RETRY] Mensagem enviada ao parking lot após {} tentativa(s): {}",
+                    attempt, rootCause(cause).getMessage());
+            rabbitTemplate.send(topology.deadLetterExchange(), RetryTopology.PARKING_LOT_ROUTING_KEY, message);
+            return;
+        }
+
+        long delayMs = topology.delayForAttempt(attempt);
+        logger.warn("[RETRY] Tentativa {} de {} agendada em {} ms para a fila {}: {}",
+                attempt, topology.maxAttempts(), delayMs, originQueue, rootCause(cause).getMessage());
+        message.getMessageProperties().setHeader(RetryTopology.DELAY_HEADER, topology.delayHeaderValue(delayMs));
+        // A routing key é a fila de origem: o dead-letter da fila de retry a reutiliza
+        rabbitTemplate.send(topology.retryExchange(), originQueue, message);
+    }
+
+    // Fila que consumiu a mensagem; a fila principal se a informação não estiver disponível
+    private String originQueue(Message failed) {
+        String origin = failed.getMessageProperties().getHeader(RetryTopology.ORIGIN_QUEUE_HEADER);
+        if (origin == null) {
+            origin = failed.getMessageProperties().getConsumerQueue();
+        }
+        return origin == null ? topology.mainQueue() : origin;
+    }
+
+    @Override
+    public void recover(List<Message> messages, Throwable cause) {
+        for (Message message : messages) {
+            recover(message, cause);
+        }
+    }
+
+    // Mensagens que não podem ser convertidas falhariam em todas as tentativas
+    private static boolean isFatal(Throwable cause) {
+        for (Throwable current = cause; current != null; current = current.getCause()) {
+            if (current instanceof MessageConversionException) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static Throwable rootCause(Throwable cause) {
+        Throwable current = cause;
+        while (current.getCause() != null && current.getCause() != current) {
+            current = current.getCause();
+        }
+        return current;
+    }
+}
@@ -0,0 +1,55 @@
+package br.com.ecommerce.notificationservice.retry;
+
+import java.util.List;
+
+// Nomes da topologia de retry derivados da fila principal:
+// - <fila>.retry (exchange headers): recebe as mensagens que falharam; o
+//   cabeçalho retry-delay-ms escolhe o nível e a routing key é a fila de origem
+// - <fila>.retry.<delay>ms (filas): uma por nível de backoff; a mensagem
+//   expira pelo TTL da fila e é dead-lettered pela exchange padrão com a
+//   própria routing key, voltando à fila de onde veio (principal ou shard)
+// - <fila>.dlx (exchange) → <fila>.parking-lot (fila): mensagens que
+//   esgotaram as tentativas ou não podem ser convertidas
+public record RetryTopology(String mainQueue, List<Long> delaysMs, int maxAttempts) {
+
+    public static final String ATTEMPT_HEADER = "x-retry-attempt";
+    public static final String EXCEPTION_HEADER = "x-exception-message";
+    public static final String FIRST_FAILURE_HEADER = "x-first-failure-at";
+
+    // Fila que consumiu a mensagem na primeira falha; o retry e o replay do
+    // parking lot a devolvem para essa fila, preservando o shard do cliente
+    public static final String ORIGIN_QUEUE_HEADER = "x-origin-queue";
+
+    // Sem o prefixo x-: a exchange headers ignora cabeçalhos x-* no match
+    public static final String DELAY_HEADER = "retry-delay-ms";
+
+    public static final String PARKING_LOT_ROUTING_KEY = "parking-lot";
+
+    public String retryExchange() {
+        return mainQueue + ".retry";
+    }
+
+    public String retryQueue(long delayMs) {
+        return mainQueue + ".retry." + delayMs + "ms";
+    }
+
+    // Valor do cabeçalho DELAY_HEADER que seleciona o nível (string, para o
+    // match da exchange headers não depender do tipo numérico)
+    public String delayHeaderValue(long delayMs) {
+        return Long.toString(delayMs);
+    }
+
+    public String deadLetterExchange() {
+        return mainQueue + ".dlx";
+    }
+
+    public String parkingLotQueue() {
+        return mainQueue + ".parking-lot";
+    }
+
+    // Atraso do nível usado na tentativa informada (1 = primeira reentrega);
+    // depois do último nível, o maior atraso é repetido
+    public long delayForAttempt(int attempt) {
+        return delaysMs.get(Math.min(attempt, delaysMs.size()) - 1);
+    }
+}
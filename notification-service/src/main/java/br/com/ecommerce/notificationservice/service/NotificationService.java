@@ -1,14 +1,28 @@
 package br.com.ecommerce.notificationservice.service;
 
+import br.com.ecommerce.notificationservice.audit.AuditLog;
+import br.com.ecommerce.notificationservice.channel.ChannelBulkhead;
+import br.com.ecommerce.notificationservice.channel.ChannelMicroBatcher;
+import br.com.ecommerce.notificationservice.channel.NotificationBatch;
+import br.com.ecommerce.notificationservice.channel.NotificationChannel;
+import br.com.ecommerce.notificationservice.channel.TokenBucket;
+import br.com.ecommerce.notificationservice.dedup.OrderDeduplicator;
 import br.com.ecommerce.notificationservice.event.OrderCreatedEvent;
+import br.com.ecommerce.notificationservice.template.NotificationTemplate;
+import br.com.ecommerce.notificationservice.template.TimestampCache;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.core.env.Environment;
 import org.springframework.stereotype.Service;
 
-import java.text.NumberFormat;
-import java.time.LocalDateTime;
-import java.time.format.DateTimeFormatter;
-import java.util.Locale;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeUnit;
 
 
 @Service
@@ -17,57 +31,148 @@ public class NotificationService {
     private static final Logger logger = LoggerFactory.getLogger(NotificationService.class);
     
 
-    private static final NumberFormat CURRENCY_FORMAT = NumberFormat.getCurrencyInstance(new Locale("pt", "BR"));
-    
+    // Templates pré-compilados e formatação de moeda thread-safe (sem NumberFormat compartilhado)
+    private static final NotificationTemplate RECEIVED_TEMPLATE = NotificationTemplate.compile(
+            "Pedido {orderId} do cliente {customerName} ({amount}) recebido – notificação enviada.");
+
+    private final List<ChannelMicroBatcher> channels;
+
+    // notification.channel.delivery por canal (sucesso e falha), na mesma ordem de channels
+    private final List<Timer> deliveredTimers;
+    private final List<Timer> failedTimers;
+
+    private final OrderDeduplicator deduplicator;
+
+    private final AuditLog auditLog;
+
+
+    // Cada canal registrado ganha um bulkhead, um rate limiter e um agrupador
+    // configurados por notification.channel.<name>.*
+    public NotificationService(List<NotificationChannel> channels, Environment environment,
+                               OrderDeduplicator deduplicator, AuditLog auditLog, MeterRegistry meterRegistry) {
+        this.deduplicator = deduplicator;
+        this.auditLog = auditLog;
+        this.channels = new ArrayList<>(channels.size());
+        this.deliveredTimers = new ArrayList<>(channels.size());
+        this.failedTimers = new ArrayList<>(channels.size());
+        for (NotificationChannel channel : channels) {
+            String prefix = "notification.channel." + channel.name() + ".";
+            if (!environment.getProperty(prefix + "enabled", Boolean.class, true)) {
+                logger.info("[NOTIFICATION] Canal {} desabilitado", channel.name());
+                continue;
+            }
+            ChannelBulkhead bulkhead = new ChannelBulkhead(channel,
+                    environment.getProperty(prefix + "threads", Integer.class, 4),
+                    environment.getProperty(prefix + "queue-capacity", Integer.class, 1000),
+                    environment.getProperty(prefix + "timeout-ms", Long.class, 5000L),
+                    environment.getProperty(prefix + "required", Boolean.class, true));
+            TokenBucket rateLimiter = new TokenBucket(
+                    environment.getProperty(prefix + "rate-per-second", Double.class, 0.0),
+                    environment.getProperty(prefix + "burst", Integer.class, 1));
+            this.channels.add(ChannelMicroBatcher.start(bulkhead, rateLimiter,
+                    environment.getProperty(prefix + "batch-size", Integer.class, 100),
+                    environment.getProperty(prefix + "linger-ms", Long.class, 0L),
+                    environment.getProperty(prefix + "max-pending", Integer.class, 1000)));
+            deliveredTimers.add(deliveryTimer(meterRegistry, channel.name(), "success"));
+            failedTimers.add(deliveryTimer(meterRegistry, channel.name(), "failure"));
+        }
+    }
 
-    private static final DateTimeFormatter DATE_FORMAT = DateTimeFormatter.ofPattern("dd/MM/yyyy HH:mm:ss");
+
+    // Do envio do lote ao canal até a conclusão: fila do agrupador, rate limit e chamada ao provedor
+    private static Timer deliveryTimer(MeterRegistry registry, String channel, String outcome) {
+        return Timer.builder("notification.channel.delivery")
+                .description("Tempo de entrega das notificações por canal")
+                .tag("channel", channel)
+                .tag("outcome", outcome)
+                .register(registry);
+    }
 
 
     public void processOrderNotification(OrderCreatedEvent event) {
-        String timestamp = LocalDateTime.now().format(DATE_FORMAT);
-        String valorFormatado = CURRENCY_FORMAT.format(event.getAmount());
-        
-
-        logger.info("*****************************************************");
-        logger.info("[NOTIFICATION] Pedido {} do cliente {} ({}) recebido – notificação enviada.",
-                event.getOrderId(),
-                event.getCustomerName(),
-                valorFormatado);
-        logger.info("*****************************************************");
-        
-
-        simulateEmailNotification(event, timestamp, valorFormatado);
-        simulateSmsNotification(event, valorFormatado);
-        simulatePushNotification(event, valorFormatado);
+        processOrderNotifications(List.of(event));
+    }
+
+
+    // Ponto de entrada em lote: o timestamp e os valores são formatados uma vez
+    // e cada canal recebe o lote inteiro, em vez de uma chamada por pedido
+    public void processOrderNotifications(List<OrderCreatedEvent> received) {
+        // Reserva os pedidos e descarta reentregas e duplicatas já notificadas ou em processamento
+        List<OrderCreatedEvent> events = deduplicator.claimUnprocessed(received);
+        if (events.isEmpty()) {
+            return;
+        }
+        try {
+            String timestamp = TimestampCache.now();
+
+            auditLog.notificationReceived(events);
+            if (logger.isDebugEnabled()) {
+                for (OrderCreatedEvent event : events) {
+                    logger.debug("[NOTIFICATION] {}", RECEIVED_TEMPLATE.render(event, timestamp));
+                }
+            }
+
+            dispatch(new NotificationBatch(events, timestamp));
+        } catch (RuntimeException | Error e) {
+            // Libera os pedidos para a reentrega (retry) notificá-los de novo
+            deduplicator.release(events);
+            throw e;
+        }
+        deduplicator.markProcessed(events);
     }
 
 
-    private void simulateEmailNotification(OrderCreatedEvent event, String timestamp, String valor) {
-        logger.info("Enviando e-mail para o cliente...");
-        logger.info("   Assunto: Confirmação do Pedido #{}", event.getOrderId());
-        logger.info("   Destinatário: {} <cliente@email.com>", event.getCustomerName());
-        logger.info("   Conteúdo: Seu pedido de {} no valor de {} foi confirmado!", 
-                event.getProduct(), valor);
-        logger.info("   Data/Hora: {}", timestamp);
+    // Envia o lote a todos os canais em paralelo. Cada canal agrupa os pedidos
+    // de várias mensagens em chamadas ao provedor dentro do seu rate limit e
+    // executa as chamadas no seu bulkhead. Se a fila do canal estiver cheia,
+    // a thread do listener espera aqui (backpressure).
+    // Só retorna (e o listener só confirma a mensagem) depois que os canais
+    // obrigatórios concluírem; a falha de um canal obrigatório rejeita a mensagem.
+    // Falhas de canais opcionais são apenas registradas.
+    private void dispatch(NotificationBatch batch) {
+        List<CompletableFuture<Void>> required = new ArrayList<>(channels.size());
+        for (int i = 0; i < channels.size(); i++) {
+            ChannelMicroBatcher channel = channels.get(i);
+            Timer delivered = deliveredTimers.get(i);
+            Timer failed = failedTimers.get(i);
+            long started = System.nanoTime();
+            CompletableFuture<Void> delivery = channel.submit(batch)
+                    .whenComplete((ignored, error) -> {
+                        long elapsed = System.nanoTime() - started;
+                        if (error != null) {
+                            failed.record(elapsed, TimeUnit.NANOSECONDS);
+                            logger.warn("[NOTIFICATION] Canal {} falhou para {} pedido(s): {}",
+                                    channel.name(), batch.size(), error.toString());
+                        } else {
+                            delivered.record(elapsed, TimeUnit.NANOSECONDS);
+                            auditLog.notificationSent(channel.name(), batch.events());
+                        }
+                    });
+            if (channel.isRequired()) {
+                required.add(delivery);
+            }
+        }
+
+        try {
+            CompletableFuture.allOf(required.toArray(new CompletableFuture<?>[0])).join();
+        } catch (CompletionException e) {
+            throw new IllegalStateException("Canal obrigatório falhou: " + e.getCause(), e.getCause());
+        }
     }
 
 
-    private void simulateSmsNotification(OrderCreatedEvent event, String valor) {
-        logger.info("Enviando SMS para o cliente...");
-        logger.info("   Mensagem: Olá {}! Pedido #{} ({}) confirmado. Valor: {}",
-                event.getCustomerName(),
-                event.getOrderId(),
-                event.getProduct(),
-                valor);
+    // Maior fila entre os canais, em pedidos (usado pelo controle de backpressure)
+    public int pendingNotifications() {
+        int pending = 0;
+        for (ChannelMicroBatcher channel : channels) {
+            pending = Math.max(pending, channel.pendingOrders());
+        }
+        return pending;
     }
 
 
-    private void simulatePushNotification(OrderCreatedEvent event, String valor) {
-        logger.info("Enviando push notification...");
-        logger.info("   Título: Pedido Confirmado!");
-        logger.info("   Corpo: {} - {} por {}", 
-                event.getProduct(), 
-                valor,
-                event.getCustomerName());
+    @PreDestroy
+    public void shutdown() {
+        channels.forEach(ChannelMicroBatcher::shutdown);
     }
 }
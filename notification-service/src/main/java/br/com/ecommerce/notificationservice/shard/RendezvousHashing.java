@@ -0,0 +1,54 @@
+package br.com.ecommerce.notificationservice.shard;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Collection;
+
+// Rendezvous hashing (highest random weight): o dono de um shard é a instância
+// com o maior peso hash(instância, shard). Todas as instâncias com a mesma
+// lista de membros chegam à mesma atribuição sem coordenação, e quando uma
+// instância entra ou sai apenas os shards dela mudam de dono.
+public final class RendezvousHashing {
+
+    private RendezvousHashing() {
+    }
+
+    public static String owner(int shard, Collection<String> members) {
+        String owner = null;
+        long best = 0;
+        for (String member : members) {
+            long weight = weight(member, shard);
+            // Empate (improvável) resolvido pelo id, para ser igual em todas as instâncias
+            if (owner == null || Long.compareUnsigned(weight, best) > 0
+                    || (weight == best && member.compareTo(owner) < 0)) {
+                owner = member;
+                best = weight;
+            }
+        }
+        return owner;
+    }
+
+    static long weight(String member, int shard) {
+        return mix(fnv1a(member) ^ mix(shard + 1L));
+    }
+
+    // FNV-1a 64 bits sobre o UTF-8: estável entre JVMs e reinícios
+    private static long fnv1a(String value) {
+        long hash = 0xcbf29ce484222325L;
+        for (byte b : value.getBytes(StandardCharsets.UTF_8)) {
+            hash ^= b & 0xFF;
+            hash *= 0x100000001b3L;
+        }
+        return hash;
+    }
+
+    // Finalizador do MurmurHash3
+    private static long mix(long value) {
+        long h = value;
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        h ^= h >>> 33;
+        return h;
+    }
+}
@@ -0,0 +1,246 @@
+package br.com.ecommerce.notificationservice.shard;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.amqp.core.MessageListener;
+import org.springframework.amqp.rabbit.config.SimpleRabbitListenerContainerFactory;
+import org.springframework.amqp.rabbit.config.SimpleRabbitListenerEndpoint;
+import org.springframework.amqp.rabbit.listener.SimpleMessageListenerContainer;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+// Distribui as filas de shard entre as instâncias ativas do notification-service.
+//
+// A cada intervalo: publica o heartbeat, calcula pelo rendezvous hashing quais
+// shards pertencem a esta instância e inicia/para os containers de acordo.
+// Quando uma instância entra ou sai, só os shards dela mudam de dono.
+//
+// Ordem por cliente:
+// - cada shard tem um container com um único consumer, então os eventos de
+//   um shard são processados na ordem da fila
+// - o consumer é exclusivo: durante um rebalanceamento, o novo dono só
+//   consegue consumir depois que o anterior terminou a mensagem em andamento
+//   e liberou a fila (o container tenta de novo no recovery interval)
+//
+// Na inicialização, a atribuição espera dois intervalos para receber os
+// heartbeats das outras instâncias antes de assumir shards.
+public class ShardCoordinator {
+
+    private static final Logger logger = LoggerFactory.getLogger(ShardCoordinator.class);
+
+    private final SimpleRabbitListenerContainerFactory containerFactory;
+    private final ShardTopology topology;
+    private final ShardMembership membership;
+    private final MessageListener listener;
+    private final long intervalMs;
+
+    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "shard-coordinator");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    // Containers criados sob demanda, um por shard; protegidos pelo lock
+    private final SimpleMessageListenerContainer[] containers;
+    private final ReentrantLock lock = new ReentrantLock();
+    private boolean paused;
+    // Prefetch definido pelo ListenerAutoscaler; 0 mantém o do factory
+    private int prefetch;
+
+    private long startedNanos;
+    private volatile List<String> members = List.of();
+    private volatile List<Integer> ownedShards = List.of();
+
+    public ShardCoordinator(SimpleRabbitListenerContainerFactory containerFactory, ShardTopology topology,
+                            ShardMembership membership, MessageListener listener, long intervalMs) {
+        this.containerFactory = containerFactory;
+        this.topology = topology;
+        this.membership = membership;
+        this.listener = listener;
+        this.intervalMs = intervalMs;
+        this.containers = new SimpleMessageListenerContainer[topology.shards()];
+    }
+
+    public void start() {
+        startedNanos = System.nanoTime();
+        scheduler.scheduleWithFixedDelay(this::rebalanceQuietly, 0, intervalMs, TimeUnit.MILLISECONDS);
+    }
+
+    private void rebalanceQuietly() {
+        try {
+            membership.heartbeat();
+        } catch (Exception e) {
+            logger.error("[SHARDING] Falha ao publicar heartbeat: {}", e.getMessage());
+        }
+        try {
+            if (System.nanoTime() - startedNanos >= TimeUnit.MILLISECONDS.toNanos(2 * intervalMs)) {
+                rebalance();
+            }
+        } catch (Exception e) {
+            logger.error("[SHARDING] Falha ao rebalancear os shards: {}", e.getMessage());
+        }
+    }
+
+    private void rebalance() {
+        List<String> current = membership.members();
+        List<Integer> owned = new ArrayList<>();
+        for (int shard = 0; shard < topology.shards(); shard++) {
+            if (membership.instanceId().equals(RendezvousHashing.owner(shard, current))) {
+                owned.add(shard);
+            }
+        }
+        if (!current.equals(members) || !owned.equals(ownedShards)) {
+            logger.info("[SHARDING] {} instância(s) ativa(s); shards desta instância ({}): {}",
+                    current.size(), membership.instanceId(), owned);
+        }
+        members = current;
+        ownedShards = List.copyOf(owned);
+
+        lock.lock();
+        try {
+            reconcile();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // Inicia os containers dos shards atribuídos e para os demais. O stop é
+    // síncrono: espera a mensagem em andamento antes de liberar o shard
+    private void reconcile() {
+        List<Integer> owned = ownedShards;
+        for (int shard = 0; shard < containers.length; shard++) {
+            SimpleMessageListenerContainer container = containers[shard];
+            if (owned.contains(shard)) {
+                if (!paused) {
+                    container = containerFor(shard);
+                    if (!container.isRunning()) {
+                        logger.info("[SHARDING] Assumindo o shard {}", shard);
+                        container.start();
+                    }
+                }
+            } else if (container != null && container.isRunning()) {
+                logger.info("[SHARDING] Liberando o shard {}", shard);
+                container.stop();
+            }
+        }
+    }
+
+    private SimpleMessageListenerContainer containerFor(int shard) {
+        if (containers[shard] == null) {
+            SimpleRabbitListenerEndpoint endpoint = new SimpleRabbitListenerEndpoint();
+            endpoint.setId("shard-" + shard);
+            endpoint.setQueueNames(topology.shardQueue(shard));
+            endpoint.setMessageListener(listener);
+            SimpleMessageListenerContainer container = containerFactory.createListenerContainer(endpoint);
+            container.setConcurrentConsumers(1);
+            container.setExclusive(true);
+            if (prefetch > 0) {
+                container.setPrefetchCount(prefetch);
+            }
+            container.afterPropertiesSet();
+            containers[shard] = container;
+        }
+        return containers[shard];
+    }
+
+    // Chamado pelo controle de backpressure: para os consumers sem liberar os shards
+    public void pause() {
+        lock.lock();
+        try {
+            paused = true;
+            for (SimpleMessageListenerContainer container : containers) {
+                if (container != null && container.isRunning()) {
+                    container.stop(() -> { });
+                }
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public void resume() {
+        lock.lock();
+        try {
+            paused = false;
+            reconcile();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // Containers dos shards em execução nesta instância (para o ListenerAutoscaler)
+    public List<SimpleMessageListenerContainer> runningContainers() {
+        lock.lock();
+        try {
+            List<SimpleMessageListenerContainer> running = new ArrayList<>();
+            for (SimpleMessageListenerContainer container : containers) {
+                if (container != null && container.isRunning()) {
+                    running.add(container);
+                }
+            }
+            return running;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public List<String> ownedQueues() {
+        List<String> queues = new ArrayList<>();
+        for (Integer shard : ownedShards) {
+            queues.add(topology.shardQueue(shard));
+        }
+        return queues;
+    }
+
+    // Vale para os containers existentes (nos próximos consumers) e para os criados depois
+    public void setPrefetchCount(int prefetch) {
+        lock.lock();
+        try {
+            this.prefetch = prefetch;
+            for (SimpleMessageListenerContainer container : containers) {
+                if (container != null) {
+                    container.setPrefetchCount(prefetch);
+                }
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public Map<String, Object> snapshot() {
+        Map<String, Object> snapshot = new LinkedHashMap<>();
+        snapshot.put("instanceId", membership.instanceId());
+        snapshot.put("shards", topology.shards());
+        snapshot.put("members", members);
+        snapshot.put("ownedShards", ownedShards);
+        return snapshot;
+    }
+
+    // Termina as mensagens em andamento, libera os shards e avisa as outras instâncias
+    public void stop() {
+        scheduler.shutdownNow();
+        lock.lock();
+        try {
+            for (SimpleMessageListenerContainer container : containers) {
+                if (container != null) {
+                    container.stop();
+                    container.destroy();
+                }
+            }
+        } finally {
+            lock.unlock();
+        }
+        try {
+            membership.leave();
+        } catch (Exception e) {
+            logger.warn("[SHARDING] Falha ao avisar a saída da instância: {}", e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,93 @@
+package br.com.ecommerce.notificationservice.shard;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.core.MessageListener;
+import org.springframework.amqp.core.MessageProperties;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+// Lista de instâncias ativas do notification-service, mantida por heartbeats
+// na exchange fanout <fila>.membership. Cada instância recebe os heartbeats
+// em uma fila exclusiva e temporária; um membro sem heartbeat por
+// member-timeout-ms é considerado fora. No encerramento, a instância avisa
+// que está saindo para que as outras assumam seus shards imediatamente.
+public class ShardMembership implements MessageListener {
+
+    private static final Logger logger = LoggerFactory.getLogger(ShardMembership.class);
+
+    static final String LEAVING_HEADER = "x-member-leaving";
+
+    private final RabbitTemplate rabbitTemplate;
+    private final ShardTopology topology;
+    private final String instanceId;
+    private final long memberTimeoutNanos;
+
+    // Instância -> System.nanoTime() do último heartbeat recebido
+    private final Map<String, Long> lastSeen = new ConcurrentHashMap<>();
+
+    public ShardMembership(RabbitTemplate rabbitTemplate, ShardTopology topology, String instanceId,
+                           long memberTimeoutMs) {
+        this.rabbitTemplate = rabbitTemplate;
+        this.topology = topology;
+        this.instanceId = instanceId;
+        this.memberTimeoutNanos = TimeUnit.MILLISECONDS.toNanos(memberTimeoutMs);
+    }
+
+    public String instanceId() {
+        return instanceId;
+    }
+
+    public void heartbeat() {
+        lastSeen.put(instanceId, System.nanoTime());
+        publish(false);
+    }
+
+    public void leave() {
+        lastSeen.remove(instanceId);
+        publish(true);
+    }
+
+    private void publish(boolean leaving) {
+        MessageProperties properties = new MessageProperties();
+        properties.setHeader(LEAVING_HEADER, leaving);
+        // Heartbeat antigo não serve para nada: expira junto com o membro
+        properties.setExpiration(Long.toString(TimeUnit.NANOSECONDS.toMillis(memberTimeoutNanos)));
+        rabbitTemplate.send(topology.membershipExchange(), "",
+                new Message(instanceId.getBytes(StandardCharsets.UTF_8), properties));
+    }
+
+    @Override
+    public void onMessage(Message message) {
+        String member = new String(message.getBody(), StandardCharsets.UTF_8);
+        if (Boolean.TRUE.equals(message.getMessageProperties().getHeader(LEAVING_HEADER))) {
+            if (lastSeen.remove(member) != null) {
+                logger.info("[SHARDING] Instância {} saiu", member);
+            }
+        } else if (lastSeen.put(member, System.nanoTime()) == null) {
+            logger.info("[SHARDING] Instância {} entrou", member);
+        }
+    }
+
+    // Membros com heartbeat recente (sempre inclui a própria instância), em ordem
+    public List<String> members() {
+        long now = System.nanoTime();
+        Iterator<Map.Entry<String, Long>> iterator = lastSeen.entrySet().iterator();
+        while (iterator.hasNext()) {
+            Map.Entry<String, Long> entry = iterator.next();
+            if (!entry.getKey().equals(instanceId) && now - entry.getValue() > memberTimeoutNanos) {
+                iterator.remove();
+                logger.warn("[SHARDING] Instância {} sem heartbeat, removida", entry.getKey());
+            }
+        }
+        lastSeen.putIfAbsent(instanceId, now);
+        return lastSeen.keySet().stream().sorted().toList();
+    }
+}
@@ -0,0 +1,61 @@
+package br.com.ecommerce.notificationservice.shard;
+
+import br.com.ecommerce.notificationservice.event.OrderCreatedEvent;
+import br.com.ecommerce.notificationservice.service.NotificationService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.amqp.core.BatchMessageListener;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.support.converter.MessageConversionException;
+import org.springframework.amqp.support.converter.MessageConverter;
+
+import java.util.ArrayList;
+import java.util.List;
+
+// Listener das filas de shard. Os containers dos shards são criados em tempo
+// de execução pelo ShardCoordinator (sem @RabbitListener), então a conversão é
+// feita aqui com o mesmo conversor dos outros listeners. Atende tanto o modo
+// de uma mensagem por vez quanto o modo lote (rabbitmq.consumer.batch.enabled).
+public class ShardMessageListener implements BatchMessageListener {
+
+    private static final Logger logger = LoggerFactory.getLogger(ShardMessageListener.class);
+
+    private final MessageConverter messageConverter;
+    private final NotificationService notificationService;
+
+    public ShardMessageListener(MessageConverter messageConverter, NotificationService notificationService) {
+        this.messageConverter = messageConverter;
+        this.notificationService = notificationService;
+    }
+
+    @Override
+    public void onMessage(Message message) {
+        OrderCreatedEvent event = convert(message);
+        logger.debug("[CONSUMER] Evento recebido da fila {}: {}",
+                message.getMessageProperties().getConsumerQueue(), event);
+        notificationService.processOrderNotification(event);
+    }
+
+    @Override
+    public void onMessageBatch(List<Message> messages) {
+        List<OrderCreatedEvent> events = new ArrayList<>(messages.size());
+        for (Message message : messages) {
+            events.add(convert(message));
+        }
+        logger.debug("[CONSUMER] Lote de {} mensagens recebido da fila {}", events.size(),
+                messages.get(0).getMessageProperties().getConsumerQueue());
+        notificationService.processOrderNotifications(events);
+    }
+
+    private OrderCreatedEvent convert(Message message) {
+        // O JSON chega com o __TypeId__ da classe do order-service; o tipo
+        // inferido faz o Jackson usar o OrderCreatedEvent local, como no @RabbitListener
+        message.getMessageProperties().setInferredArgumentType(OrderCreatedEvent.class);
+        Object payload = messageConverter.fromMessage(message);
+        if (payload instanceof OrderCreatedEvent event) {
+            return event;
+        }
+        throw new MessageConversionException("Payload inesperado na fila de shard: "
+                + (payload == null ? "null" : payload.getClass().getName()));
+    }
+}
@@ -0,0 +1,22 @@
+package br.com.ecommerce.notificationservice.shard;
+
+// Nomes das filas shardeadas, derivados da fila principal (os mesmos usados
+// pelo OrderShardRouter do order-service):
+// - <fila>.shard-<n> (filas): uma por shard, consumida por uma única instância
+// - <fila>.membership (exchange fanout): heartbeats das instâncias
+public record ShardTopology(String mainQueue, int shards) {
+
+    public ShardTopology {
+        if (shards < 1) {
+            throw new IllegalArgumentException("Quantidade de shards inválida: " + shards);
+        }
+    }
+
+    public String shardQueue(int shard) {
+        return mainQueue + ".shard-" + shard;
+    }
+
+    public String membershipExchange() {
+        return mainQueue + ".membership";
+    }
+}
@@ -0,0 +1,83 @@
+package br.com.ecommerce.notificationservice.template;
+
+import java.text.NumberFormat;
+import java.util.Locale;
+
+// Formatação de valores em reais ("R$ 1.234,56") sem alocação e thread-safe,
+// com o mesmo resultado do NumberFormat.getCurrencyInstance(pt-BR): espaço não
+// separável após "R$", sinal antes do símbolo e arredondamento HALF_EVEN sobre
+// o valor exato do double.
+public final class BrlCurrencyFormatter {
+
+    private static final char NBSP = '\u00A0';
+
+    // Acima disso os centavos não cabem com precisão em um long; usa o NumberFormat
+    private static final double MAX_FAST_PATH = 1e15;
+
+    private static final ThreadLocal<NumberFormat> FALLBACK =
+            ThreadLocal.withInitial(() -> NumberFormat.getCurrencyInstance(Locale.of("pt", "BR")));
+
+    private BrlCurrencyFormatter() {
+    }
+
+    public static String format(double amount) {
+        return appendTo(new StringBuilder(24), amount).toString();
+    }
+
+    public static StringBuilder appendTo(StringBuilder target, double amount) {
+        if (!(Math.abs(amount) < MAX_FAST_PATH)) {
+            return target.append(FALLBACK.get().format(amount));
+        }
+
+        long cents = roundHalfEvenCents(Math.abs(amount));
+        if (Double.doubleToRawLongBits(amount) < 0) {
+            target.append('-');
+        }
+        target.append("R$").append(NBSP);
+        appendGrouped(target, cents / 100);
+        target.append(',');
+        int fraction = (int) (cents % 100);
+        if (fraction < 10) {
+            target.append('0');
+        }
+        return target.append(fraction);
+    }
+
+    // amount * 100 arredondado HALF_EVEN. Um empate aparente (x,5 após a
+    // multiplicação) é desfeito pelo erro exato da multiplicação, obtido com fma
+    private static long roundHalfEvenCents(double amount) {
+        double scaled = amount * 100;
+        double floor = Math.floor(scaled);
+        double diff = scaled - floor;
+        if (diff != 0.5) {
+            return (long) (diff < 0.5 ? floor : floor + 1);
+        }
+        double error = Math.fma(amount, 100, -scaled);
+        if (error > 0) {
+            return (long) floor + 1;
+        }
+        if (error < 0) {
+            return (long) floor;
+        }
+        long candidate = (long) floor;
+        return (candidate & 1) == 0 ? candidate : candidate + 1;
+    }
+
+    // Parte inteira com separador de milhar ".", sem criar strings intermediárias
+    private static void appendGrouped(StringBuilder target, long value) {
+        if (value < 1000) {
+            target.append(value);
+            return;
+        }
+        appendGrouped(target, value / 1000);
+        target.append('.');
+        int group = (int) (value % 1000);
+        if (group < 100) {
+            target.append('0');
+        }
+        if (group < 10) {
+            target.append('0');
+        }
+        target.append(group);
+    }
+}
@@ -0,0 +1,106 @@
+package br.com.ecommerce.notificationservice.template;
+
+import br.com.ecommerce.notificationservice.event.OrderCreatedEvent;
+
+import java.util.ArrayList;
+import java.util.List;
+
+// Template de notificação pré-compilado.
+//
+// O texto é analisado uma única vez em uma lista de segmentos (trechos
+// literais e campos como {orderId}); a renderização só percorre os segmentos
+// anexando valores a um StringBuilder reaproveitado pela thread, sem
+// String.format, concatenações ou NumberFormat.
+//
+// Campos: {orderId}, {customerName}, {product}, {amount} (em reais) e {timestamp}
+public final class NotificationTemplate {
+
+    private enum Field {
+        ORDER_ID("orderId"),
+        CUSTOMER_NAME("customerName"),
+        PRODUCT("product"),
+        AMOUNT("amount"),
+        TIMESTAMP("timestamp");
+
+        private final String placeholder;
+
+        Field(String placeholder) {
+            this.placeholder = placeholder;
+        }
+
+        static Field of(String placeholder, String template) {
+            for (Field field : values()) {
+                if (field.placeholder.equals(placeholder)) {
+                    return field;
+                }
+            }
+            throw new IllegalArgumentException("Campo desconhecido {" + placeholder + "} no template: " + template);
+        }
+    }
+
+    // Segmento literal (field == null) ou campo
+    private record Segment(String literal, Field field) {
+    }
+
+    private final Segment[] segments;
+    private final ThreadLocal<StringBuilder> buffer = ThreadLocal.withInitial(() -> new StringBuilder(256));
+
+    private NotificationTemplate(Segment[] segments) {
+        this.segments = segments;
+    }
+
+    public static NotificationTemplate compile(String template) {
+        List<Segment> segments = new ArrayList<>();
+        int position = 0;
+        while (position < template.length()) {
+            int open = template.indexOf('{', position);
+            if (open < 0) {
+                segments.add(new Segment(template.substring(position), null));
+                break;
+            }
+            int close = template.indexOf('}', open);
+            if (close < 0) {
+                throw new IllegalArgumentException("Chave não fechada no template: " + template);
+            }
+            if (open > position) {
+                segments.add(new Segment(template.substring(position, open), null));
+            }
+            segments.add(new Segment(null, Field.of(template.substring(open + 1, close), template)));
+            position = close + 1;
+        }
+        return new NotificationTemplate(segments.toArray(new Segment[0]));
+    }
+
+    // Renderiza no buffer da thread atual. O resultado é válido até a próxima
+    // renderização deste template na mesma thread e não deve ser guardado.
+    public CharSequence render(OrderCreatedEvent event, String timestamp) {
+        StringBuilder target = buffer.get();
+        target.setLength(0);
+        return renderTo(target, event, timestamp);
+    }
+
+    public StringBuilder renderTo(StringBuilder target, OrderCreatedEvent event, String timestamp) {
+        for (Segment segment : segments) {
+            if (segment.field == null) {
+                target.append(segment.literal);
+                continue;
+            }
+            switch (segment.field) {
+                case ORDER_ID -> {
+                    if (event.getOrderId() != null) {
+                        target.append(event.getOrderId().longValue());
+                    }
+                }
+                case CUSTOMER_NAME -> target.append(event.getCustomerName());
+                case PRODUCT -> target.append(event.getProduct());
+                case AMOUNT -> {
+                    if (event.getAmount() != null) {
+                        BrlCurrencyFormatter.appendTo(target, event.getAmount());
+                    }
+                }
+                case TIMESTAMP -> target.append(timestamp);
+            }
+        }
+        return target;
+    }
+}
@@ -0,0 +1,31 @@
+package br.com.ecommerce.notificationservice.template;
+
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+
+// Data/hora atual já formatada ("dd/MM/yyyy HH:mm:ss"). Como a resolução é de
+// segundos, a string é formatada uma vez por segundo e reaproveitada por todas
+// as mensagens e threads desse segundo.
+public final class TimestampCache {
+
+    private static final DateTimeFormatter DATE_FORMAT = DateTimeFormatter.ofPattern("dd/MM/yyyy HH:mm:ss");
+
+    private static volatile Entry current = new Entry(Long.MIN_VALUE, "");
+
+    private TimestampCache() {
+    }
+
+    public static String now() {
+        long second = System.currentTimeMillis() / 1000;
+        Entry entry = current;
+        if (entry.second != second) {
+            // Corrida benigna: duas threads podem formatar o mesmo segundo
+            entry = new Entry(second, LocalDateTime.now().format(DATE_FORMAT));
+            current = entry;
+        }
+        return entry.text;
+    }
+
+    private record Entry(long second, String text) {
+    }
+}
@@ -0,0 +1,205 @@
+package br.com.ecommerce.orderservice.analytics;
+
+import br.com.ecommerce.orderservice.model.Order;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.LongSupplier;
+
+/**
+ * Agregados dos pedidos mantidos incrementalmente a cada pedido criado,
+ * para dashboards que antes baixavam o GET /orders inteiro e agregavam no cliente.
+ *
+ * - Totais: quantidade de pedidos e receita
+ * - Por produto e por cliente: quantidade e receita
+ * - Janelas de um minuto (tumbling): as últimas orders.analytics.window-minutes
+ *
+ * Todos os contadores são LongAdder (células por thread, sem CAS disputado
+ * entre as threads que criam pedidos). A receita é somada em centavos para
+ * não acumular erro de ponto flutuante.
+ *
+ * As janelas ficam em um anel fixo indexado pelo minuto: ao entrar em um
+ * minuto novo, a posição do anel que guardava o minuto de window-minutes
+ * atrás é zerada e reaproveitada. Leituras custam O(janelas), independente
+ * da quantidade de pedidos.
+ *
+ * A cardinalidade é limitada: produtos além de max-products e clientes além
+ * de max-customers são somados na chave OTHER. Os agregados cobrem os
+ * pedidos criados desde a inicialização (pedidos recuperados do disco não
+ * são recontados).
+ */
+@Component
+public class OrderAnalytics {
+
+    public static final String OTHER = "(outros)";
+
+    private static final long MINUTE_MILLIS = TimeUnit.MINUTES.toMillis(1);
+
+    private final Totals total = new Totals();
+
+    private final ConcurrentHashMap<String, Totals> products = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<String, Totals> customers = new ConcurrentHashMap<>();
+    private final Totals otherProducts = new Totals();
+    private final Totals otherCustomers = new Totals();
+    private final int maxProducts;
+    private final int maxCustomers;
+
+    private final Window[] windows;
+    private final LongSupplier clock;
+
+    public OrderAnalytics(@Value("${orders.analytics.max-products:1000}") int maxProducts,
+                          @Value("${orders.analytics.max-customers:100000}") int maxCustomers,
+                          @Value("${orders.analytics.window-minutes:60}") int windowMinutes) {
+        this(maxProducts, maxCustomers, windowMinutes, System::currentTimeMillis);
+    }
+
+    OrderAnalytics(int maxProducts, int maxCustomers, int windowMinutes, LongSupplier clock) {
+        this.maxProducts = maxProducts;
+        this.maxCustomers = maxCustomers;
+        this.windows = new Window[Math.max(1, windowMinutes)];
+        for (int i = 0; i < windows.length; i++) {
+            windows[i] = new Window();
+        }
+        this.clock = clock;
+    }
+
+    /**
+     * Contabiliza um pedido recém-criado.
+     */
+    public void record(Order order) {
+        long cents = order.getAmount() == null ? 0 : Math.round(order.getAmount() * 100);
+        total.add(cents);
+        totalsFor(products, order.getProduct(), maxProducts, otherProducts).add(cents);
+        totalsFor(customers, order.getCustomerName(), maxCustomers, otherCustomers).add(cents);
+        windowFor(clock.getAsLong() / MINUTE_MILLIS).add(cents);
+    }
+
+    private static Totals totalsFor(ConcurrentHashMap<String, Totals> totals, String key, int max, Totals other) {
+        if (key == null) {
+            return other;
+        }
+        Totals existing = totals.get(key);
+        if (existing != null) {
+            return existing;
+        }
+        // O limite pode ser ultrapassado por algumas chaves sob concorrência; não precisa ser exato
+        if (totals.size() >= max) {
+            return other;
+        }
+        return totals.computeIfAbsent(key, ignored -> new Totals());
+    }
+
+    private Totals windowFor(long minute) {
+        Window window = windows[Math.floorMod(minute, windows.length)];
+        if (window.minute != minute) {
+            window.lock.lock();
+            try {
+                // Zera os contadores antes de publicar o novo minuto: quem vê o
+                // minuto novo já soma sobre os contadores zerados
+                if (window.minute != minute) {
+                    window.totals.reset();
+                    window.minute = minute;
+                }
+            } finally {
+                window.lock.unlock();
+            }
+        }
+        return window.totals;
+    }
+
+    /**
+     * Totais, receita por produto e as janelas por minuto (da mais antiga à atual).
+     */
+    public Map<String, Object> snapshot() {
+        Map<String, Object> values = new LinkedHashMap<>();
+        long orders = total.orders.sum();
+        long cents = total.revenueCents.sum();
+        values.put("orders", orders);
+        values.put("revenue", BigDecimal.valueOf(cents, 2));
+        values.put("averageTicket", orders == 0 ? BigDecimal.ZERO.setScale(2)
+                : BigDecimal.valueOf(cents, 2).divide(BigDecimal.valueOf(orders), 2, RoundingMode.HALF_EVEN));
+        values.put("customers", customers.size());
+
+        Map<String, Object> byProduct = new LinkedHashMap<>();
+        products.forEach((product, totals) -> byProduct.put(product, totals.toMap()));
+        if (otherProducts.orders.sum() > 0) {
+            byProduct.put(OTHER, otherProducts.toMap());
+        }
+        values.put("products", byProduct);
+        values.put("windows", windows());
+        return values;
+    }
+
+    /**
+     * Totais de um cliente, ou vazio se ele não tiver pedidos (ou estiver em OTHER).
+     */
+    public Optional<Map<String, Object>> customer(String customerName) {
+        Totals totals = customers.get(customerName);
+        return Optional.ofNullable(totals).map(Totals::toMap);
+    }
+
+    /**
+     * As últimas janelas de um minuto, da mais antiga à atual (que ainda está aberta).
+     * Minutos sem pedidos aparecem zerados, para uma série contínua.
+     */
+    public List<Map<String, Object>> windows() {
+        long current = clock.getAsLong() / MINUTE_MILLIS;
+        List<Map<String, Object>> series = new ArrayList<>(windows.length);
+        for (long minute = current - windows.length + 1; minute <= current; minute++) {
+            Window window = windows[Math.floorMod(minute, windows.length)];
+            Map<String, Object> values = new LinkedHashMap<>();
+            values.put("start", Instant.ofEpochMilli(minute * MINUTE_MILLIS).toString());
+            if (window.minute == minute) {
+                values.putAll(window.totals.toMap());
+            } else {
+                values.put("orders", 0L);
+                values.put("revenue", BigDecimal.ZERO.setScale(2));
+            }
+            series.add(values);
+        }
+        return series;
+    }
+
+    private static final class Totals {
+
+        private final LongAdder orders = new LongAdder();
+        private final LongAdder revenueCents = new LongAdder();
+
+        void add(long cents) {
+            orders.increment();
+            revenueCents.add(cents);
+        }
+
+        void reset() {
+            orders.reset();
+            revenueCents.reset();
+        }
+
+        Map<String, Object> toMap() {
+            Map<String, Object> values = new LinkedHashMap<>();
+            values.put("orders", orders.sum());
+            values.put("revenue", BigDecimal.valueOf(revenueCents.sum(), 2));
+            return values;
+        }
+    }
+
+    private static final class Window {
+
+        private final ReentrantLock lock = new ReentrantLock();
+        private final Totals totals = new Totals();
+        // Minuto (epoch millis / 60000) contado atualmente nesta posição do anel
+        private volatile long minute = Long.MIN_VALUE;
+    }
+}
@@ -0,0 +1,69 @@
+package br.com.ecommerce.orderservice.audit;
+
+import br.com.ecommerce.orderservice.model.Order;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Registro de auditoria do fluxo de pedidos: uma linha compacta (chave=valor)
+ * por etapa, no logger "audit", em vez dos vários logs INFO por pedido.
+ *
+ * O logger "audit" é assíncrono (logback-spring.xml) e descarta registros
+ * quando o buffer enche, então nunca bloqueia a thread da requisição.
+ *
+ * Amostragem (audit.sample-rate, de 0 a 1): a decisão é tomada pelo hash do
+ * orderId, a mesma no notification-service, então um pedido amostrado tem
+ * todas as suas etapas registradas nos dois serviços.
+ */
+@Component
+public class AuditLog {
+
+    private static final Logger audit = LoggerFactory.getLogger("audit");
+
+    private final boolean enabled;
+    private final double sampleRate;
+
+    public AuditLog(@Value("${audit.enabled:true}") boolean enabled,
+                    @Value("${audit.sample-rate:1.0}") double sampleRate) {
+        this.enabled = enabled;
+        this.sampleRate = sampleRate;
+    }
+
+    public void orderCreated(Order order) {
+        if (isSampled(order.getId())) {
+            audit.info("event=order.created orderId={} customer=\"{}\" product=\"{}\" amount={}",
+                    order.getId(), order.getCustomerName(), order.getProduct(), order.getAmount());
+        }
+    }
+
+    public void orderPublished(Long orderId, int attempt, long confirmNanos) {
+        if (isSampled(orderId)) {
+            audit.info("event=order.published orderId={} attempt={} confirmUs={}",
+                    orderId, attempt, TimeUnit.NANOSECONDS.toMicros(confirmNanos));
+        }
+    }
+
+    public boolean isSampled(Long orderId) {
+        if (!enabled || sampleRate <= 0 || !audit.isInfoEnabled()) {
+            return false;
+        }
+        return sampleRate >= 1 || orderId == null || sample(orderId) < sampleRate;
+    }
+
+    /**
+     * Valor em [0, 1) derivado do orderId (finalizador do MurmurHash3).
+     */
+    static double sample(long orderId) {
+        long h = orderId;
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        h ^= h >>> 33;
+        return (h >>> 11) * 0x1.0p-53;
+    }
+}
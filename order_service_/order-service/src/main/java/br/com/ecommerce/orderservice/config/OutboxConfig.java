@@ -0,0 +1,65 @@
+package br.com.ecommerce.orderservice.config;
+
+import br.com.ecommerce.orderservice.outbox.OutboxJournal;
+import br.com.ecommerce.orderservice.persistence.DurableOrderRepository;
+import br.com.ecommerce.orderservice.repository.OrderRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Configuração do outbox transacional.
+ *
+ * Com orders.outbox.enabled=true, o OrderService grava o pedido no journal
+ * local e a publicação no RabbitMQ fica a cargo do OutboxRelay, fora do
+ * caminho crítico do POST /orders.
+ *
+ * Na abertura do journal, o gerador de IDs do repositório ativo passa do
+ * maior ID gravado nele: sem persistência o gerador recomeça em 1, e novos
+ * pedidos reutilizariam IDs que o relay ainda vai publicar (e que o
+ * consumer descartaria como duplicados).
+ *
+ * Com orders.persistence.enabled=true, os pedidos do journal que não
+ * chegaram ao repositório durável (crash entre as duas gravações) também
+ * são reaplicados a ele.
+ */
+@Configuration
+@ConditionalOnProperty(name = "orders.outbox.enabled", havingValue = "true")
+public class OutboxConfig {
+
+    private static final Logger logger = LoggerFactory.getLogger(OutboxConfig.class);
+
+    @Bean(destroyMethod = "close")
+    public OutboxJournal outboxJournal(
+            @Value("${orders.outbox.dir:./data/outbox}") String directory,
+            @Value("${orders.outbox.fsync:true}") boolean fsync,
+            @Value("${orders.outbox.compact-threshold-bytes:67108864}") long compactThresholdBytes,
+            OrderRepository repository)
+            throws IOException {
+        OutboxJournal journal = new OutboxJournal(Path.of(directory), fsync, compactThresholdBytes);
+
+        boolean durable = repository instanceof DurableOrderRepository;
+        AtomicLong maxId = new AtomicLong();
+        LongAdder restored = new LongAdder();
+        journal.forEachRecord(order -> {
+            maxId.accumulateAndGet(order.getId(), Math::max);
+            if (durable && repository.findById(order.getId()).isEmpty()) {
+                repository.restore(order);
+                restored.increment();
+            }
+        });
+        repository.reserveIdsThrough(maxId.get());
+        if (restored.sum() > 0) {
+            logger.warn("[OUTBOX] {} pedidos do journal reaplicados ao repositório", restored.sum());
+        }
+        return journal;
+    }
+}
@@ -0,0 +1,41 @@
+package br.com.ecommerce.orderservice.config;
+
+import br.com.ecommerce.orderservice.persistence.DurableOrderRepository;
+import br.com.ecommerce.orderservice.repository.OrderRepository;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+
+import java.io.IOException;
+import java.nio.file.Path;
+
+/**
+ * Configuração da persistência dos pedidos.
+ *
+ * Com orders.persistence.enabled=true, a engine escolhida em
+ * orders.repository.engine é envolvida pelo DurableOrderRepository, que
+ * passa a ser o OrderRepository injetado no restante da aplicação.
+ */
+@Configuration
+@ConditionalOnProperty(name = "orders.persistence.enabled", havingValue = "true")
+public class PersistenceConfig {
+
+    @Bean(destroyMethod = "close")
+    @Primary
+    public DurableOrderRepository durableOrderRepository(
+            @Qualifier("orderRepositoryEngine") OrderRepository engine,
+            @Value("${orders.persistence.dir:./data/persistence}") String directory,
+            @Value("${orders.persistence.fsync:true}") boolean fsync,
+            @Value("${orders.persistence.sync:true}") boolean sync,
+            @Value("${orders.persistence.queue-capacity:65536}") int queueCapacity,
+            @Value("${orders.persistence.max-batch:1024}") int maxBatch,
+            @Value("${orders.persistence.snapshot-interval-ms:60000}") long snapshotIntervalMs,
+            @Value("${orders.persistence.snapshot-min-writes:10000}") long snapshotMinWrites)
+            throws IOException {
+        return DurableOrderRepository.open(engine, Path.of(directory), fsync, sync,
+                queueCapacity, maxBatch, snapshotIntervalMs, snapshotMinWrites);
+    }
+}
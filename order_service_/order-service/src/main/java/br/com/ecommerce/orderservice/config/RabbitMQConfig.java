@@ -1,16 +1,32 @@
 package br.com.ecommerce.orderservice.config;
 
+import br.com.ecommerce.orderservice.event.OrderEventBinaryConverter;
+import br.com.ecommerce.orderservice.producer.OrderShardRouter;
+import br.com.ecommerce.orderservice.producer.RoutingKeyBatchingStrategy;
 import org.springframework.amqp.core.Binding;
 import org.springframework.amqp.core.BindingBuilder;
+import org.springframework.amqp.core.Declarable;
+import org.springframework.amqp.core.Declarables;
 import org.springframework.amqp.core.DirectExchange;
 import org.springframework.amqp.core.Queue;
 import org.springframework.amqp.rabbit.connection.ConnectionFactory;
+import org.springframework.amqp.rabbit.core.BatchingRabbitTemplate;
 import org.springframework.amqp.rabbit.core.RabbitTemplate;
 import org.springframework.amqp.support.converter.Jackson2JsonMessageConverter;
 import org.springframework.amqp.support.converter.MessageConverter;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadPoolExecutor;
 
 /**
  * Configuração do RabbitMQ para o Order Service.
@@ -19,7 +35,11 @@ import org.springframework.context.annotation.Configuration;
  * - Exchange do tipo Direct: roteia mensagens baseado na routing key exata
  * - Fila para receber as mensagens de pedidos criados
  * - Binding: liga a fila à exchange usando a routing key
- * - MessageConverter: converte objetos Java para JSON automaticamente
+ * - MessageConverter: converte os eventos para JSON ou para o formato binário compacto
+ * - Publisher confirms e returns: o broker confirma cada mensagem publicada
+ * - Executor de publicação: envia os eventos fora da thread HTTP
+ * - BatchingRabbitTemplate (opcional): agrupa vários eventos em uma única mensagem AMQP
+ * - Filas shardeadas (opcional): uma fila por shard, roteada pelo hash do cliente
  */
 @Configuration
 public class RabbitMQConfig {
@@ -34,6 +54,9 @@ public class RabbitMQConfig {
     @Value("${rabbitmq.routing.key}")
     private String routingKey;
 
+    @Value("${rabbitmq.serialization.format:json}")
+    private String serializationFormat;
+
     /**
      * Cria a Exchange do tipo Direct.
      * Exchange Direct: roteia mensagens para filas onde a routing key
@@ -67,23 +90,151 @@ public class RabbitMQConfig {
     }
 
     /**
-     * Configura o conversor de mensagens para JSON.
-     * Isso permite enviar objetos Java que serão automaticamente
-     * serializados para JSON antes de enviar ao RabbitMQ.
+     * Roteador de shards usado pelo producer.
+     *
+     * Com rabbitmq.sharding.enabled=true, os eventos são distribuídos entre
+     * rabbitmq.sharding.shards filas pelo hash de rabbitmq.sharding.key
+     * (customerName preserva a ordem dos eventos de cada cliente). A quantidade
+     * de shards deve ser a mesma no notification-service.
+     */
+    @Bean
+    public OrderShardRouter orderShardRouter(
+            @Value("${rabbitmq.sharding.enabled:false}") boolean shardingEnabled,
+            @Value("${rabbitmq.sharding.shards:8}") int shards,
+            @Value("${rabbitmq.sharding.key:customerName}") String shardKey) {
+        if (!shardingEnabled) {
+            return OrderShardRouter.unsharded(routingKey);
+        }
+        return new OrderShardRouter(routingKey, shards, shardKey);
+    }
+
+    /**
+     * Cria as filas dos shards e os bindings com as routing keys de cada shard.
+     * A fila original continua declarada e ligada: recebe os eventos publicados
+     * antes do sharding (o retry do notification-service devolve as mensagens
+     * de shard à fila do próprio shard).
      */
     @Bean
-    public MessageConverter jsonMessageConverter() {
+    @ConditionalOnProperty(name = "rabbitmq.sharding.enabled", havingValue = "true")
+    public Declarables shardDeclarables(DirectExchange ordersExchange,
+                                        @Value("${rabbitmq.sharding.shards:8}") int shards) {
+        List<Declarable> declarables = new ArrayList<>();
+        for (int shard = 0; shard < shards; shard++) {
+            Queue shardQueue = new Queue(OrderShardRouter.shardQueue(queueName, shard), true);
+            declarables.add(shardQueue);
+            declarables.add(BindingBuilder.bind(shardQueue).to(ordersExchange)
+                    .with(OrderShardRouter.shardRoutingKey(routingKey, shard)));
+        }
+        return new Declarables(declarables);
+    }
+
+    /**
+     * Configura o conversor de mensagens dos eventos.
+     *
+     * json (padrão): objetos Java serializados para JSON automaticamente.
+     * binary: OrderEventBinaryConverter, formato compacto com versão de schema,
+     * publicado com content-type application/x-order-event. O notification-service
+     * escolhe o conversor pelo content-type, então ele deve ser atualizado antes
+     * de o producer passar a publicar em binário.
+     */
+    @Bean
+    public MessageConverter eventMessageConverter() {
+        if ("binary".equalsIgnoreCase(serializationFormat)) {
+            return new OrderEventBinaryConverter();
+        }
         return new Jackson2JsonMessageConverter();
     }
 
     /**
-     * Configura o RabbitTemplate com o conversor JSON.
+     * Configura o RabbitTemplate com o conversor de eventos.
      * RabbitTemplate é o componente usado para enviar mensagens.
+     *
+     * Mandatory = true: mensagens sem fila de destino são devolvidas ao
+     * producer (return) em vez de descartadas silenciosamente pelo broker.
+     * Os confirms são habilitados em spring.rabbitmq.publisher-confirm-type.
      */
     @Bean
+    @Primary
     public RabbitTemplate rabbitTemplate(ConnectionFactory connectionFactory) {
         RabbitTemplate rabbitTemplate = new RabbitTemplate(connectionFactory);
-        rabbitTemplate.setMessageConverter(jsonMessageConverter());
+        rabbitTemplate.setMessageConverter(eventMessageConverter());
+        rabbitTemplate.setMandatory(true);
         return rabbitTemplate;
     }
+
+    /**
+     * Executor que publica os eventos fora da thread da requisição HTTP.
+     *
+     * Threads de plataforma (padrão): pool fixo com fila limitada; se a fila
+     * encher, a própria thread chamadora publica, aplicando backpressure em
+     * vez de acumular eventos na memória.
+     *
+     * Threads virtuais (spring.threads.virtual.enabled=true): uma thread
+     * virtual por publicação, com o mesmo limite de tarefas simultâneas.
+     * A espera pela janela de confirms (Semaphore) não prende a thread
+     * carregadora, pois o caminho de publicação não usa synchronized.
+     */
+    @Bean
+    public AsyncTaskExecutor orderPublishExecutor(
+            @Value("${spring.threads.virtual.enabled:false}") boolean virtualThreads,
+            @Value("${rabbitmq.producer.executor.threads:4}") int threads,
+            @Value("${rabbitmq.producer.executor.queue-capacity:10000}") int queueCapacity) {
+        if (virtualThreads) {
+            SimpleAsyncTaskExecutor executor = new SimpleAsyncTaskExecutor("order-publish-");
+            executor.setVirtualThreads(true);
+            executor.setConcurrencyLimit(queueCapacity);
+            executor.setTaskTerminationTimeout(10_000);
+            return executor;
+        }
+
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(threads);
+        executor.setMaxPoolSize(threads);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix("order-publish-");
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.CallerRunsPolicy());
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        return executor;
+    }
+
+    /**
+     * Scheduler usado pelo BatchingRabbitTemplate para liberar lotes incompletos
+     * quando o tempo de espera (linger) expira.
+     */
+    @Bean
+    @ConditionalOnProperty(name = "rabbitmq.producer.batch.enabled", havingValue = "true")
+    public ThreadPoolTaskScheduler batchPublishScheduler() {
+        ThreadPoolTaskScheduler scheduler = new ThreadPoolTaskScheduler();
+        scheduler.setPoolSize(1);
+        scheduler.setThreadNamePrefix("order-batch-");
+        return scheduler;
+    }
+
+    /**
+     * Configura o RabbitTemplate em modo lote (opt-in).
+     *
+     * Os eventos publicados na mesma exchange/routing key são acumulados e
+     * enviados como uma única mensagem AMQP quando o lote atinge o tamanho
+     * máximo, o limite de bytes ou o tempo de espera configurado.
+     * O consumer desempacota o lote de forma transparente (de-batching).
+     *
+     * Cada routing key tem o seu lote (RoutingKeyBatchingStrategy): com
+     * sharding, o SimpleBatchingStrategy liberaria o lote a cada troca de
+     * shard, ou seja, praticamente a cada evento.
+     */
+    @Bean
+    @ConditionalOnProperty(name = "rabbitmq.producer.batch.enabled", havingValue = "true")
+    public BatchingRabbitTemplate batchingRabbitTemplate(
+            ConnectionFactory connectionFactory,
+            ThreadPoolTaskScheduler batchPublishScheduler,
+            @Value("${rabbitmq.producer.batch.size:100}") int batchSize,
+            @Value("${rabbitmq.producer.batch.buffer-limit:65536}") int bufferLimit,
+            @Value("${rabbitmq.producer.batch.linger-ms:10}") long lingerMs) {
+
+        RoutingKeyBatchingStrategy strategy = new RoutingKeyBatchingStrategy(batchSize, bufferLimit, lingerMs);
+        BatchingRabbitTemplate template =
+                new BatchingRabbitTemplate(connectionFactory, strategy, batchPublishScheduler);
+        template.setMessageConverter(eventMessageConverter());
+        return template;
+    }
 }
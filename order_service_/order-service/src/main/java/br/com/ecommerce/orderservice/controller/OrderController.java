@@ -1,28 +1,60 @@
 package br.com.ecommerce.orderservice.controller;
 
+import br.com.ecommerce.orderservice.analytics.OrderAnalytics;
 import br.com.ecommerce.orderservice.dto.OrderRequest;
+import br.com.ecommerce.orderservice.dto.OrderPageResponse;
 import br.com.ecommerce.orderservice.dto.OrderResponse;
+import br.com.ecommerce.orderservice.idempotency.IdempotencyCache;
+import br.com.ecommerce.orderservice.producer.OrderMessageProducer;
+import br.com.ecommerce.orderservice.producer.PublisherMetrics;
+import br.com.ecommerce.orderservice.service.OrderBatchIngestionService;
+import br.com.ecommerce.orderservice.service.OrderResponseCache;
 import br.com.ecommerce.orderservice.service.OrderService;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
 import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.stream.Stream;
 
 /**
  * Controller REST para gerenciamento de pedidos.
  * 
  * Endpoints disponíveis:
- * - POST /orders: Cria um novo pedido
+ * - POST /orders: Cria um novo pedido (idempotente com o cabeçalho Idempotency-Key)
+ * - POST /orders/batch: Cria pedidos em massa (NDJSON ou array JSON via stream)
  * - GET /orders: Lista todos os pedidos
- * - GET /orders/{id}: Busca pedido por ID
+ * - GET /orders?limit=&cursor=: Lista pedidos paginados por cursor
+ * - GET /orders/stream: Lista todos os pedidos em stream (NDJSON)
+ * - GET /orders/by-customer/{customerName}: Lista pedidos de um cliente
+ * - GET /orders/by-product/{product}: Lista pedidos de um produto
+ * - GET /orders/{id}: Busca pedido por ID (ETag/If-None-Match, JSON em cache)
+ * - GET /orders/publisher/metrics: Métricas de publicação no RabbitMQ
+ * - POST /orders/publisher/failed-events/replay: Republica os eventos que falharam de vez
+ * - GET /orders/analytics: Totais, receita por produto e janelas por minuto
+ * - GET /orders/analytics/customers/{customerName}: Totais de um cliente
  */
 @RestController
 @RequestMapping("/orders")
@@ -32,9 +64,36 @@ public class OrderController {
     private static final Logger logger = LoggerFactory.getLogger(OrderController.class);
 
     private final OrderService orderService;
+    private final OrderResponseCache orderResponseCache;
+    private final OrderBatchIngestionService batchIngestionService;
+    private final PublisherMetrics publisherMetrics;
+    private final OrderMessageProducer messageProducer;
+    private final OrderAnalytics analytics;
+    private final IdempotencyCache idempotencyCache;
+    private final ObjectMapper objectMapper;
+    private final ObjectWriter orderWriter;
 
-    public OrderController(OrderService orderService) {
+    @Value("${orders.page.max-limit:1000}")
+    private int maxPageLimit;
+
+    public OrderController(OrderService orderService,
+                           OrderResponseCache orderResponseCache,
+                           OrderBatchIngestionService batchIngestionService,
+                           PublisherMetrics publisherMetrics,
+                           OrderMessageProducer messageProducer,
+                           OrderAnalytics analytics,
+                           IdempotencyCache idempotencyCache,
+                           ObjectMapper objectMapper) {
         this.orderService = orderService;
+        this.orderResponseCache = orderResponseCache;
+        this.batchIngestionService = batchIngestionService;
+        this.publisherMetrics = publisherMetrics;
+        this.messageProducer = messageProducer;
+        this.analytics = analytics;
+        this.idempotencyCache = idempotencyCache;
+        this.objectMapper = objectMapper;
+        this.orderWriter = objectMapper.writerFor(OrderResponse.class)
+                .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
     }
 
     /**
@@ -46,26 +105,85 @@ public class OrderController {
      * 3. Publica mensagem no RabbitMQ
      * 4. Retorna o pedido criado com status 201
      * 
+     * Com o cabeçalho Idempotency-Key, retentativas com a mesma chave recebem
+     * a resposta da primeira requisição (com Idempotency-Replayed: true), sem
+     * criar nem publicar outro pedido. Requisições simultâneas com a mesma
+     * chave são executadas uma única vez.
+     * 
      * @param request Dados do pedido (customerName, product, amount)
+     * @param idempotencyKey Chave de idempotência opcional gerada pelo cliente
      * @return Pedido criado com ID gerado
      */
     @Operation(summary = "Criar pedido", description = "Cria um novo pedido e publica mensagem no RabbitMQ")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "201", description = "Pedido criado com sucesso"),
-            @ApiResponse(responseCode = "400", description = "Dados inválidos")
+            @ApiResponse(responseCode = "400", description = "Dados inválidos ou Idempotency-Key inválida"),
+            @ApiResponse(responseCode = "409", description = "Requisição com a mesma Idempotency-Key ainda em andamento"),
+            @ApiResponse(responseCode = "422", description = "Idempotency-Key já usada com outros dados")
     })
     @PostMapping
-    public ResponseEntity<OrderResponse> createOrder(@Valid @RequestBody OrderRequest request) {
-        logger.info("=================================================");
-        logger.info("[CONTROLLER] Recebida requisição POST /orders");
-        logger.info("[CONTROLLER] Request: {}", request);
-        
-        OrderResponse response = orderService.createOrder(request);
-        
-        logger.info("[CONTROLLER] Pedido criado com sucesso: {}", response);
-        logger.info("=================================================");
-        
-        return ResponseEntity.status(HttpStatus.CREATED).body(response);
+    public ResponseEntity<OrderResponse> createOrder(
+            @Valid @RequestBody OrderRequest request,
+            @RequestHeader(value = IdempotencyCache.HEADER, required = false) String idempotencyKey) {
+        // Caminho crítico: o registro por pedido fica no AuditLog (event=order.created)
+        logger.debug("[CONTROLLER] Recebida requisição POST /orders: {}", request);
+
+        if (idempotencyKey == null) {
+            OrderResponse response = orderService.createOrder(request);
+            logger.debug("[CONTROLLER] Pedido criado com sucesso: {}", response);
+            return ResponseEntity.status(HttpStatus.CREATED).body(response);
+        }
+        if (idempotencyKey.isBlank() || idempotencyKey.length() > IdempotencyCache.MAX_KEY_LENGTH) {
+            return ResponseEntity.badRequest().build();
+        }
+
+        IdempotencyCache.Result result = idempotencyCache.execute(idempotencyKey, request,
+                () -> orderService.createOrder(request));
+        return switch (result.outcome()) {
+            case EXECUTED -> {
+                logger.debug("[CONTROLLER] Pedido criado com sucesso: {}", result.response());
+                yield ResponseEntity.status(HttpStatus.CREATED).body(result.response());
+            }
+            case REPLAYED, COLLAPSED -> {
+                logger.debug("[CONTROLLER] Idempotency-Key {} repetida, pedido {} reaproveitado",
+                        idempotencyKey, result.response().getOrderId());
+                yield ResponseEntity.status(HttpStatus.CREATED)
+                        .header("Idempotency-Replayed", "true")
+                        .body(result.response());
+            }
+            case CONFLICT -> {
+                logger.warn("[CONTROLLER] Idempotency-Key {} reutilizada com dados diferentes", idempotencyKey);
+                yield ResponseEntity.unprocessableEntity().build();
+            }
+            case IN_PROGRESS -> ResponseEntity.status(HttpStatus.CONFLICT).build();
+        };
+    }
+
+    /**
+     * Endpoint para criar pedidos em massa.
+     *
+     * O corpo (NDJSON ou array JSON de pedidos) é lido como stream, sem
+     * carregar o payload inteiro em memória. Os pedidos são validados um a
+     * um, salvos e publicados em blocos, e a resposta traz uma linha NDJSON
+     * por item com o ID gerado ou os erros de validação.
+     *
+     * @param request Requisição HTTP com o corpo em stream
+     * @param response Resposta HTTP escrita em stream
+     */
+    @Operation(summary = "Criar pedidos em massa",
+            description = "Recebe NDJSON ou array JSON de pedidos e retorna um resultado NDJSON por item")
+    @PostMapping(value = "/batch",
+            consumes = {MediaType.APPLICATION_NDJSON_VALUE, MediaType.APPLICATION_JSON_VALUE},
+            produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public void createOrdersBatch(HttpServletRequest request, HttpServletResponse response) throws IOException {
+        logger.info("[CONTROLLER] Recebida requisição POST /orders/batch");
+
+        response.setStatus(HttpStatus.OK.value());
+        response.setContentType(MediaType.APPLICATION_NDJSON_VALUE);
+        response.setCharacterEncoding("UTF-8");
+
+        long items = batchIngestionService.ingest(request.getInputStream(), response.getOutputStream());
+        logger.info("[CONTROLLER] POST /orders/batch processou {} itens", items);
     }
 
     /**
@@ -82,30 +200,155 @@ public class OrderController {
         return ResponseEntity.ok(orders);
     }
 
+    /**
+     * Endpoint para listar pedidos paginados por cursor (keyset).
+     *
+     * Os pedidos são retornados em ordem crescente de ID. Para a próxima
+     * página, envie o nextCursor recebido no parâmetro cursor.
+     *
+     * @param limit Quantidade máxima de pedidos na página
+     * @param cursor Cursor da página anterior (opcional)
+     * @return Página de pedidos com o cursor da próxima página
+     */
+    @Operation(summary = "Listar pedidos paginados", description = "Retorna uma página de pedidos usando paginação por cursor")
+    @GetMapping(params = "limit")
+    public ResponseEntity<OrderPageResponse> getOrdersPage(@RequestParam int limit,
+                                                           @RequestParam(required = false) Long cursor) {
+        if (limit <= 0 || limit > maxPageLimit) {
+            return ResponseEntity.badRequest().build();
+        }
+        OrderPageResponse page = orderService.findPage(cursor, limit);
+        logger.info("[CONTROLLER] GET /orders?limit={}&cursor={} retornou {} pedidos",
+                limit, cursor, page.getItems().size());
+        return ResponseEntity.ok(page);
+    }
+
+    /**
+     * Endpoint para listar os pedidos de um cliente, paginados por cursor.
+     *
+     * @param customerName Nome do cliente
+     * @param limit Quantidade máxima de pedidos na página
+     * @param cursor Cursor da página anterior (opcional)
+     * @return Página de pedidos do cliente
+     */
+    @Operation(summary = "Listar pedidos por cliente", description = "Retorna os pedidos de um cliente usando o índice secundário")
+    @GetMapping("/by-customer/{customerName}")
+    public ResponseEntity<OrderPageResponse> getOrdersByCustomer(@PathVariable String customerName,
+                                                                 @RequestParam(defaultValue = "100") int limit,
+                                                                 @RequestParam(required = false) Long cursor) {
+        if (limit <= 0 || limit > maxPageLimit) {
+            return ResponseEntity.badRequest().build();
+        }
+        logger.info("[CONTROLLER] Recebida requisição GET /orders/by-customer/{}", customerName);
+        return ResponseEntity.ok(orderService.findByCustomerName(customerName, cursor, limit));
+    }
+
+    /**
+     * Endpoint para listar os pedidos de um produto, paginados por cursor.
+     *
+     * @param product Nome do produto
+     * @param limit Quantidade máxima de pedidos na página
+     * @param cursor Cursor da página anterior (opcional)
+     * @return Página de pedidos do produto
+     */
+    @Operation(summary = "Listar pedidos por produto", description = "Retorna os pedidos de um produto usando o índice secundário")
+    @GetMapping("/by-product/{product}")
+    public ResponseEntity<OrderPageResponse> getOrdersByProduct(@PathVariable String product,
+                                                                @RequestParam(defaultValue = "100") int limit,
+                                                                @RequestParam(required = false) Long cursor) {
+        if (limit <= 0 || limit > maxPageLimit) {
+            return ResponseEntity.badRequest().build();
+        }
+        logger.info("[CONTROLLER] Recebida requisição GET /orders/by-product/{}", product);
+        return ResponseEntity.ok(orderService.findByProduct(product, cursor, limit));
+    }
+
+    /**
+     * Endpoint para listar todos os pedidos em stream (NDJSON).
+     *
+     * Cada pedido é escrito diretamente na resposta conforme o repositório
+     * é percorrido, sem montar listas intermediárias em memória.
+     *
+     * @param response Resposta HTTP escrita em stream
+     */
+    @Operation(summary = "Listar pedidos em stream", description = "Retorna todos os pedidos em NDJSON, um por linha")
+    @GetMapping(value = "/stream", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public void streamOrders(HttpServletResponse response) throws IOException {
+        logger.info("[CONTROLLER] Recebida requisição GET /orders/stream");
+
+        response.setStatus(HttpStatus.OK.value());
+        response.setContentType(MediaType.APPLICATION_NDJSON_VALUE);
+        response.setCharacterEncoding("UTF-8");
+
+        try (JsonGenerator generator = objectMapper.getFactory().createGenerator(response.getOutputStream());
+             Stream<OrderResponse> orders = orderService.streamAll()) {
+            generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            orders.forEach(order -> {
+                try {
+                    orderWriter.writeValue(generator, order);
+                    generator.writeRaw('\n');
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+            generator.flush();
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
     /**
      * Endpoint para buscar um pedido por ID.
      * 
+     * O corpo vem do OrderResponseCache (JSON serializado uma vez por pedido)
+     * com ETag; se o If-None-Match já contém o ETag, responde 304 sem corpo.
+     * 
      * @param id ID do pedido
-     * @return Pedido encontrado ou 404 se não existir
+     * @param ifNoneMatch ETags que o cliente já possui
+     * @return Pedido encontrado, 304 se não mudou ou 404 se não existir
      */
     @Operation(summary = "Buscar pedido por ID", description = "Retorna um pedido específico pelo ID")
     @ApiResponses(value = {
-            @ApiResponse(responseCode = "200", description = "Pedido encontrado"),
+            @ApiResponse(responseCode = "200", description = "Pedido encontrado",
+                    content = @Content(mediaType = MediaType.APPLICATION_JSON_VALUE,
+                            schema = @Schema(implementation = OrderResponse.class))),
+            @ApiResponse(responseCode = "304", description = "Pedido igual ao ETag informado em If-None-Match"),
             @ApiResponse(responseCode = "404", description = "Pedido não encontrado")
     })
     @GetMapping("/{id}")
-    public ResponseEntity<OrderResponse> getOrderById(@PathVariable Long id) {
-        logger.info("[CONTROLLER] Recebida requisição GET /orders/{}", id);
-        
-        return orderService.findById(id)
-                .map(order -> {
-                    logger.info("[CONTROLLER] Pedido encontrado: {}", order);
-                    return ResponseEntity.ok(order);
-                })
-                .orElseGet(() -> {
-                    logger.warn("[CONTROLLER] Pedido não encontrado com ID: {}", id);
-                    return ResponseEntity.notFound().build();
-                });
+    public ResponseEntity<byte[]> getOrderById(
+            @PathVariable Long id,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        // Caminho crítico para clientes que consultam o mesmo pedido repetidamente
+        logger.debug("[CONTROLLER] Recebida requisição GET /orders/{}", id);
+
+        Optional<OrderResponseCache.CachedOrder> cached = orderResponseCache.findById(id);
+        if (cached.isEmpty()) {
+            logger.debug("[CONTROLLER] Pedido não encontrado com ID: {}", id);
+            return ResponseEntity.notFound().build();
+        }
+        OrderResponseCache.CachedOrder order = cached.get();
+        if (ifNoneMatch != null && etagMatches(ifNoneMatch, order.etag())) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(order.etag()).build();
+        }
+        return ResponseEntity.ok()
+                .eTag(order.etag())
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(order.json());
+    }
+
+    // If-None-Match: "*" ou lista de ETags; a comparação é fraca (W/ é ignorado)
+    private static boolean etagMatches(String ifNoneMatch, String etag) {
+        for (String candidate : ifNoneMatch.split(",")) {
+            String value = candidate.trim();
+            if (value.startsWith("W/")) {
+                value = value.substring(2);
+            }
+            if (value.equals("*") || value.equals(etag)) {
+                return true;
+            }
+        }
+        return false;
     }
 
     /**
@@ -121,4 +364,57 @@ public class OrderController {
         logger.info("[CONTROLLER] Total de pedidos: {}", count);
         return ResponseEntity.ok(count);
     }
+
+    /**
+     * Endpoint com as métricas do pipeline de publicação.
+     *
+     * @return Contadores de ack/nack, retentativas, mensagens em voo e latência de confirmação
+     */
+    @Operation(summary = "Métricas de publicação", description = "Retorna métricas de publisher confirms do RabbitMQ")
+    @GetMapping("/publisher/metrics")
+    public ResponseEntity<Map<String, Object>> getPublisherMetrics() {
+        return ResponseEntity.ok(publisherMetrics.snapshot());
+    }
+
+    /**
+     * Republica os eventos que o producer desistiu de publicar (FailedEventLog).
+     *
+     * @return Quantidade de eventos reenviados
+     */
+    @Operation(summary = "Replay dos eventos não publicados",
+            description = "Republica os eventos gravados após esgotar as tentativas de publicação")
+    @PostMapping("/publisher/failed-events/replay")
+    public ResponseEntity<Map<String, Object>> replayFailedEvents() throws IOException {
+        try {
+            return ResponseEntity.ok(Map.of("replayed", messageProducer.replayFailedEvents()));
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(Map.of("error", e.getMessage()));
+        }
+    }
+
+    /**
+     * Agregados dos pedidos mantidos a cada pedido criado (sem percorrer o repositório).
+     *
+     * @return Quantidade e receita totais, por produto e por janela de um minuto
+     */
+    @Operation(summary = "Analytics dos pedidos",
+            description = "Totais, receita por produto e janelas de um minuto, atualizados a cada pedido criado")
+    @GetMapping("/analytics")
+    public ResponseEntity<Map<String, Object>> getAnalytics() {
+        return ResponseEntity.ok(analytics.snapshot());
+    }
+
+    /**
+     * Quantidade e receita dos pedidos de um cliente.
+     *
+     * @param customerName Nome do cliente
+     * @return Totais do cliente ou 404 se ele não tiver pedidos
+     */
+    @Operation(summary = "Analytics de um cliente", description = "Quantidade e receita dos pedidos de um cliente")
+    @GetMapping("/analytics/customers/{customerName}")
+    public ResponseEntity<Map<String, Object>> getCustomerAnalytics(@PathVariable String customerName) {
+        return analytics.customer(customerName)
+                .map(ResponseEntity::ok)
+                .orElseGet(() -> ResponseEntity.notFound().build());
+    }
 }
@@ -0,0 +1,90 @@
+package br.com.ecommerce.orderservice.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import java.util.List;
+
+/**
+ * DTO com o resultado de um item do POST /orders/batch.
+ * Cada item processado gera uma linha NDJSON na resposta.
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class BatchItemResult {
+
+    public enum Status {
+        CREATED,
+        INVALID,
+        ERROR
+    }
+
+    private long index;
+    private Status status;
+    private Long orderId;
+    private List<String> errors;
+
+    // Construtor padrão
+    public BatchItemResult() {
+    }
+
+    public BatchItemResult(long index, Status status, Long orderId, List<String> errors) {
+        this.index = index;
+        this.status = status;
+        this.orderId = orderId;
+        this.errors = errors;
+    }
+
+    public static BatchItemResult created(long index, Long orderId) {
+        return new BatchItemResult(index, Status.CREATED, orderId, null);
+    }
+
+    public static BatchItemResult invalid(long index, List<String> errors) {
+        return new BatchItemResult(index, Status.INVALID, null, errors);
+    }
+
+    public static BatchItemResult error(long index, String message) {
+        return new BatchItemResult(index, Status.ERROR, null, List.of(message));
+    }
+
+    // Getters e Setters
+    public long getIndex() {
+        return index;
+    }
+
+    public void setIndex(long index) {
+        this.index = index;
+    }
+
+    public Status getStatus() {
+        return status;
+    }
+
+    public void setStatus(Status status) {
+        this.status = status;
+    }
+
+    public Long getOrderId() {
+        return orderId;
+    }
+
+    public void setOrderId(Long orderId) {
+        this.orderId = orderId;
+    }
+
+    public List<String> getErrors() {
+        return errors;
+    }
+
+    public void setErrors(List<String> errors) {
+        this.errors = errors;
+    }
+
+    @Override
+    public String toString() {
+        return "BatchItemResult{" +
+                "index=" + index +
+                ", status=" + status +
+                ", orderId=" + orderId +
+                ", errors=" + errors +
+                '}';
+    }
+}
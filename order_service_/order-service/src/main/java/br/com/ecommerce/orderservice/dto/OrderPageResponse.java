@@ -0,0 +1,48 @@
+package br.com.ecommerce.orderservice.dto;
+
+import java.util.List;
+
+/**
+ * DTO de uma página de pedidos na paginação por cursor.
+ * O nextCursor deve ser enviado no parâmetro cursor da próxima requisição;
+ * é nulo quando não há mais páginas.
+ */
+public class OrderPageResponse {
+
+    private List<OrderResponse> items;
+    private Long nextCursor;
+
+    // Construtor padrão
+    public OrderPageResponse() {
+    }
+
+    public OrderPageResponse(List<OrderResponse> items, Long nextCursor) {
+        this.items = items;
+        this.nextCursor = nextCursor;
+    }
+
+    // Getters e Setters
+    public List<OrderResponse> getItems() {
+        return items;
+    }
+
+    public void setItems(List<OrderResponse> items) {
+        this.items = items;
+    }
+
+    public Long getNextCursor() {
+        return nextCursor;
+    }
+
+    public void setNextCursor(Long nextCursor) {
+        this.nextCursor = nextCursor;
+    }
+
+    @Override
+    public String toString() {
+        return "OrderPageResponse{" +
+                "items=" + items.size() +
+                ", nextCursor=" + nextCursor +
+                '}';
+    }
+}
@@ -4,7 +4,7 @@ import java.io.Serializable;
 
 /**
  * Evento que representa um pedido criado.
- * Esta classe é serializada para JSON e enviada ao RabbitMQ.
+ * Esta classe é serializada (JSON ou binário, ver OrderEventBinaryConverter) e enviada ao RabbitMQ.
  * O notification-service irá consumir este evento.
  */
 public class OrderCreatedEvent implements Serializable {
@@ -0,0 +1,184 @@
+package br.com.ecommerce.orderservice.event;
+
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.core.MessageProperties;
+import org.springframework.amqp.support.converter.AbstractMessageConverter;
+import org.springframework.amqp.support.converter.MessageConversionException;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Formato binário compacto do OrderCreatedEvent (rabbitmq.serialization.format=binary).
+ *
+ * Em vez do JSON com cabeçalho __TypeId__, cada evento ocupa poucos bytes:
+ * [byte versão][byte campos presentes][long orderId][double amount]
+ * [varint tamanho][UTF-8 customerName][varint tamanho][UTF-8 product]
+ *
+ * Campos nulos são marcados no byte de presença e não ocupam espaço.
+ * A mensagem é publicada com content-type application/x-order-event, para
+ * que o consumer escolha o conversor pelo content-type e continue aceitando
+ * JSON durante a migração.
+ *
+ * Cópia do conversor do notification-service
+ * (notification-service/.../notificationservice/event/OrderEventBinaryConverter.java):
+ * os serviços não compartilham módulo, e o formato na rede precisa ser
+ * idêntico nos dois (constantes, ordem dos campos, varint e byte order).
+ * Qualquer mudança é feita nas duas cópias ao mesmo tempo, com uma nova
+ * versão de schema.
+ */
+public class OrderEventBinaryConverter extends AbstractMessageConverter {
+
+    public static final String CONTENT_TYPE = "application/x-order-event";
+    public static final String SCHEMA_VERSION_HEADER = "x-schema-version";
+    public static final byte SCHEMA_VERSION = 1;
+
+    private static final int HAS_ORDER_ID = 1;
+    private static final int HAS_AMOUNT = 1 << 1;
+    private static final int HAS_CUSTOMER_NAME = 1 << 2;
+    private static final int HAS_PRODUCT = 1 << 3;
+
+    private static final VarHandle LONG = MethodHandles.byteArrayViewVarHandle(long[].class, ByteOrder.BIG_ENDIAN);
+
+    @Override
+    protected Message createMessage(Object object, MessageProperties messageProperties) {
+        if (!(object instanceof OrderCreatedEvent event)) {
+            throw new MessageConversionException("Tipo não suportado pelo formato binário: "
+                    + (object == null ? "null" : object.getClass().getName()));
+        }
+        messageProperties.setContentType(CONTENT_TYPE);
+        messageProperties.setHeader(SCHEMA_VERSION_HEADER, SCHEMA_VERSION);
+        byte[] body = encode(event);
+        messageProperties.setContentLength(body.length);
+        return new Message(body, messageProperties);
+    }
+
+    @Override
+    public Object fromMessage(Message message) {
+        return decode(message.getBody());
+    }
+
+    /**
+     * Serializa o evento no formato binário.
+     */
+    public static byte[] encode(OrderCreatedEvent event) {
+        byte[] customer = event.getCustomerName() == null ? null
+                : event.getCustomerName().getBytes(StandardCharsets.UTF_8);
+        byte[] product = event.getProduct() == null ? null
+                : event.getProduct().getBytes(StandardCharsets.UTF_8);
+
+        int flags = 0;
+        int size = 2;
+        if (event.getOrderId() != null) {
+            flags |= HAS_ORDER_ID;
+            size += Long.BYTES;
+        }
+        if (event.getAmount() != null) {
+            flags |= HAS_AMOUNT;
+            size += Double.BYTES;
+        }
+        if (customer != null) {
+            flags |= HAS_CUSTOMER_NAME;
+            size += varIntSize(customer.length) + customer.length;
+        }
+        if (product != null) {
+            flags |= HAS_PRODUCT;
+            size += varIntSize(product.length) + product.length;
+        }
+
+        byte[] body = new byte[size];
+        body[0] = SCHEMA_VERSION;
+        body[1] = (byte) flags;
+        int position = 2;
+        if (event.getOrderId() != null) {
+            LONG.set(body, position, event.getOrderId().longValue());
+            position += Long.BYTES;
+        }
+        if (event.getAmount() != null) {
+            LONG.set(body, position, Double.doubleToRawLongBits(event.getAmount()));
+            position += Double.BYTES;
+        }
+        if (customer != null) {
+            position = writeBytes(body, position, customer);
+        }
+        if (product != null) {
+            writeBytes(body, position, product);
+        }
+        return body;
+    }
+
+    /**
+     * Lê o evento direto do corpo da mensagem, sem buffers intermediários:
+     * além do próprio evento, só são alocadas as duas strings.
+     */
+    public static OrderCreatedEvent decode(byte[] body) {
+        if (body.length < 2) {
+            throw new MessageConversionException("Mensagem binária truncada");
+        }
+        int version = body[0];
+        if (version != SCHEMA_VERSION) {
+            throw new MessageConversionException("Versão de schema não suportada: " + version);
+        }
+        int flags = body[1];
+        int position = 2;
+        try {
+            OrderCreatedEvent event = new OrderCreatedEvent();
+            if ((flags & HAS_ORDER_ID) != 0) {
+                event.setOrderId((long) LONG.get(body, position));
+                position += Long.BYTES;
+            }
+            if ((flags & HAS_AMOUNT) != 0) {
+                event.setAmount(Double.longBitsToDouble((long) LONG.get(body, position)));
+                position += Double.BYTES;
+            }
+            if ((flags & HAS_CUSTOMER_NAME) != 0) {
+                int length = readVarInt(body, position);
+                position += varIntSize(length);
+                event.setCustomerName(new String(body, position, length, StandardCharsets.UTF_8));
+                position += length;
+            }
+            if ((flags & HAS_PRODUCT) != 0) {
+                int length = readVarInt(body, position);
+                position += varIntSize(length);
+                event.setProduct(new String(body, position, length, StandardCharsets.UTF_8));
+            }
+            return event;
+        } catch (IndexOutOfBoundsException e) {
+            throw new MessageConversionException("Mensagem binária truncada", e);
+        }
+    }
+
+    private static int writeBytes(byte[] body, int position, byte[] value) {
+        int length = value.length;
+        while ((length & ~0x7F) != 0) {
+            body[position++] = (byte) ((length & 0x7F) | 0x80);
+            length >>>= 7;
+        }
+        body[position++] = (byte) length;
+        System.arraycopy(value, 0, body, position, value.length);
+        return position + value.length;
+    }
+
+    private static int readVarInt(byte[] body, int position) {
+        int value = 0;
+        for (int shift = 0; shift < 32; shift += 7) {
+            byte current = body[position++];
+            value |= (current & 0x7F) << shift;
+            if (current >= 0) {
+                return value;
+            }
+        }
+        throw new MessageConversionException("Varint inválido na mensagem binária");
+    }
+
+    private static int varIntSize(int value) {
+        int size = 1;
+        while ((value & ~0x7F) != 0) {
+            value >>>= 7;
+            size++;
+        }
+        return size;
+    }
+}
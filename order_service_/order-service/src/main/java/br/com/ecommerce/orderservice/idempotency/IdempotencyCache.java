@@ -0,0 +1,281 @@
+package br.com.ecommerce.orderservice.idempotency;
+
+import br.com.ecommerce.orderservice.dto.OrderRequest;
+import br.com.ecommerce.orderservice.dto.OrderResponse;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.LongSupplier;
+import java.util.function.Supplier;
+
+/**
+ * Cache de respostas do POST /orders por Idempotency-Key.
+ *
+ * A primeira requisição com uma chave registra a execução em andamento e
+ * cria o pedido; retentativas com a mesma chave recebem a mesma resposta,
+ * sem novo save nem nova publicação. Requisições simultâneas com a mesma
+ * chave esperam a execução em andamento em vez de criar outro pedido.
+ *
+ * - A chave fica associada aos dados do pedido: reutilizá-la com outro
+ *   conteúdo é rejeitado (CONFLICT)
+ * - Se a criação falhar, a chave é liberada e a retentativa executa de novo
+ * - Limitado por orders.idempotency.max-entries e expirado por TTL
+ * - Chaves em andamento nunca são removidas (nem por capacidade nem por TTL):
+ *   ficam fora do limite até a execução terminar, senão uma retentativa
+ *   simultânea criaria um segundo pedido
+ *
+ * Mesma estrutura do cache de deduplicação do notification-service: segmentos
+ * com lock próprio e LinkedHashMap em ordem de inserção; como o TTL é único,
+ * a expiração e a remoção por capacidade só olham o início de cada segmento
+ * (passando apenas pelas chaves em andamento).
+ *
+ * Métricas: orders.idempotency.requests (por outcome) e orders.idempotency.entries.
+ */
+@Component
+public class IdempotencyCache {
+
+    public static final String HEADER = "Idempotency-Key";
+    public static final int MAX_KEY_LENGTH = 255;
+
+    /**
+     * Resultado de uma requisição com Idempotency-Key.
+     */
+    public enum Outcome {
+        /** Pedido criado por esta requisição */
+        EXECUTED,
+        /** Resposta de uma execução já concluída com a mesma chave */
+        REPLAYED,
+        /** Esperou uma execução simultânea com a mesma chave */
+        COLLAPSED,
+        /** Chave já usada com outro conteúdo */
+        CONFLICT,
+        /** A execução com a mesma chave não terminou dentro do wait-timeout */
+        IN_PROGRESS
+    }
+
+    /**
+     * @param response Resposta do pedido; nula em CONFLICT e IN_PROGRESS
+     */
+    public record Result(OrderResponse response, Outcome outcome) {
+    }
+
+    private final boolean enabled;
+    private final Segment[] segments;
+    private final int segmentMask;
+    private final int segmentCapacity;
+    private final long ttlMillis;
+    private final long waitTimeoutMillis;
+    private final LongSupplier clock;
+    private final MeterRegistry registry;
+
+    private final LongAdder executed = new LongAdder();
+    private final LongAdder replayed = new LongAdder();
+    private final LongAdder collapsed = new LongAdder();
+    private final LongAdder conflicts = new LongAdder();
+    private final LongAdder inProgress = new LongAdder();
+
+    public IdempotencyCache(@Value("${orders.idempotency.enabled:true}") boolean enabled,
+                            @Value("${orders.idempotency.max-entries:100000}") int maxEntries,
+                            @Value("${orders.idempotency.ttl-ms:86400000}") long ttlMillis,
+                            @Value("${orders.idempotency.concurrency:64}") int concurrency,
+                            @Value("${orders.idempotency.wait-timeout-ms:10000}") long waitTimeoutMillis,
+                            MeterRegistry registry) {
+        this(enabled, maxEntries, ttlMillis, concurrency, waitTimeoutMillis, System::currentTimeMillis, registry);
+    }
+
+    IdempotencyCache(boolean enabled, int maxEntries, long ttlMillis, int concurrency, long waitTimeoutMillis,
+                     LongSupplier clock, MeterRegistry registry) {
+        int segmentCount = 1;
+        while (segmentCount < concurrency) {
+            segmentCount <<= 1;
+        }
+        this.enabled = enabled;
+        this.segments = new Segment[segmentCount];
+        for (int i = 0; i < segmentCount; i++) {
+            segments[i] = new Segment();
+        }
+        this.segmentMask = segmentCount - 1;
+        this.segmentCapacity = Math.max(1, maxEntries / segmentCount);
+        this.ttlMillis = ttlMillis;
+        this.waitTimeoutMillis = waitTimeoutMillis;
+        this.clock = clock;
+        this.registry = registry;
+    }
+
+    // Fora do construtor: o gauge guarda uma referência a this
+    @PostConstruct
+    public void registerMetrics() {
+        counter(registry, "executed", executed);
+        counter(registry, "replayed", replayed);
+        counter(registry, "collapsed", collapsed);
+        counter(registry, "conflict", conflicts);
+        counter(registry, "in_progress", inProgress);
+        Gauge.builder("orders.idempotency.entries", this, IdempotencyCache::size)
+                .description("Chaves de idempotência em cache")
+                .register(registry);
+    }
+
+    private static void counter(MeterRegistry registry, String outcome, LongAdder adder) {
+        FunctionCounter.builder("orders.idempotency.requests", adder, LongAdder::sum)
+                .description("Requisições com Idempotency-Key por resultado")
+                .tag("outcome", outcome)
+                .register(registry);
+    }
+
+    /**
+     * Executa a criação do pedido uma única vez por chave.
+     *
+     * @param key Valor do cabeçalho Idempotency-Key
+     * @param request Dados do pedido, comparados com os da primeira requisição
+     * @param action Criação do pedido (save + publicação)
+     * @return Resposta e como ela foi obtida
+     */
+    public Result execute(String key, OrderRequest request, Supplier<OrderResponse> action) {
+        if (!enabled) {
+            return new Result(action.get(), Outcome.EXECUTED);
+        }
+        Fingerprint fingerprint = Fingerprint.of(request);
+        Segment segment = segmentFor(key);
+        Entry entry;
+        boolean owner = false;
+        segment.lock.lock();
+        try {
+            long now = clock.getAsLong();
+            expire(segment, now);
+            entry = segment.entries.get(key);
+            if (entry == null) {
+                entry = new Entry(fingerprint, new CompletableFuture<>(), now);
+                segment.entries.put(key, entry);
+                owner = true;
+                if (segment.entries.size() > segmentCapacity) {
+                    evictEldestCompleted(segment);
+                }
+            }
+        } finally {
+            segment.lock.unlock();
+        }
+
+        if (owner) {
+            return executeAsOwner(segment, key, entry, action);
+        }
+        if (!entry.fingerprint().equals(fingerprint)) {
+            conflicts.increment();
+            return new Result(null, Outcome.CONFLICT);
+        }
+        return await(entry);
+    }
+
+    private Result executeAsOwner(Segment segment, String key, Entry entry, Supplier<OrderResponse> action) {
+        OrderResponse response;
+        try {
+            response = action.get();
+        } catch (RuntimeException | Error e) {
+            // Libera a chave para que a retentativa execute de novo
+            segment.lock.lock();
+            try {
+                segment.entries.remove(key, entry);
+            } finally {
+                segment.lock.unlock();
+            }
+            entry.result().completeExceptionally(e);
+            throw e;
+        }
+        entry.result().complete(response);
+        executed.increment();
+        return new Result(response, Outcome.EXECUTED);
+    }
+
+    private Result await(Entry entry) {
+        boolean completed = entry.result().isDone();
+        try {
+            OrderResponse response = entry.result().get(waitTimeoutMillis, TimeUnit.MILLISECONDS);
+            (completed ? replayed : collapsed).increment();
+            return new Result(response, completed ? Outcome.REPLAYED : Outcome.COLLAPSED);
+        } catch (TimeoutException e) {
+            inProgress.increment();
+            return new Result(null, Outcome.IN_PROGRESS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrompido aguardando a requisição com a mesma Idempotency-Key", e);
+        } catch (ExecutionException e) {
+            // A execução original falhou: a requisição que esperava recebe o mesmo erro
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw new IllegalStateException("Falha na requisição com a mesma Idempotency-Key", e.getCause());
+        }
+    }
+
+    private void expire(Segment segment, long now) {
+        Iterator<Entry> iterator = segment.entries.values().iterator();
+        while (iterator.hasNext()) {
+            Entry entry = iterator.next();
+            if (now - entry.createdAtMillis() < ttlMillis) {
+                break;
+            }
+            if (entry.result().isDone()) {
+                iterator.remove();
+            }
+        }
+    }
+
+    /**
+     * Remove a entrada concluída mais antiga; se todas estiverem em andamento,
+     * o segmento passa do limite até alguma terminar.
+     */
+    private static void evictEldestCompleted(Segment segment) {
+        Iterator<Entry> iterator = segment.entries.values().iterator();
+        while (iterator.hasNext()) {
+            if (iterator.next().result().isDone()) {
+                iterator.remove();
+                return;
+            }
+        }
+    }
+
+    public long size() {
+        long size = 0;
+        for (Segment segment : segments) {
+            segment.lock.lock();
+            try {
+                size += segment.entries.size();
+            } finally {
+                segment.lock.unlock();
+            }
+        }
+        return size;
+    }
+
+    private Segment segmentFor(String key) {
+        int hash = key.hashCode() * 0x9E3779B9;
+        return segments[(hash >>> 16) & segmentMask];
+    }
+
+    private record Fingerprint(String customerName, String product, Double amount) {
+
+        static Fingerprint of(OrderRequest request) {
+            return new Fingerprint(request.getCustomerName(), request.getProduct(), request.getAmount());
+        }
+    }
+
+    private record Entry(Fingerprint fingerprint, CompletableFuture<OrderResponse> result, long createdAtMillis) {
+    }
+
+    private static final class Segment {
+
+        private final ReentrantLock lock = new ReentrantLock();
+        private final LinkedHashMap<String, Entry> entries = new LinkedHashMap<>();
+    }
+}
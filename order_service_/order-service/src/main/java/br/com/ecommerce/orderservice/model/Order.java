@@ -6,68 +6,59 @@ import java.time.LocalDateTime;
  * Modelo que representa um Pedido armazenado em memória.
  * Como não estamos usando banco de dados, os pedidos são
  * mantidos em uma estrutura de dados em memória no OrderRepository.
+ *
+ * Imutável: um pedido não muda depois de criado. O repositório atribui o
+ * ID com withId(), que devolve uma cópia; por isso a representação JSON e
+ * o ETag de um pedido podem ser calculados uma vez e reutilizados.
  */
-public class Order {
+public final class Order {
 
-    private Long id;
-    private String customerName;
-    private String product;
-    private Double amount;
-    private LocalDateTime createdAt;
+    private final Long id;
+    private final String customerName;
+    private final String product;
+    private final Double amount;
+    private final LocalDateTime createdAt;
 
-    // Construtor padrão
-    public Order() {
+    public Order(Long id, String customerName, String product, Double amount) {
+        this(id, customerName, product, amount, LocalDateTime.now());
     }
 
-    public Order(Long id, String customerName, String product, Double amount) {
+    public Order(Long id, String customerName, String product, Double amount, LocalDateTime createdAt) {
         this.id = id;
         this.customerName = customerName;
         this.product = product;
         this.amount = amount;
-        this.createdAt = LocalDateTime.now();
+        this.createdAt = createdAt;
     }
 
-    // Getters e Setters
-    public Long getId() {
-        return id;
+    /**
+     * Cópia do pedido com o ID informado (atribuído pelo repositório no save).
+     */
+    public Order withId(Long id) {
+        return new Order(id, customerName, product, amount, createdAt);
     }
 
-    public void setId(Long id) {
-        this.id = id;
+    // Getters
+    public Long getId() {
+        return id;
     }
 
     public String getCustomerName() {
         return customerName;
     }
 
-    public void setCustomerName(String customerName) {
-        this.customerName = customerName;
-    }
-
     public String getProduct() {
         return product;
     }
 
-    public void setProduct(String product) {
-        this.product = product;
-    }
-
     public Double getAmount() {
         return amount;
     }
 
-    public void setAmount(Double amount) {
-        this.amount = amount;
-    }
-
     public LocalDateTime getCreatedAt() {
         return createdAt;
     }
 
-    public void setCreatedAt(LocalDateTime createdAt) {
-        this.createdAt = createdAt;
-    }
-
     @Override
     public String toString() {
         return "Order{" +
@@ -0,0 +1,356 @@
+package br.com.ecommerce.orderservice.outbox;
+
+import br.com.ecommerce.orderservice.model.Order;
+import br.com.ecommerce.orderservice.persistence.OrderRecordCodec;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+import java.util.zip.CRC32C;
+
+/**
+ * Journal local, somente-anexação (append-only), que guarda os pedidos
+ * cujos eventos ainda precisam ser publicados no RabbitMQ (outbox).
+ *
+ * Formato de cada registro:
+ * [int tamanho do payload][int CRC32C do payload][payload]
+ * payload = pedido codificado pelo OrderRecordCodec
+ *
+ * Um segundo arquivo guarda o offset do último registro já publicado.
+ * Após um crash, a leitura recomeça desse offset; registros incompletos
+ * no fim do arquivo (escrita interrompida) são descartados na abertura.
+ *
+ * O journal é o ponto de commit da criação do pedido: o OrderService grava
+ * aqui primeiro e só depois aplica o pedido ao repositório (markApplied).
+ * Enquanto houver pedido não aplicado, o journal não é compactado, para que
+ * a inicialização possa reaplicá-lo ao repositório durável (forEachRecord).
+ */
+public class OutboxJournal implements Closeable {
+
+    private static final Logger logger = LoggerFactory.getLogger(OutboxJournal.class);
+
+    private static final int HEADER_SIZE = Integer.BYTES * 2;
+    private static final int MAX_RECORD_SIZE = 1 << 20;
+
+    private final FileChannel journal;
+    private final FileChannel offsetChannel;
+    private final boolean fsync;
+    private final long compactThresholdBytes;
+
+    // Protege as escritas no journal; escritores nunca usam synchronized
+    private final ReentrantLock appendLock = new ReentrantLock();
+    private final Condition appended = appendLock.newCondition();
+
+    // Fim dos dados válidos no journal
+    private volatile long writePosition;
+
+    // Offset até onde os eventos já foram publicados e confirmados
+    private volatile long committedOffset;
+
+    // Pedidos gravados no journal e ainda não aplicados ao repositório
+    private final AtomicLong unapplied = new AtomicLong();
+
+    public OutboxJournal(Path directory, boolean fsync, long compactThresholdBytes) throws IOException {
+        Files.createDirectories(directory);
+        this.journal = FileChannel.open(directory.resolve("outbox.journal"),
+                StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        this.offsetChannel = FileChannel.open(directory.resolve("outbox.offset"),
+                StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        this.fsync = fsync;
+        this.compactThresholdBytes = compactThresholdBytes;
+        recover();
+    }
+
+    /**
+     * Lê o offset confirmado e descarta um eventual registro incompleto no fim do journal.
+     */
+    private void recover() throws IOException {
+        ByteBuffer offsetBuffer = ByteBuffer.allocate(Long.BYTES);
+        long committed = 0;
+        if (offsetChannel.read(offsetBuffer, 0) == Long.BYTES) {
+            committed = offsetBuffer.flip().getLong();
+        }
+        long size = journal.size();
+        if (committed > size) {
+            committed = 0;
+        }
+
+        long position = committed;
+        List<Order> ignored = new ArrayList<>();
+        while (true) {
+            long next = readRecord(position, size, ignored);
+            if (next < 0) {
+                break;
+            }
+            position = next;
+            ignored.clear();
+        }
+
+        if (position < size) {
+            logger.warn("[OUTBOX] Descartando {} bytes incompletos no fim do journal", size - position);
+            journal.truncate(position);
+        }
+        this.committedOffset = committed;
+        this.writePosition = position;
+        logger.info("[OUTBOX] Journal aberto: {} bytes pendentes de publicação", position - committed);
+    }
+
+    /**
+     * Anexa um pedido ao journal. Quando fsync está habilitado, o método só
+     * retorna depois que o registro está gravado em disco.
+     *
+     * @param order Pedido já salvo (com ID)
+     */
+    public void append(Order order) {
+        appendAll(List.of(order));
+    }
+
+    /**
+     * Anexa vários pedidos ao journal com um único fsync. Cada pedido deve
+     * ser confirmado com markApplied depois de inserido no repositório.
+     *
+     * @param orders Pedidos com ID já reservado
+     */
+    public void appendAll(List<Order> orders) {
+        if (orders.isEmpty()) {
+            return;
+        }
+        ByteBuffer[] records = new ByteBuffer[orders.size()];
+        for (int i = 0; i < records.length; i++) {
+            records[i] = encode(orders.get(i));
+        }
+        appendLock.lock();
+        try {
+            long position = writePosition;
+            for (ByteBuffer record : records) {
+                while (record.hasRemaining()) {
+                    position += journal.write(record, position);
+                }
+            }
+            if (fsync) {
+                journal.force(false);
+            }
+            unapplied.addAndGet(records.length);
+            writePosition = position;
+            appended.signalAll();
+        } catch (IOException e) {
+            // Descarta o que chegou a ser escrito: o pedido não foi criado e
+            // não pode ser recuperado do journal na próxima inicialização
+            truncateQuietly(writePosition);
+            throw new UncheckedIOException("Falha ao gravar lote de " + records.length + " pedidos no outbox", e);
+        } finally {
+            appendLock.unlock();
+        }
+    }
+
+    private void truncateQuietly(long size) {
+        try {
+            journal.truncate(size);
+        } catch (IOException e) {
+            logger.warn("[OUTBOX] Falha ao descartar escrita incompleta: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Registra que pedidos gravados por append/appendAll foram inseridos no repositório.
+     *
+     * @param count Quantidade de pedidos aplicados
+     */
+    public void markApplied(int count) {
+        unapplied.addAndGet(-count);
+    }
+
+    /**
+     * Percorre todos os pedidos ainda presentes no journal (publicados ou não),
+     * em ordem de gravação. Usado na inicialização para reaplicar ao
+     * repositório os pedidos gravados aqui antes de um crash.
+     *
+     * @param action Ação executada para cada pedido
+     */
+    public void forEachRecord(Consumer<Order> action) {
+        long position = 0;
+        long limit = writePosition;
+        List<Order> orders = new ArrayList<>(1);
+        try {
+            while (true) {
+                long next = readRecord(position, limit, orders);
+                if (next < 0) {
+                    break;
+                }
+                action.accept(orders.get(0));
+                orders.clear();
+                position = next;
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Falha ao ler o outbox", e);
+        }
+    }
+
+    /**
+     * Lê até maxRecords pedidos a partir do último offset confirmado.
+     *
+     * @param maxRecords Tamanho máximo do lote
+     * @return Lote lido (pode ser vazio)
+     */
+    public OutboxBatch readBatch(int maxRecords) {
+        long position = committedOffset;
+        long limit = writePosition;
+        List<Order> orders = new ArrayList<>(Math.min(maxRecords, 1024));
+        try {
+            while (orders.size() < maxRecords) {
+                long next = readRecord(position, limit, orders);
+                if (next < 0) {
+                    break;
+                }
+                position = next;
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Falha ao ler o outbox", e);
+        }
+        return new OutboxBatch(orders, position);
+    }
+
+    /**
+     * Registra que todos os eventos até o offset informado foram publicados.
+     *
+     * @param offset Offset logo após o último registro publicado
+     */
+    public void commit(long offset) {
+        try {
+            ByteBuffer buffer = ByteBuffer.allocate(Long.BYTES).putLong(0, offset);
+            offsetChannel.write(buffer, 0);
+            offsetChannel.force(false);
+            committedOffset = offset;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Falha ao gravar offset do outbox", e);
+        }
+    }
+
+    /**
+     * Aguarda até que existam registros pendentes ou o tempo expire.
+     */
+    public void awaitPending(long timeout, TimeUnit unit) throws InterruptedException {
+        appendLock.lock();
+        try {
+            if (writePosition == committedOffset) {
+                appended.await(timeout, unit);
+            }
+        } finally {
+            appendLock.unlock();
+        }
+    }
+
+    /**
+     * Trunca o journal quando todos os registros já foram publicados e
+     * aplicados ao repositório e o arquivo passou do limite configurado.
+     */
+    public void compactIfDrained() {
+        if (writePosition < compactThresholdBytes || writePosition != committedOffset) {
+            return;
+        }
+        appendLock.lock();
+        try {
+            if (writePosition != committedOffset || unapplied.get() > 0) {
+                return;
+            }
+            // Trunca antes de zerar o offset: se houver crash entre as duas
+            // operações, o offset antigo passa do fim do arquivo e é ignorado
+            journal.truncate(0);
+            journal.force(true);
+            writePosition = 0;
+            commit(0);
+            logger.info("[OUTBOX] Journal compactado");
+        } catch (IOException e) {
+            throw new UncheckedIOException("Falha ao compactar o outbox", e);
+        } finally {
+            appendLock.unlock();
+        }
+    }
+
+    /**
+     * @return Quantidade de bytes ainda não publicados
+     */
+    public long pendingBytes() {
+        return writePosition - committedOffset;
+    }
+
+    @Override
+    public void close() throws IOException {
+        journal.close();
+        offsetChannel.close();
+    }
+
+    /**
+     * Lê um registro na posição informada e adiciona o pedido à lista.
+     *
+     * @return Posição do próximo registro ou -1 se não houver registro completo e válido
+     */
+    private long readRecord(long position, long limit, List<Order> out) throws IOException {
+        if (position + HEADER_SIZE > limit) {
+            return -1;
+        }
+        ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+        readFully(header, position);
+        int length = header.getInt(0);
+        int checksum = header.getInt(Integer.BYTES);
+        if (length <= 0 || length > MAX_RECORD_SIZE || position + HEADER_SIZE + length > limit) {
+            return -1;
+        }
+
+        ByteBuffer payload = ByteBuffer.allocate(length);
+        readFully(payload, position + HEADER_SIZE);
+        CRC32C crc = new CRC32C();
+        crc.update(payload.array(), 0, length);
+        if ((int) crc.getValue() != checksum) {
+            return -1;
+        }
+
+        out.add(OrderRecordCodec.read(payload));
+        return position + HEADER_SIZE + length;
+    }
+
+    private void readFully(ByteBuffer buffer, long position) throws IOException {
+        while (buffer.hasRemaining()) {
+            int read = journal.read(buffer, position + buffer.position());
+            if (read < 0) {
+                throw new IOException("Fim inesperado do journal");
+            }
+        }
+        buffer.flip();
+    }
+
+    static ByteBuffer encode(Order order) {
+        ByteBuffer buffer = OrderRecordCodec.encode(order, HEADER_SIZE);
+        int length = buffer.position() - HEADER_SIZE;
+
+        CRC32C crc = new CRC32C();
+        crc.update(buffer.array(), HEADER_SIZE, length);
+        buffer.putInt(0, length);
+        buffer.putInt(Integer.BYTES, (int) crc.getValue());
+        return buffer.flip();
+    }
+
+    /**
+     * Lote de pedidos lidos do journal e o offset logo após o último deles.
+     */
+    public record OutboxBatch(List<Order> orders, long nextOffset) {
+
+        public boolean isEmpty() {
+            return orders.isEmpty();
+        }
+    }
+}
@@ -0,0 +1,124 @@
+package br.com.ecommerce.orderservice.outbox;
+
+import br.com.ecommerce.orderservice.event.OrderCreatedEvent;
+import br.com.ecommerce.orderservice.model.Order;
+import br.com.ecommerce.orderservice.producer.OrderMessageProducer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Thread de background que drena o outbox para o RabbitMQ.
+ *
+ * Lê lotes de pedidos a partir do último offset confirmado, publica os
+ * eventos e só avança o offset quando todos os eventos do lote foram
+ * confirmados pelo broker. Em caso de falha, o mesmo lote é reenviado
+ * após um intervalo (entrega at-least-once).
+ *
+ * Os eventos são publicados individualmente com confirm mesmo com
+ * rabbitmq.producer.batch.enabled=true: no modo lote o producer conclui o
+ * future antes de o broker receber a mensagem, e o offset avançaria sem
+ * confirmação. O próprio lote lido do journal já amortiza o custo do fsync.
+ */
+@Component
+@ConditionalOnProperty(name = "orders.outbox.enabled", havingValue = "true")
+public class OutboxRelay {
+
+    private static final Logger logger = LoggerFactory.getLogger(OutboxRelay.class);
+
+    private final OutboxJournal journal;
+    private final OrderMessageProducer messageProducer;
+
+    @Value("${orders.outbox.batch-size:500}")
+    private int batchSize;
+
+    @Value("${orders.outbox.poll-interval-ms:100}")
+    private long pollIntervalMs;
+
+    @Value("${orders.outbox.publish-timeout-ms:30000}")
+    private long publishTimeoutMs;
+
+    @Value("${orders.outbox.retry-backoff-ms:1000}")
+    private long retryBackoffMs;
+
+    private volatile boolean running;
+    private Thread relayThread;
+
+    public OutboxRelay(OutboxJournal journal, OrderMessageProducer messageProducer) {
+        this.journal = journal;
+        this.messageProducer = messageProducer;
+    }
+
+    @PostConstruct
+    public void start() {
+        running = true;
+        relayThread = new Thread(this::run, "outbox-relay");
+        relayThread.setDaemon(true);
+        relayThread.start();
+    }
+
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        running = false;
+        relayThread.interrupt();
+        relayThread.join(TimeUnit.SECONDS.toMillis(10));
+    }
+
+    private void run() {
+        logger.info("[OUTBOX] Relay iniciado");
+        while (running) {
+            try {
+                OutboxJournal.OutboxBatch batch = journal.readBatch(batchSize);
+                if (batch.isEmpty()) {
+                    journal.compactIfDrained();
+                    journal.awaitPending(pollIntervalMs, TimeUnit.MILLISECONDS);
+                    continue;
+                }
+                publish(batch);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            } catch (Exception e) {
+                logger.error("[OUTBOX] Falha ao publicar lote; nova tentativa em {} ms: {}",
+                        retryBackoffMs, e.getMessage());
+                sleepQuietly(retryBackoffMs);
+            }
+        }
+        logger.info("[OUTBOX] Relay encerrado ({} bytes pendentes)", journal.pendingBytes());
+    }
+
+    /**
+     * Publica todos os eventos do lote e avança o offset após as confirmações.
+     */
+    private void publish(OutboxJournal.OutboxBatch batch) throws Exception {
+        CompletableFuture<?>[] confirms = new CompletableFuture<?>[batch.orders().size()];
+        for (int i = 0; i < confirms.length; i++) {
+            Order order = batch.orders().get(i);
+            confirms[i] = messageProducer.sendOrderCreatedEventConfirmed(new OrderCreatedEvent(
+                    order.getId(),
+                    order.getCustomerName(),
+                    order.getProduct(),
+                    order.getAmount()));
+        }
+
+        CompletableFuture.allOf(confirms).get(publishTimeoutMs, TimeUnit.MILLISECONDS);
+        journal.commit(batch.nextOffset());
+        logger.debug("[OUTBOX] Lote de {} eventos publicado", confirms.length);
+    }
+
+    private void sleepQuietly(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            running = false;
+        }
+    }
+}
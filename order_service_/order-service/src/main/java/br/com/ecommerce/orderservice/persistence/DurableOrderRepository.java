@@ -0,0 +1,347 @@
+package br.com.ecommerce.orderservice.persistence;
+
+import br.com.ecommerce.orderservice.model.Order;
+import br.com.ecommerce.orderservice.repository.OrderRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.Stream;
+
+/**
+ * Repositório durável: envolve a engine em memória (map ou columnar) e grava
+ * cada alteração no WriteAheadLog (orders.persistence.enabled=true).
+ *
+ * - Escrita (save, restore e remoções): o registro é enfileirado no log
+ *   primeiro e só depois aplicado à engine. Com orders.persistence.sync=true
+ *   a chamada espera o group commit (fsync) antes de aplicar; se a gravação
+ *   falhar, a engine não é alterada e a exceção chega ao chamador
+ * - Ordem: escritas no mesmo ID são serializadas (lock por faixa de IDs) do
+ *   log até a engine, então o replay chega ao mesmo estado da memória;
+ *   deleteAll e a rotação do snapshot excluem todas as outras escritas
+ * - Leitura: delegada diretamente à engine, sem custo adicional
+ * - Snapshot periódico: rotaciona o log, grava o estado da engine em um
+ *   snapshot e apaga os segmentos e snapshots anteriores
+ * - Recuperação: carrega o último snapshot (via mmap) e reaplica os
+ *   segmentos do log a partir da geração do snapshot
+ *
+ * Reaplicar um SAVE já presente no snapshot não altera nada (restore é
+ * idempotente), então registros gravados durante o snapshot são seguros.
+ */
+public class DurableOrderRepository implements OrderRepository, Closeable {
+
+    private static final Logger logger = LoggerFactory.getLogger(DurableOrderRepository.class);
+
+    private static final long SYNC_TIMEOUT_SECONDS = 30;
+    private static final int ID_LOCK_STRIPES = 64;
+
+    private final OrderRepository delegate;
+    private final WriteAheadLog wal;
+    private final Path directory;
+    private final boolean sync;
+    private final long snapshotMinWrites;
+
+    // Maior ID já utilizado, gravado no cabeçalho do snapshot
+    private final AtomicLong maxId;
+    private final LongAdder writesSinceSnapshot = new LongAdder();
+
+    private final ReentrantLock snapshotLock = new ReentrantLock();
+
+    // Leitura: uma escrita por ID (log + engine); escrita: deleteAll e rotação do log
+    private final ReentrantReadWriteLock writesLock = new ReentrantReadWriteLock();
+    private final ReentrantLock[] idLocks = new ReentrantLock[ID_LOCK_STRIPES];
+    private final ScheduledExecutorService snapshotScheduler;
+
+    private DurableOrderRepository(OrderRepository delegate, WriteAheadLog wal, Path directory, boolean sync,
+                                   long maxId, long snapshotIntervalMs, long snapshotMinWrites) {
+        this.delegate = delegate;
+        this.wal = wal;
+        this.directory = directory;
+        this.sync = sync;
+        this.maxId = new AtomicLong(maxId);
+        this.snapshotMinWrites = snapshotMinWrites;
+        for (int i = 0; i < idLocks.length; i++) {
+            idLocks[i] = new ReentrantLock();
+        }
+        this.snapshotScheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "order-snapshot");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.snapshotScheduler.scheduleWithFixedDelay(this::snapshotIfNeeded,
+                snapshotIntervalMs, snapshotIntervalMs, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Recupera o estado gravado em disco para a engine e abre o log para novas escritas.
+     *
+     * @param delegate Engine em memória vazia
+     * @param directory Diretório do log e dos snapshots
+     */
+    public static DurableOrderRepository open(OrderRepository delegate, Path directory, boolean fsync, boolean sync,
+                                              int queueCapacity, int maxBatch,
+                                              long snapshotIntervalMs, long snapshotMinWrites) throws IOException {
+        Files.createDirectories(directory);
+        long started = System.nanoTime();
+
+        List<Long> snapshots = OrderSnapshotStore.generations(directory);
+        long baseGeneration = 0;
+        AtomicLong maxId = new AtomicLong();
+        if (!snapshots.isEmpty()) {
+            baseGeneration = snapshots.get(snapshots.size() - 1);
+            long snapshotMaxId = OrderSnapshotStore.load(
+                    OrderSnapshotStore.snapshotPath(directory, baseGeneration), delegate::restore);
+            maxId.accumulateAndGet(snapshotMaxId, Math::max);
+        }
+
+        long lastGeneration = baseGeneration;
+        long records = 0;
+        for (Long generation : WriteAheadLog.segmentGenerations(directory)) {
+            lastGeneration = Math.max(lastGeneration, generation);
+            if (generation < baseGeneration) {
+                continue;
+            }
+            records += WriteAheadLog.replay(WriteAheadLog.segmentPath(directory, generation),
+                    new WriteAheadLog.ReplayHandler() {
+                        @Override
+                        public void onSave(Order order) {
+                            delegate.restore(order);
+                            maxId.accumulateAndGet(order.getId(), Math::max);
+                        }
+
+                        @Override
+                        public void onDelete(long id) {
+                            delegate.deleteById(id);
+                            maxId.accumulateAndGet(id, Math::max);
+                        }
+
+                        @Override
+                        public void onClear() {
+                            delegate.deleteAll();
+                        }
+                    });
+        }
+        delegate.reserveIdsThrough(maxId.get());
+
+        logger.info("[PERSISTENCE] Recuperados {} pedidos (snapshot {} + {} registros do log) em {} ms",
+                delegate.count(), baseGeneration, records,
+                TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started));
+
+        // Novas escritas sempre vão para um segmento novo, nunca após um registro corrompido
+        WriteAheadLog wal = new WriteAheadLog(directory, lastGeneration + 1, fsync, queueCapacity, maxBatch);
+        return new DurableOrderRepository(delegate, wal, directory, sync, maxId.get(),
+                snapshotIntervalMs, snapshotMinWrites);
+    }
+
+    /**
+     * Reserva o ID, grava o pedido no log e só então o insere na engine.
+     */
+    @Override
+    public Order save(Order order) {
+        Order saved = order.withId(nextId());
+        restore(saved);
+        return saved;
+    }
+
+    @Override
+    public void deleteById(Long id) {
+        ReentrantLock idLock = lockFor(id);
+        writesLock.readLock().lock();
+        idLock.lock();
+        try {
+            await(wal.appendDelete(id));
+            delegate.deleteById(id);
+        } finally {
+            idLock.unlock();
+            writesLock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public void deleteAll() {
+        writesLock.writeLock().lock();
+        try {
+            await(wal.appendClear());
+            delegate.deleteAll();
+        } finally {
+            writesLock.writeLock().unlock();
+        }
+    }
+
+    private ReentrantLock lockFor(long id) {
+        return idLocks[Math.floorMod(id, idLocks.length)];
+    }
+
+    private void await(CompletableFuture<Long> written) {
+        writesSinceSnapshot.increment();
+        if (!sync) {
+            return;
+        }
+        try {
+            written.get(SYNC_TIMEOUT_SECONDS, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrompido aguardando o write-ahead log", e);
+        } catch (ExecutionException | TimeoutException e) {
+            throw new IllegalStateException("Falha ao gravar no write-ahead log", e);
+        }
+    }
+
+    @Override
+    public Optional<Order> findById(Long id) {
+        return delegate.findById(id);
+    }
+
+    @Override
+    public List<Order> findAll() {
+        return delegate.findAll();
+    }
+
+    @Override
+    public List<Order> findPage(Long afterId, int limit) {
+        return delegate.findPage(afterId, limit);
+    }
+
+    @Override
+    public List<Order> findByCustomerName(String customerName, Long afterId, int limit) {
+        return delegate.findByCustomerName(customerName, afterId, limit);
+    }
+
+    @Override
+    public List<Order> findByProduct(String product, Long afterId, int limit) {
+        return delegate.findByProduct(product, afterId, limit);
+    }
+
+    @Override
+    public Stream<Order> streamAll() {
+        return delegate.streamAll();
+    }
+
+    @Override
+    public long count() {
+        return delegate.count();
+    }
+
+    @Override
+    public long nextId() {
+        long id = delegate.nextId();
+        maxId.accumulateAndGet(id, Math::max);
+        return id;
+    }
+
+    /**
+     * Grava no log um pedido com ID já definido e depois o insere na engine.
+     * A recuperação na inicialização usa a engine diretamente, sem passar por aqui.
+     */
+    @Override
+    public void restore(Order order) {
+        ReentrantLock idLock = lockFor(order.getId());
+        writesLock.readLock().lock();
+        idLock.lock();
+        try {
+            maxId.accumulateAndGet(order.getId(), Math::max);
+            await(wal.appendSave(order));
+            delegate.restore(order);
+        } finally {
+            idLock.unlock();
+            writesLock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public void reserveIdsThrough(long id) {
+        delegate.reserveIdsThrough(id);
+    }
+
+    private void snapshotIfNeeded() {
+        if (writesSinceSnapshot.sum() < snapshotMinWrites) {
+            return;
+        }
+        try {
+            snapshot();
+        } catch (Exception e) {
+            logger.error("[PERSISTENCE] Falha ao gravar snapshot: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Grava um snapshot do estado atual e descarta o log já coberto por ele.
+     */
+    public void snapshot() throws IOException {
+        snapshotLock.lock();
+        try {
+            long started = System.nanoTime();
+            writesSinceSnapshot.reset();
+            // Com o lock exclusivo nenhuma escrita está entre o log e a engine:
+            // todo registro enfileirado antes da rotação (segmentos < generation)
+            // já foi aplicado e aparece no snapshot; os posteriores vão para
+            // segmentos >= generation e são reaplicados na recuperação
+            CompletableFuture<Long> rotation;
+            writesLock.writeLock().lock();
+            try {
+                rotation = wal.rotate();
+            } finally {
+                writesLock.writeLock().unlock();
+            }
+            long generation = rotation.get(SYNC_TIMEOUT_SECONDS, TimeUnit.SECONDS);
+            long count;
+            try (Stream<Order> orders = delegate.streamAll()) {
+                count = OrderSnapshotStore.write(directory, generation, maxId.get(), orders);
+            }
+            deleteSegmentsOlderThan(generation);
+            OrderSnapshotStore.deleteOlderThan(directory, generation);
+            logger.info("[PERSISTENCE] Snapshot {} gravado com {} pedidos em {} ms", generation, count,
+                    TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrompido durante o snapshot", e);
+        } catch (ExecutionException | TimeoutException e) {
+            throw new IOException("Falha ao rotacionar o write-ahead log", e);
+        } finally {
+            snapshotLock.unlock();
+        }
+    }
+
+    private void deleteSegmentsOlderThan(long generation) {
+        try {
+            for (Long old : WriteAheadLog.segmentGenerations(directory)) {
+                if (old < generation) {
+                    Files.deleteIfExists(WriteAheadLog.segmentPath(directory, old));
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Grava um snapshot final (acelera a próxima inicialização) e fecha o log.
+     */
+    @Override
+    public void close() throws IOException {
+        snapshotScheduler.shutdownNow();
+        try {
+            if (writesSinceSnapshot.sum() > 0) {
+                snapshot();
+            }
+        } finally {
+            wal.close();
+        }
+    }
+}
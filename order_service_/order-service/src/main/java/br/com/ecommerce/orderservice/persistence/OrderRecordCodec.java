@@ -0,0 +1,83 @@
+package br.com.ecommerce.orderservice.persistence;
+
+import br.com.ecommerce.orderservice.model.Order;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+
+/**
+ * Codificação binária de um pedido, usada pelo outbox, pelo write-ahead log
+ * e pelos snapshots.
+ *
+ * Layout (big-endian):
+ * [long id][long createdAt segundos UTC][int createdAt nanos][double amount]
+ * [int tamanho][bytes UTF-8 customerName][int tamanho][bytes UTF-8 product]
+ */
+public final class OrderRecordCodec {
+
+    private OrderRecordCodec() {
+    }
+
+    /**
+     * Calcula o tamanho codificado do pedido a partir dos bytes UTF-8 das strings.
+     */
+    public static int encodedSize(byte[] customer, byte[] product) {
+        return Long.BYTES * 2 + Integer.BYTES + Double.BYTES
+                + Integer.BYTES + customer.length + Integer.BYTES + product.length;
+    }
+
+    /**
+     * Escreve o pedido no buffer a partir da posição atual.
+     */
+    public static void write(ByteBuffer buffer, Order order, byte[] customer, byte[] product) {
+        buffer.putLong(order.getId());
+        buffer.putLong(order.getCreatedAt().toEpochSecond(ZoneOffset.UTC));
+        buffer.putInt(order.getCreatedAt().getNano());
+        buffer.putDouble(order.getAmount());
+        buffer.putInt(customer.length).put(customer);
+        buffer.putInt(product.length).put(product);
+    }
+
+    /**
+     * Aloca um buffer com {@code headerSize} bytes livres no início seguidos do pedido codificado.
+     * O buffer é retornado posicionado no fim dos dados.
+     */
+    public static ByteBuffer encode(Order order, int headerSize) {
+        byte[] customer = order.getCustomerName().getBytes(StandardCharsets.UTF_8);
+        byte[] product = order.getProduct().getBytes(StandardCharsets.UTF_8);
+        ByteBuffer buffer = ByteBuffer.allocate(headerSize + encodedSize(customer, product));
+        buffer.position(headerSize);
+        write(buffer, order, customer, product);
+        return buffer;
+    }
+
+    /**
+     * Lê um pedido a partir da posição atual do buffer.
+     */
+    public static Order read(ByteBuffer buffer) {
+        long id = buffer.getLong();
+        long seconds = buffer.getLong();
+        int nanos = buffer.getInt();
+        double amount = buffer.getDouble();
+        String customer = readString(buffer);
+        String product = readString(buffer);
+
+        return new Order(id, customer, product, amount, LocalDateTime.ofEpochSecond(seconds, nanos, ZoneOffset.UTC));
+    }
+
+    private static String readString(ByteBuffer buffer) {
+        int length = buffer.getInt();
+        String value;
+        if (buffer.hasArray()) {
+            value = new String(buffer.array(), buffer.arrayOffset() + buffer.position(), length, StandardCharsets.UTF_8);
+            buffer.position(buffer.position() + length);
+        } else {
+            byte[] bytes = new byte[length];
+            buffer.get(bytes);
+            value = new String(bytes, StandardCharsets.UTF_8);
+        }
+        return value;
+    }
+}
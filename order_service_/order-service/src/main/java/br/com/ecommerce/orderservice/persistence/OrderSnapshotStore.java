@@ -0,0 +1,153 @@
+package br.com.ecommerce.orderservice.persistence;
+
+import br.com.ecommerce.orderservice.model.Order;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+/**
+ * Snapshots binários compactos do repositório de pedidos.
+ *
+ * Arquivo snapshot-&lt;geração&gt;.bin:
+ * [int MAGIC][int versão][long maior ID utilizado][long quantidade]
+ * seguido de [int tamanho][pedido codificado pelo OrderRecordCodec] por pedido.
+ *
+ * O snapshot é escrito em um arquivo temporário e renomeado atomicamente,
+ * então um snapshot visível está sempre completo. A leitura usa mmap.
+ */
+public final class OrderSnapshotStore {
+
+    private static final int MAGIC = 0x4F534E50; // "OSNP"
+    private static final int VERSION = 1;
+    private static final int HEADER_SIZE = Integer.BYTES * 2 + Long.BYTES * 2;
+    private static final String PREFIX = "snapshot-";
+    private static final String SUFFIX = ".bin";
+
+    private OrderSnapshotStore() {
+    }
+
+    /**
+     * Escreve um snapshot da geração informada.
+     *
+     * @return Quantidade de pedidos gravados
+     */
+    public static long write(Path directory, long generation, long maxId, Stream<Order> orders) throws IOException {
+        Path target = snapshotPath(directory, generation);
+        Path temp = target.resolveSibling(target.getFileName() + ".tmp");
+
+        long count = 0;
+        try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            ByteBuffer buffer = ByteBuffer.allocateDirect(1 << 16);
+            buffer.putInt(MAGIC).putInt(VERSION).putLong(maxId).putLong(0);
+
+            Iterator<Order> iterator = orders.iterator();
+            while (iterator.hasNext()) {
+                Order order = iterator.next();
+                byte[] customer = order.getCustomerName().getBytes(StandardCharsets.UTF_8);
+                byte[] product = order.getProduct().getBytes(StandardCharsets.UTF_8);
+                int length = OrderRecordCodec.encodedSize(customer, product);
+                if (buffer.remaining() < Integer.BYTES + length) {
+                    drain(channel, buffer);
+                    if (buffer.remaining() < Integer.BYTES + length) {
+                        buffer = ByteBuffer.allocateDirect(Integer.BYTES + length);
+                    }
+                }
+                buffer.putInt(length);
+                OrderRecordCodec.write(buffer, order, customer, product);
+                count++;
+            }
+            drain(channel, buffer);
+
+            // Grava a quantidade no cabeçalho
+            channel.write(ByteBuffer.allocate(Long.BYTES).putLong(0, count), HEADER_SIZE - Long.BYTES);
+            channel.force(true);
+        }
+
+        Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        return count;
+    }
+
+    private static void drain(FileChannel channel, ByteBuffer buffer) throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+        buffer.clear();
+    }
+
+    /**
+     * Carrega um snapshot, entregando cada pedido ao consumidor.
+     *
+     * @return Maior ID utilizado no momento do snapshot
+     */
+    public static long load(Path snapshot, Consumer<Order> consumer) throws IOException {
+        try (FileChannel channel = FileChannel.open(snapshot, StandardOpenOption.READ)) {
+            if (channel.size() > Integer.MAX_VALUE) {
+                throw new IOException("Snapshot maior que 2 GB: " + snapshot);
+            }
+            MappedByteBuffer mapped = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            if (mapped.remaining() < HEADER_SIZE || mapped.getInt() != MAGIC) {
+                throw new IOException("Snapshot inválido: " + snapshot);
+            }
+            int version = mapped.getInt();
+            if (version != VERSION) {
+                throw new IOException("Versão de snapshot não suportada: " + version);
+            }
+            long maxId = mapped.getLong();
+            long count = mapped.getLong();
+            for (long i = 0; i < count; i++) {
+                int length = mapped.getInt();
+                int end = mapped.position() + length;
+                consumer.accept(OrderRecordCodec.read(mapped));
+                mapped.position(end);
+            }
+            return maxId;
+        }
+    }
+
+    /**
+     * Lista as gerações dos snapshots existentes em ordem crescente.
+     */
+    public static List<Long> generations(Path directory) throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.map(path -> path.getFileName().toString())
+                    .filter(name -> name.startsWith(PREFIX) && name.endsWith(SUFFIX))
+                    .map(name -> Long.parseLong(name.substring(PREFIX.length(), name.length() - SUFFIX.length())))
+                    .sorted(Comparator.naturalOrder())
+                    .toList();
+        }
+    }
+
+    public static Path snapshotPath(Path directory, long generation) {
+        return directory.resolve(String.format("%s%020d%s", PREFIX, generation, SUFFIX));
+    }
+
+    /**
+     * Remove snapshots de gerações anteriores à informada.
+     */
+    public static void deleteOlderThan(Path directory, long generation) {
+        try {
+            for (Long old : generations(directory)) {
+                if (old < generation) {
+                    Files.deleteIfExists(snapshotPath(directory, old));
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
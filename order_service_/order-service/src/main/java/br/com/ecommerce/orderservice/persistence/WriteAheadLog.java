@@ -0,0 +1,342 @@
+package br.com.ecommerce.orderservice.persistence;
+
+import br.com.ecommerce.orderservice.model.Order;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+import java.util.zip.CRC32C;
+
+/**
+ * Write-ahead log dos pedidos com group commit.
+ *
+ * As threads que alteram o repositório apenas enfileiram o registro; uma
+ * única thread de gravação drena a fila, escreve o lote inteiro com uma
+ * gravação vetorizada e faz um único fsync para todos os registros do lote,
+ * concluindo os futures de cada escritor.
+ *
+ * O log é dividido em segmentos wal-&lt;geração&gt;.log. A cada snapshot o
+ * log é rotacionado para uma nova geração, e os segmentos anteriores ao
+ * snapshot podem ser apagados.
+ *
+ * Formato de cada registro: [int tamanho][int CRC32C][byte tipo][dados]
+ * - SAVE: pedido codificado pelo OrderRecordCodec
+ * - DELETE: [long id]
+ * - CLEAR: sem dados
+ */
+public class WriteAheadLog implements Closeable {
+
+    private static final Logger logger = LoggerFactory.getLogger(WriteAheadLog.class);
+
+    static final byte SAVE = 1;
+    static final byte DELETE = 2;
+    static final byte CLEAR = 3;
+
+    private static final int HEADER_SIZE = Integer.BYTES * 2;
+    private static final String PREFIX = "wal-";
+    private static final String SUFFIX = ".log";
+
+    private final Path directory;
+    private final boolean fsync;
+    private final int maxBatch;
+    private final BlockingQueue<Entry> queue;
+    private final Thread writer;
+
+    // Acessados apenas pela thread de gravação após a construção
+    private FileChannel segment;
+    private long generation;
+
+    private volatile boolean running = true;
+
+    public WriteAheadLog(Path directory, long generation, boolean fsync, int queueCapacity, int maxBatch)
+            throws IOException {
+        this.directory = directory;
+        this.fsync = fsync;
+        this.maxBatch = maxBatch;
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+        this.generation = generation;
+        this.segment = openSegment(generation);
+        this.writer = new Thread(this::writeLoop, "order-wal-writer");
+        this.writer.setDaemon(true);
+        this.writer.start();
+    }
+
+    /**
+     * Registra a criação de um pedido.
+     * @return Future concluído quando o registro estiver gravado (e sincronizado, se fsync)
+     */
+    public CompletableFuture<Long> appendSave(Order order) {
+        ByteBuffer buffer = OrderRecordCodec.encode(order, HEADER_SIZE + 1);
+        buffer.put(HEADER_SIZE, SAVE);
+        return enqueue(seal(buffer));
+    }
+
+    /**
+     * Registra a remoção de um pedido.
+     */
+    public CompletableFuture<Long> appendDelete(long id) {
+        ByteBuffer buffer = ByteBuffer.allocate(HEADER_SIZE + 1 + Long.BYTES);
+        buffer.position(HEADER_SIZE);
+        buffer.put(DELETE).putLong(id);
+        return enqueue(seal(buffer));
+    }
+
+    /**
+     * Registra a remoção de todos os pedidos.
+     */
+    public CompletableFuture<Long> appendClear() {
+        ByteBuffer buffer = ByteBuffer.allocate(HEADER_SIZE + 1);
+        buffer.position(HEADER_SIZE);
+        buffer.put(CLEAR);
+        return enqueue(seal(buffer));
+    }
+
+    /**
+     * Fecha o segmento atual e passa a gravar em uma nova geração.
+     * Todos os registros enfileirados antes da rotação ficam nos segmentos anteriores.
+     *
+     * @return Future com a nova geração
+     */
+    public CompletableFuture<Long> rotate() {
+        return enqueue(null);
+    }
+
+    private CompletableFuture<Long> enqueue(ByteBuffer record) {
+        if (!running) {
+            return CompletableFuture.failedFuture(new IllegalStateException("Write-ahead log encerrado"));
+        }
+        Entry entry = new Entry(record, new CompletableFuture<>());
+        try {
+            // Fila cheia: o escritor espera (backpressure) em vez de acumular memória
+            queue.put(entry);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            entry.done.completeExceptionally(e);
+        }
+        return entry.done;
+    }
+
+    private static ByteBuffer seal(ByteBuffer buffer) {
+        int length = buffer.position() - HEADER_SIZE;
+        CRC32C crc = new CRC32C();
+        crc.update(buffer.array(), HEADER_SIZE, length);
+        buffer.putInt(0, length);
+        buffer.putInt(Integer.BYTES, (int) crc.getValue());
+        return buffer.flip();
+    }
+
+    private void writeLoop() {
+        List<Entry> batch = new ArrayList<>(maxBatch);
+        while (running || !queue.isEmpty()) {
+            try {
+                Entry first = queue.poll(100, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                queue.drainTo(batch, maxBatch - 1);
+                process(batch);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            } catch (RuntimeException e) {
+                // A thread de gravação é única: uma falha inesperada encerra só
+                // este lote (futures ainda abertos falham), não o log inteiro
+                logger.error("[WAL] Falha inesperada ao gravar {} registros: {}", batch.size(), e.getMessage(), e);
+                for (Entry entry : batch) {
+                    entry.done.completeExceptionally(e);
+                }
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    /**
+     * Grava o lote; entradas de rotação dividem o lote em trechos.
+     */
+    private void process(List<Entry> batch) {
+        int start = 0;
+        for (int i = 0; i <= batch.size(); i++) {
+            boolean rotation = i < batch.size() && batch.get(i).record == null;
+            if (i == batch.size() || rotation) {
+                writeAndSync(batch.subList(start, i));
+                start = i + 1;
+            }
+            if (rotation) {
+                Entry entry = batch.get(i);
+                try {
+                    segment.force(true);
+                    segment.close();
+                    generation++;
+                    segment = openSegment(generation);
+                    entry.done.complete(generation);
+                } catch (IOException e) {
+                    entry.done.completeExceptionally(e);
+                }
+            }
+        }
+    }
+
+    private void writeAndSync(List<Entry> entries) {
+        if (entries.isEmpty()) {
+            return;
+        }
+        ByteBuffer[] buffers = new ByteBuffer[entries.size()];
+        long remaining = 0;
+        for (int i = 0; i < buffers.length; i++) {
+            buffers[i] = entries.get(i).record;
+            remaining += buffers[i].remaining();
+        }
+        long start = -1;
+        try {
+            start = segment.position();
+            while (remaining > 0) {
+                remaining -= segment.write(buffers);
+            }
+            if (fsync) {
+                segment.force(false);
+            }
+            for (Entry entry : entries) {
+                entry.done.complete(generation);
+            }
+        } catch (IOException | RuntimeException e) {
+            logger.error("[WAL] Falha ao gravar {} registros: {}", entries.size(), e.getMessage());
+            discardFrom(start);
+            for (Entry entry : entries) {
+                entry.done.completeExceptionally(e);
+            }
+        }
+    }
+
+    /**
+     * Remove o que o lote com falha chegou a gravar: os escritores recebem
+     * erro e não aplicam a alteração, então os registros não podem reaparecer
+     * no replay, nem um registro incompleto pode esconder os seguintes.
+     */
+    private void discardFrom(long position) {
+        if (position < 0) {
+            return;
+        }
+        try {
+            segment.truncate(position);
+        } catch (IOException e) {
+            logger.error("[WAL] Falha ao descartar a gravação incompleta em {}: {}",
+                    segmentPath(directory, generation).getFileName(), e.getMessage());
+        }
+    }
+
+    private FileChannel openSegment(long segmentGeneration) throws IOException {
+        return FileChannel.open(segmentPath(directory, segmentGeneration),
+                StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+    }
+
+    @Override
+    public void close() throws IOException {
+        running = false;
+        try {
+            writer.join(TimeUnit.SECONDS.toMillis(10));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        segment.force(true);
+        segment.close();
+    }
+
+    static Path segmentPath(Path directory, long generation) {
+        return directory.resolve(String.format("%s%020d%s", PREFIX, generation, SUFFIX));
+    }
+
+    /**
+     * Lista as gerações dos segmentos existentes em ordem crescente.
+     */
+    static List<Long> segmentGenerations(Path directory) throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.map(path -> path.getFileName().toString())
+                    .filter(name -> name.startsWith(PREFIX) && name.endsWith(SUFFIX))
+                    .map(name -> Long.parseLong(name.substring(PREFIX.length(), name.length() - SUFFIX.length())))
+                    .sorted(Comparator.naturalOrder())
+                    .toList();
+        }
+    }
+
+    /**
+     * Reaplica os registros de um segmento usando leitura mapeada em memória.
+     * A leitura para no primeiro registro incompleto ou corrompido (fim de uma
+     * gravação interrompida por crash).
+     *
+     * @return Quantidade de registros reaplicados
+     */
+    static long replay(Path segmentPath, ReplayHandler handler) throws IOException {
+        try (FileChannel channel = FileChannel.open(segmentPath, StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size == 0) {
+                return 0;
+            }
+            if (size > Integer.MAX_VALUE) {
+                throw new IOException("Segmento maior que 2 GB: " + segmentPath);
+            }
+            MappedByteBuffer mapped = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+            CRC32C crc = new CRC32C();
+            long records = 0;
+
+            while (mapped.remaining() >= HEADER_SIZE) {
+                int start = mapped.position();
+                int length = mapped.getInt();
+                int checksum = mapped.getInt();
+                if (length <= 0 || length > mapped.remaining()) {
+                    logger.warn("[WAL] Registro incompleto em {} (posição {})", segmentPath.getFileName(), start);
+                    break;
+                }
+                ByteBuffer payload = mapped.slice(mapped.position(), length);
+                crc.reset();
+                crc.update(payload.duplicate());
+                if ((int) crc.getValue() != checksum) {
+                    logger.warn("[WAL] Registro corrompido em {} (posição {})", segmentPath.getFileName(), start);
+                    break;
+                }
+
+                byte type = payload.get();
+                switch (type) {
+                    case SAVE -> handler.onSave(OrderRecordCodec.read(payload));
+                    case DELETE -> handler.onDelete(payload.getLong());
+                    case CLEAR -> handler.onClear();
+                    default -> throw new IOException("Tipo de registro desconhecido: " + type);
+                }
+                mapped.position(start + HEADER_SIZE + length);
+                records++;
+            }
+            return records;
+        }
+    }
+
+    /**
+     * Recebe os registros durante a recuperação.
+     */
+    interface ReplayHandler {
+
+        void onSave(Order order);
+
+        void onDelete(long id);
+
+        void onClear();
+    }
+
+    private record Entry(ByteBuffer record, CompletableFuture<Long> done) {
+    }
+}
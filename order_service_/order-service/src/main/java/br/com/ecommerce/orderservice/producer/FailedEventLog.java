@@ -0,0 +1,133 @@
+package br.com.ecommerce.orderservice.producer;
+
+import br.com.ecommerce.orderservice.event.OrderCreatedEvent;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+
+/**
+ * Arquivo local com os eventos que o producer desistiu de publicar
+ * (tentativas esgotadas ou mensagem devolvida sem rota), para que possam ser
+ * republicados depois em vez de se perderem com uma linha de log.
+ *
+ * Formato NDJSON, uma linha por evento:
+ * {"failedAt":epoch ms,"reason":"...","event":{OrderCreatedEvent}}
+ *
+ * Cada linha é gravada com fsync: falhas de publicação são raras, e o arquivo
+ * é a única cópia do evento quando o outbox está desabilitado. Com o outbox
+ * habilitado o OutboxRelay não passa por aqui: o evento continua no journal
+ * e é publicado de novo pelo próprio relay.
+ *
+ * O replay (POST /orders/publisher/failed-events/replay) move o arquivo para
+ * &lt;arquivo&gt;.replaying e republica cada evento; o arquivo movido só é apagado
+ * depois que todos os eventos foram reenviados. Se o processo cair no meio, o
+ * próximo replay recomeça por ele (o consumer é idempotente por orderId).
+ */
+@Component
+public class FailedEventLog {
+
+    private static final Logger logger = LoggerFactory.getLogger(FailedEventLog.class);
+
+    private final ObjectMapper objectMapper;
+    private final Path file;
+    private final Path replayingFile;
+    private final ReentrantLock lock = new ReentrantLock();
+    private final ReentrantLock replayLock = new ReentrantLock();
+
+    public FailedEventLog(ObjectMapper objectMapper,
+                          @Value("${rabbitmq.producer.failed-events.file:./data/failed-events.ndjson}") String file) {
+        this.objectMapper = objectMapper;
+        this.file = Path.of(file);
+        this.replayingFile = Path.of(file + ".replaying");
+    }
+
+    /**
+     * Grava o evento no arquivo; se nem isso for possível, o evento completo vai para o log de erro.
+     */
+    public void record(OrderCreatedEvent event, String reason) {
+        lock.lock();
+        try {
+            ObjectNode line = objectMapper.createObjectNode();
+            line.put("failedAt", System.currentTimeMillis());
+            line.put("reason", reason);
+            line.set("event", objectMapper.valueToTree(event));
+            byte[] bytes = (objectMapper.writeValueAsString(line) + "\n").getBytes(StandardCharsets.UTF_8);
+
+            if (file.getParent() != null) {
+                Files.createDirectories(file.getParent());
+            }
+            try (FileChannel channel = FileChannel.open(file,
+                    StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND)) {
+                ByteBuffer buffer = ByteBuffer.wrap(bytes);
+                while (buffer.hasRemaining()) {
+                    channel.write(buffer);
+                }
+                channel.force(true);
+            }
+        } catch (IOException | RuntimeException e) {
+            logger.error("[PRODUCER] Falha ao gravar o evento não publicado em {}: {}; evento: {}",
+                    file, e.getMessage(), event, e);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Entrega cada evento gravado ao publisher e apaga o arquivo processado.
+     *
+     * @return Quantidade de eventos reenviados
+     */
+    public int replay(Consumer<OrderCreatedEvent> publisher) throws IOException {
+        if (!replayLock.tryLock()) {
+            throw new IllegalStateException("Já existe um replay dos eventos não publicados em andamento");
+        }
+        try {
+            lock.lock();
+            try {
+                // Um replay interrompido é retomado antes de mover o arquivo atual
+                if (!Files.exists(replayingFile)) {
+                    if (!Files.exists(file)) {
+                        return 0;
+                    }
+                    Files.move(file, replayingFile, StandardCopyOption.ATOMIC_MOVE);
+                }
+            } finally {
+                lock.unlock();
+            }
+
+            int replayed = 0;
+            try (BufferedReader reader = Files.newBufferedReader(replayingFile, StandardCharsets.UTF_8)) {
+                String line;
+                while ((line = reader.readLine()) != null) {
+                    if (line.isBlank()) {
+                        continue;
+                    }
+                    JsonNode node = objectMapper.readTree(line);
+                    publisher.accept(objectMapper.treeToValue(node.get("event"), OrderCreatedEvent.class));
+                    replayed++;
+                }
+            }
+            Files.delete(replayingFile);
+            logger.info("[PRODUCER] {} evento(s) não publicado(s) reenviado(s) a partir de {}", replayed, file);
+            return replayed;
+        } finally {
+            replayLock.unlock();
+        }
+    }
+}
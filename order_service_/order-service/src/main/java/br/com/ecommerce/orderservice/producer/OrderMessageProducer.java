@@ -1,55 +1,370 @@
 package br.com.ecommerce.orderservice.producer;
 
+import br.com.ecommerce.orderservice.audit.AuditLog;
 import br.com.ecommerce.orderservice.event.OrderCreatedEvent;
+import jakarta.annotation.PreDestroy;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.amqp.AmqpException;
+import org.springframework.amqp.core.MessagePostProcessor;
+import org.springframework.amqp.rabbit.connection.CorrelationData;
+import org.springframework.amqp.rabbit.core.BatchingRabbitTemplate;
 import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.TaskExecutor;
 import org.springframework.stereotype.Component;
 
+import java.io.IOException;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+
 /**
  * Producer responsável por publicar mensagens no RabbitMQ.
- * 
+ *
  * Este componente encapsula a lógica de envio de mensagens,
  * abstraindo os detalhes do RabbitMQ do resto da aplicação.
+ *
+ * A publicação é assíncrona e usa publisher confirms correlacionados:
+ * - O envio acontece em um executor próprio, liberando a thread HTTP
+ * - Uma janela (Semaphore) limita a quantidade de mensagens sem confirmação
+ * - Cada evento recebe um CompletableFuture concluído no ack do broker
+ * - Eventos com nack, timeout de confirmação ou erro de envio são reenviados
+ * - Mensagens devolvidas (returns) por falta de rota falham imediatamente
+ * - Eventos que falham de vez (fora do outbox) são contados (dropped) e
+ *   gravados no FailedEventLog, de onde podem ser republicados
+ *
+ * Com rabbitmq.sharding.enabled=true, a routing key de cada evento é escolhida
+ * pelo OrderShardRouter e cada shard é publicado por uma fila serial própria
+ * (sobre o mesmo executor), preservando a ordem dos eventos de um cliente.
+ * Uma nova tentativa após nack ou timeout pode ultrapassar eventos posteriores
+ * do mesmo shard; por isso o consumer continua idempotente por orderId.
+ *
+ * Toda mensagem leva o cabeçalho x-published-at (epoch em ms da primeira
+ * tentativa), usado pelo notification-service para medir a latência de ponta a
+ * ponta até a notificação. As latências de espera e de confirmação são
+ * registradas no PublisherMetrics (Micrometer).
+ *
+ * Quando rabbitmq.producer.batch.enabled=true, os eventos são enviados
+ * pelo BatchingRabbitTemplate e agrupados em uma única mensagem AMQP.
+ * Nesse modo não há confirmação por evento: o future é concluído quando
+ * o evento entra no lote. Quem precisa da confirmação do broker (OutboxRelay)
+ * usa sendOrderCreatedEventConfirmed, que nunca passa pelo lote.
  */
 @Component
 public class OrderMessageProducer {
 
     private static final Logger logger = LoggerFactory.getLogger(OrderMessageProducer.class);
 
+    public static final String PUBLISHED_AT_HEADER = "x-published-at";
+
+    // No modo lote, o cabeçalho do lote vale para todos os eventos desempacotados
+    private static final MessagePostProcessor STAMP_PUBLISHED_AT = message -> {
+        message.getMessageProperties().setHeader(PUBLISHED_AT_HEADER, System.currentTimeMillis());
+        return message;
+    };
+
     private final RabbitTemplate rabbitTemplate;
 
+    // Template em modo lote; nulo quando o modo lote está desabilitado
+    private final BatchingRabbitTemplate batchingRabbitTemplate;
+
+    private final TaskExecutor publishExecutor;
+    private final OrderShardRouter shardRouter;
+
+    // Uma fila serial por shard; vazio sem sharding
+    private final SerialLane[] shardLanes;
+
+    private final PublisherMetrics metrics;
+    private final FailedEventLog failedEventLog;
+    private final AuditLog auditLog;
+    private final Semaphore inFlightWindow;
+    private final ScheduledExecutorService retryScheduler;
+
     @Value("${rabbitmq.exchange.name}")
     private String exchangeName;
 
-    @Value("${rabbitmq.routing.key}")
-    private String routingKey;
+    @Value("${rabbitmq.producer.max-retries:3}")
+    private int maxRetries;
+
+    @Value("${rabbitmq.producer.retry-backoff-ms:200}")
+    private long retryBackoffMs;
 
-    public OrderMessageProducer(RabbitTemplate rabbitTemplate) {
+    @Value("${rabbitmq.producer.confirm-timeout-ms:5000}")
+    private long confirmTimeoutMs;
+
+    public OrderMessageProducer(RabbitTemplate rabbitTemplate,
+                                ObjectProvider<BatchingRabbitTemplate> batchingRabbitTemplate,
+                                @Qualifier("orderPublishExecutor") TaskExecutor publishExecutor,
+                                OrderShardRouter shardRouter,
+                                PublisherMetrics metrics,
+                                FailedEventLog failedEventLog,
+                                AuditLog auditLog,
+                                @Value("${rabbitmq.producer.max-in-flight:256}") int maxInFlight) {
         this.rabbitTemplate = rabbitTemplate;
+        this.batchingRabbitTemplate = batchingRabbitTemplate.getIfAvailable();
+        this.publishExecutor = publishExecutor;
+        this.shardRouter = shardRouter;
+        this.shardLanes = new SerialLane[shardRouter.isSharded() ? shardRouter.shards() : 0];
+        for (int shard = 0; shard < shardLanes.length; shard++) {
+            shardLanes[shard] = new SerialLane(publishExecutor);
+        }
+        this.metrics = metrics;
+        this.failedEventLog = failedEventLog;
+        this.auditLog = auditLog;
+        this.inFlightWindow = new Semaphore(maxInFlight);
+        this.retryScheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "order-publish-retry");
+            thread.setDaemon(true);
+            return thread;
+        });
     }
 
     /**
-     * Publica um evento de pedido criado no RabbitMQ.
-     * 
-     * O evento é automaticamente convertido para JSON pelo MessageConverter
+     * Publica um evento de pedido criado no RabbitMQ de forma assíncrona.
+     *
+     * O evento é automaticamente convertido (JSON ou binário) pelo MessageConverter
      * configurado no RabbitMQConfig.
-     * 
+     *
+     * @param event Evento contendo os dados do pedido
+     * @return Future concluído quando o broker confirma o recebimento do evento
+     */
+    public CompletableFuture<Void> sendOrderCreatedEvent(OrderCreatedEvent event) {
+        logger.debug("[PRODUCER] Enfileirando evento do pedido {} para publicação", event.getOrderId());
+
+        CompletableFuture<Void> result = new CompletableFuture<>();
+
+        if (batchingRabbitTemplate != null) {
+            // Acumula o evento no lote atual; o envio ocorre quando o lote
+            // enche ou quando o tempo de espera configurado expira
+            batchingRabbitTemplate.convertAndSend(exchangeName, shardRouter.routingKeyFor(event), event,
+                    STAMP_PUBLISHED_AT);
+            logger.debug("[PRODUCER] Mensagem adicionada ao lote!");
+            result.complete(null);
+            return result;
+        }
+
+        executorFor(event).execute(() -> publish(new PendingConfirm(event, 1, result, true)));
+        return result;
+    }
+
+    /**
+     * Republica os eventos gravados no FailedEventLog.
+     *
+     * @return Quantidade de eventos reenviados
+     */
+    public int replayFailedEvents() throws IOException {
+        return failedEventLog.replay(this::sendOrderCreatedEvent);
+    }
+
+    /**
+     * Publica um evento com publisher confirm mesmo com o modo lote habilitado.
+     *
      * @param event Evento contendo os dados do pedido
+     * Uma falha definitiva não é gravada no FailedEventLog: quem chama
+     * continua responsável pelo evento (o OutboxRelay o mantém no journal).
+     *
+     * @return Future concluído somente quando o broker confirma o evento
+     */
+    public CompletableFuture<Void> sendOrderCreatedEventConfirmed(OrderCreatedEvent event) {
+        CompletableFuture<Void> result = new CompletableFuture<>();
+        executorFor(event).execute(() -> publish(new PendingConfirm(event, 1, result, false)));
+        return result;
+    }
+
+    private Executor executorFor(OrderCreatedEvent event) {
+        return shardLanes.length == 0 ? publishExecutor : shardLanes[shardRouter.shardFor(event)];
+    }
+
+    /**
+     * Envia o evento assim que houver espaço na janela de mensagens sem confirmação.
+     */
+    private void publish(PendingConfirm pending) {
+        try {
+            inFlightWindow.acquire();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            pending.result.completeExceptionally(e);
+            return;
+        }
+
+        OrderCreatedEvent event = pending.event;
+        CorrelationData correlationData = new CorrelationData(event.getOrderId() + "-" + pending.attempt);
+        pending.startNanos = System.nanoTime();
+        if (pending.attempt == 1) {
+            pending.publishedAtMillis = System.currentTimeMillis();
+            // Espera no executor e na janela de confirms até o envio
+            metrics.onSendWait(pending.startNanos - pending.enqueuedNanos);
+        }
+        metrics.onPublished();
+
+        // O callback roda na thread de conexão do RabbitMQ; não pode bloquear
+        correlationData.getFuture()
+                .orTimeout(confirmTimeoutMs, TimeUnit.MILLISECONDS)
+                .whenComplete((confirm, error) -> {
+                    inFlightWindow.release();
+                    long latency = System.nanoTime() - pending.startNanos;
+
+                    if (error != null) {
+                        metrics.onPublishError(latency);
+                        String reason = error instanceof TimeoutException
+                                ? "timeout de confirmação" : error.getMessage();
+                        retryOrFail(pending, reason);
+                    } else if (correlationData.getReturned() != null) {
+                        metrics.onConfirmed(confirm.isAck(), latency);
+                        metrics.onReturned();
+                        metrics.onFailed();
+                        logger.error("[PRODUCER] Pedido {} devolvido pelo broker: {}",
+                                event.getOrderId(), correlationData.getReturned().getReplyText());
+                        drop(pending, "devolvido: " + correlationData.getReturned().getReplyText());
+                        pending.result.completeExceptionally(new AmqpException(
+                                "Mensagem sem rota: " + correlationData.getReturned().getReplyText()));
+                    } else if (confirm.isAck()) {
+                        metrics.onConfirmed(true, latency);
+                        auditLog.orderPublished(event.getOrderId(), pending.attempt, latency);
+                        pending.result.complete(null);
+                    } else {
+                        metrics.onConfirmed(false, latency);
+                        retryOrFail(pending, confirm.getReason());
+                    }
+                });
+
+        try {
+            long publishedAt = pending.publishedAtMillis;
+            rabbitTemplate.convertAndSend(exchangeName, shardRouter.routingKeyFor(event), event, message -> {
+                message.getMessageProperties().setHeader(PUBLISHED_AT_HEADER, publishedAt);
+                return message;
+            }, correlationData);
+        } catch (AmqpException e) {
+            // Sem conexão o confirm nunca chega; conclui o future de correlação com erro
+            correlationData.getFuture().completeExceptionally(e);
+        }
+    }
+
+    private void retryOrFail(PendingConfirm pending, String reason) {
+        Long orderId = pending.event.getOrderId();
+
+        if (pending.attempt > maxRetries) {
+            metrics.onFailed();
+            logger.error("[PRODUCER] Pedido {} não confirmado após {} tentativas: {}",
+                    orderId, pending.attempt, reason);
+            drop(pending, reason);
+            pending.result.completeExceptionally(new AmqpException(
+                    "Publicação do pedido " + orderId + " não confirmada: " + reason));
+            return;
+        }
+
+        metrics.onRetry();
+        long delay = retryBackoffMs * (1L << (pending.attempt - 1));
+        logger.warn("[PRODUCER] Pedido {} não confirmado ({}); nova tentativa em {} ms",
+                orderId, reason, delay);
+
+        PendingConfirm next = new PendingConfirm(pending.event, pending.attempt + 1, pending.result,
+                pending.recordOnFailure);
+        next.publishedAtMillis = pending.publishedAtMillis;
+        retryScheduler.schedule(() -> executorFor(next.event).execute(() -> publish(next)),
+                delay, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Grava no FailedEventLog um evento que não será mais reenviado, para replay posterior.
+     * Roda na thread de callback do RabbitMQ: falhas definitivas são raras, então o fsync aqui é aceitável.
+     */
+    private void drop(PendingConfirm pending, String reason) {
+        if (pending.recordOnFailure) {
+            metrics.onDropped();
+            failedEventLog.record(pending.event, reason);
+        }
+    }
+
+    /**
+     * Garante que o lote pendente seja enviado antes do encerramento da aplicação.
+     */
+    @PreDestroy
+    public void flush() {
+        retryScheduler.shutdown();
+        if (batchingRabbitTemplate != null) {
+            batchingRabbitTemplate.flush();
+        }
+    }
+
+    /**
+     * Estado de uma tentativa de publicação aguardando confirmação.
      */
-    public void sendOrderCreatedEvent(OrderCreatedEvent event) {
-        logger.info("=================================================");
-        logger.info("[PRODUCER] Enviando mensagem para RabbitMQ...");
-        logger.info("[PRODUCER] Exchange: {}", exchangeName);
-        logger.info("[PRODUCER] Routing Key: {}", routingKey);
-        logger.info("[PRODUCER] Evento: {}", event);
-        
-        // Envia a mensagem para a exchange com a routing key especificada
-        // O RabbitMQ irá rotear para a fila correta baseado no binding
-        rabbitTemplate.convertAndSend(exchangeName, routingKey, event);
-        
-        logger.info("[PRODUCER] Mensagem enviada com sucesso!");
-        logger.info("=================================================");
+    private static final class PendingConfirm {
+
+        private final OrderCreatedEvent event;
+        private final int attempt;
+        private final CompletableFuture<Void> result;
+        // Falso quando quem chama guarda o evento (OutboxRelay)
+        private final boolean recordOnFailure;
+        private final long enqueuedNanos = System.nanoTime();
+        private volatile long startNanos;
+
+        // Momento da primeira tentativa, mantido nas novas tentativas
+        private volatile long publishedAtMillis;
+
+        private PendingConfirm(OrderCreatedEvent event, int attempt, CompletableFuture<Void> result,
+                               boolean recordOnFailure) {
+            this.event = event;
+            this.attempt = attempt;
+            this.result = result;
+            this.recordOnFailure = recordOnFailure;
+        }
+    }
+
+    /**
+     * Executa as tarefas de um shard uma por vez, na ordem de chegada, usando
+     * as threads do executor de publicação (nenhuma thread dedicada por shard).
+     */
+    private static final class SerialLane implements Executor {
+
+        private final Executor delegate;
+        private final Queue<Runnable> tasks = new ConcurrentLinkedQueue<>();
+        private final AtomicBoolean scheduled = new AtomicBoolean();
+
+        private SerialLane(Executor delegate) {
+            this.delegate = delegate;
+        }
+
+        @Override
+        public void execute(Runnable task) {
+            tasks.add(task);
+            schedule();
+        }
+
+        private void schedule() {
+            if (scheduled.compareAndSet(false, true)) {
+                delegate.execute(this::drain);
+            }
+        }
+
+        private void drain() {
+            try {
+                Runnable task;
+                while ((task = tasks.poll()) != null) {
+                    try {
+                        task.run();
+                    } catch (RuntimeException e) {
+                        logger.error("[PRODUCER] Falha na publicação do shard: {}", e.getMessage());
+                    }
+                }
+            } finally {
+                scheduled.set(false);
+                // Tarefa adicionada entre o último poll e a liberação da fila
+                if (!tasks.isEmpty()) {
+                    schedule();
+                }
+            }
+        }
     }
 }
@@ -0,0 +1,112 @@
+package br.com.ecommerce.orderservice.producer;
+
+import br.com.ecommerce.orderservice.event.OrderCreatedEvent;
+
+/**
+ * Escolhe o shard de cada evento quando rabbitmq.sharding.enabled=true.
+ *
+ * A chave (customerName ou orderId, em rabbitmq.sharding.key) é convertida em
+ * um hash estável entre JVMs e distribuída com o Jump Consistent Hash: todos
+ * os eventos de um mesmo cliente vão para o mesmo shard, e aumentar a
+ * quantidade de shards move apenas ~1/N das chaves.
+ *
+ * Cada shard tem uma fila própria (&lt;fila&gt;.shard-&lt;n&gt;), ligada à exchange
+ * pela routing key &lt;routing key&gt;.shard-&lt;n&gt;. Sem sharding, a routing key
+ * original é usada para todos os eventos.
+ */
+public class OrderShardRouter {
+
+    private final String routingKey;
+    private final boolean sharded;
+    private final int shards;
+    private final boolean byOrderId;
+
+    // Routing keys pré-calculadas, sem concatenação por evento
+    private final String[] shardRoutingKeys;
+
+    public OrderShardRouter(String routingKey, int shards, String key) {
+        this(routingKey, true, shards, key);
+    }
+
+    private OrderShardRouter(String routingKey, boolean sharded, int shards, String key) {
+        if (shards < 1) {
+            throw new IllegalArgumentException("Quantidade de shards inválida: " + shards);
+        }
+        this.routingKey = routingKey;
+        this.sharded = sharded;
+        this.shards = shards;
+        this.byOrderId = "orderId".equalsIgnoreCase(key);
+        this.shardRoutingKeys = new String[shards];
+        for (int shard = 0; shard < shards; shard++) {
+            shardRoutingKeys[shard] = shardRoutingKey(routingKey, shard);
+        }
+    }
+
+    /**
+     * Roteador que mantém a routing key original (sharding desabilitado).
+     */
+    public static OrderShardRouter unsharded(String routingKey) {
+        return new OrderShardRouter(routingKey, false, 1, null);
+    }
+
+    public boolean isSharded() {
+        return sharded;
+    }
+
+    public int shards() {
+        return shards;
+    }
+
+    public String routingKeyFor(OrderCreatedEvent event) {
+        return sharded ? shardRoutingKeys[shardFor(event)] : routingKey;
+    }
+
+    public int shardFor(OrderCreatedEvent event) {
+        if (!sharded) {
+            return 0;
+        }
+        if (!byOrderId && event.getCustomerName() != null) {
+            return jumpHash(mix(event.getCustomerName().hashCode()), shards);
+        }
+        if (event.getOrderId() != null) {
+            return jumpHash(mix(event.getOrderId()), shards);
+        }
+        return 0;
+    }
+
+    public static String shardRoutingKey(String routingKey, int shard) {
+        return routingKey + ".shard-" + shard;
+    }
+
+    public static String shardQueue(String queueName, int shard) {
+        return queueName + ".shard-" + shard;
+    }
+
+    /**
+     * Finalizador do MurmurHash3: espalha os bits do String.hashCode (definido
+     * pela especificação da linguagem, logo igual em qualquer JVM).
+     */
+    static long mix(long value) {
+        long h = value;
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        h ^= h >>> 33;
+        return h;
+    }
+
+    /**
+     * Jump Consistent Hash (Lamping e Veach): shard em [0, buckets) sem tabela.
+     */
+    static int jumpHash(long key, int buckets) {
+        long b = -1;
+        long j = 0;
+        while (j < buckets) {
+            b = j;
+            key = key * 2862933555777941757L + 1;
+            j = (long) ((b + 1) * ((double) (1L << 31) / (double) ((key >>> 33) + 1)));
+        }
+        return (int) b;
+    }
+}
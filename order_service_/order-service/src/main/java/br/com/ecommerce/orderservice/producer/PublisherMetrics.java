@@ -0,0 +1,158 @@
+package br.com.ecommerce.orderservice.producer;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Métricas do pipeline de publicação com publisher confirms.
+ *
+ * Os contadores usam LongAdder para não gerar contenção entre as
+ * threads de publicação e as threads de callback do RabbitMQ.
+ *
+ * Também publicados no Micrometer (/actuator/prometheus):
+ * - orders.publish.wait: do enfileiramento do evento até o envio ao broker
+ *   (executor de publicação + janela de confirms)
+ * - orders.publish.confirm: do envio até o confirm, por resultado (ack, nack, error)
+ * - orders.publish.messages: contadores por resultado; orders.publish.in.flight
+ *   (dropped: eventos sem outbox que o producer desistiu de publicar, gravados
+ *   no FailedEventLog para replay)
+ *
+ * Histogramas e percentis são configurados em management.metrics.distribution.*
+ */
+@Component
+public class PublisherMetrics {
+
+    private final LongAdder published = new LongAdder();
+    private final LongAdder acked = new LongAdder();
+    private final LongAdder nacked = new LongAdder();
+    private final LongAdder returned = new LongAdder();
+    private final LongAdder retried = new LongAdder();
+    private final LongAdder failed = new LongAdder();
+    // Falhas definitivas fora do outbox, gravadas no FailedEventLog
+    private final LongAdder dropped = new LongAdder();
+
+    // Mensagens publicadas que ainda aguardam confirmação do broker
+    private final AtomicInteger inFlight = new AtomicInteger();
+
+    private final LongAdder confirmCount = new LongAdder();
+    private final LongAdder confirmNanosTotal = new LongAdder();
+    private final LongAccumulator confirmNanosMax = new LongAccumulator(Math::max, 0);
+
+    private final Timer sendWait;
+    private final Timer confirmAck;
+    private final Timer confirmNack;
+    private final Timer confirmError;
+
+    public PublisherMetrics(MeterRegistry registry) {
+        this.sendWait = Timer.builder("orders.publish.wait")
+                .description("Espera do evento até o envio ao broker")
+                .register(registry);
+        this.confirmAck = confirmTimer(registry, "ack");
+        this.confirmNack = confirmTimer(registry, "nack");
+        this.confirmError = confirmTimer(registry, "error");
+
+        counter(registry, "published", published);
+        counter(registry, "acked", acked);
+        counter(registry, "nacked", nacked);
+        counter(registry, "returned", returned);
+        counter(registry, "retried", retried);
+        counter(registry, "failed", failed);
+        counter(registry, "dropped", dropped);
+        Gauge.builder("orders.publish.in.flight", inFlight, AtomicInteger::get)
+                .description("Mensagens publicadas aguardando confirmação")
+                .register(registry);
+    }
+
+    private static Timer confirmTimer(MeterRegistry registry, String result) {
+        return Timer.builder("orders.publish.confirm")
+                .description("Latência entre o envio e o confirm do broker")
+                .tag("result", result)
+                .register(registry);
+    }
+
+    private static void counter(MeterRegistry registry, String result, LongAdder adder) {
+        FunctionCounter.builder("orders.publish.messages", adder, LongAdder::sum)
+                .tag("result", result)
+                .register(registry);
+    }
+
+    void onSendWait(long waitNanos) {
+        sendWait.record(waitNanos, TimeUnit.NANOSECONDS);
+    }
+
+    void onPublished() {
+        published.increment();
+        inFlight.incrementAndGet();
+    }
+
+    void onConfirmed(boolean ack, long latencyNanos) {
+        inFlight.decrementAndGet();
+        if (ack) {
+            acked.increment();
+            confirmAck.record(latencyNanos, TimeUnit.NANOSECONDS);
+        } else {
+            nacked.increment();
+            confirmNack.record(latencyNanos, TimeUnit.NANOSECONDS);
+        }
+        confirmCount.increment();
+        confirmNanosTotal.add(latencyNanos);
+        confirmNanosMax.accumulate(latencyNanos);
+    }
+
+    void onPublishError(long latencyNanos) {
+        inFlight.decrementAndGet();
+        confirmError.record(latencyNanos, TimeUnit.NANOSECONDS);
+    }
+
+    void onReturned() {
+        returned.increment();
+    }
+
+    void onRetry() {
+        retried.increment();
+    }
+
+    void onFailed() {
+        failed.increment();
+    }
+
+    void onDropped() {
+        dropped.increment();
+    }
+
+    public int getInFlight() {
+        return inFlight.get();
+    }
+
+    /**
+     * Retorna uma fotografia dos contadores atuais.
+     * @return Mapa com os valores das métricas
+     */
+    public Map<String, Object> snapshot() {
+        long count = confirmCount.sum();
+        Map<String, Object> values = new LinkedHashMap<>();
+        values.put("published", published.sum());
+        values.put("acked", acked.sum());
+        values.put("nacked", nacked.sum());
+        values.put("returned", returned.sum());
+        values.put("retried", retried.sum());
+        values.put("failed", failed.sum());
+        values.put("dropped", dropped.sum());
+        values.put("inFlight", inFlight.get());
+        values.put("confirmLatencyAvgMs",
+                count == 0 ? 0.0 : confirmNanosTotal.sum() / (double) count / TimeUnit.MILLISECONDS.toNanos(1));
+        values.put("confirmLatencyMaxMs",
+                confirmNanosMax.get() / (double) TimeUnit.MILLISECONDS.toNanos(1));
+        return values;
+    }
+}
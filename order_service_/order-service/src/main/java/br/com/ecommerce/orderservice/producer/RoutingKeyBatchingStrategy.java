@@ -0,0 +1,102 @@
+package br.com.ecommerce.orderservice.producer;
+
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.core.MessageProperties;
+import org.springframework.amqp.rabbit.batch.BatchingStrategy;
+import org.springframework.amqp.rabbit.batch.MessageBatch;
+import org.springframework.amqp.rabbit.batch.SimpleBatchingStrategy;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+
+/**
+ * Estratégia de lote com um lote independente por exchange/routing key.
+ *
+ * O SimpleBatchingStrategy guarda um único lote e o libera sempre que chega
+ * uma mensagem com outra routing key. Com sharding, eventos consecutivos quase
+ * sempre vão para shards diferentes, então os lotes teriam um único evento.
+ * Aqui cada routing key (um shard) tem o seu SimpleBatchingStrategy, com os
+ * mesmos limites de tamanho, bytes e espera; o formato da mensagem em lote é
+ * o mesmo, e o consumer desempacota sem mudança.
+ *
+ * O próximo envio agendado é o mais próximo entre os lotes pendentes, e o
+ * flush libera todos eles.
+ */
+public class RoutingKeyBatchingStrategy implements BatchingStrategy {
+
+    private final int batchSize;
+    private final int bufferLimit;
+    private final long timeout;
+
+    // Também usado para desempacotar, que não depende de estado
+    private final SimpleBatchingStrategy debatching;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Map<String, SimpleBatchingStrategy> batches = new LinkedHashMap<>();
+
+    public RoutingKeyBatchingStrategy(int batchSize, int bufferLimit, long timeout) {
+        this.batchSize = batchSize;
+        this.bufferLimit = bufferLimit;
+        this.timeout = timeout;
+        this.debatching = new SimpleBatchingStrategy(batchSize, bufferLimit, timeout);
+    }
+
+    @Override
+    public MessageBatch addToBatch(String exchange, String routingKey, Message message) {
+        lock.lock();
+        try {
+            return batches.computeIfAbsent(exchange + '\u0000' + routingKey,
+                            ignored -> new SimpleBatchingStrategy(batchSize, bufferLimit, timeout))
+                    .addToBatch(exchange, routingKey, message);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public Date nextRelease() {
+        lock.lock();
+        try {
+            Date next = null;
+            for (SimpleBatchingStrategy batch : batches.values()) {
+                Date release = batch.nextRelease();
+                if (release != null && (next == null || release.before(next))) {
+                    next = release;
+                }
+            }
+            return next;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public Collection<MessageBatch> releaseBatches() {
+        lock.lock();
+        try {
+            List<MessageBatch> released = new ArrayList<>();
+            for (SimpleBatchingStrategy batch : batches.values()) {
+                released.addAll(batch.releaseBatches());
+            }
+            return released;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public boolean canDebatch(MessageProperties properties) {
+        return debatching.canDebatch(properties);
+    }
+
+    @Override
+    public void deBatch(Message message, Consumer<Message> fragmentListener) {
+        debatching.deBatch(message, fragmentListener);
+    }
+}
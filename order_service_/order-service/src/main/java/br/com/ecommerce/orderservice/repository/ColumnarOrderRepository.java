@@ -0,0 +1,303 @@
+package br.com.ecommerce.orderservice.repository;
+
+import br.com.ecommerce.orderservice.model.Order;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.LongStream;
+import java.util.stream.Stream;
+
+/**
+ * Repositório em memória com layout colunar (orders.repository.engine=columnar).
+ *
+ * Em vez de um objeto Order por pedido, os campos ficam em arrays de tipos
+ * primitivos organizados em páginas de tamanho fixo:
+ * - amount: double[]
+ * - createdAt: long[] (nanossegundos desde a época, UTC)
+ * - customerName e product: int[] com códigos de um StringDictionary
+ * - estado da linha: AtomicIntegerArray (vazia, ativa ou removida)
+ *
+ * O ID é a própria posição da linha (id - 1), então não é armazenado.
+ * Cada pedido ocupa cerca de 28 bytes nas colunas e mais 16 bytes nos
+ * índices de cliente e produto (PostingListIndex: um long[] de IDs por
+ * código do dicionário). O RepositoryFootprint (módulo benchmarks) mede
+ * cerca de 51 bytes por pedido no total, contra cerca de 290 bytes do
+ * InMemoryOrderRepository.
+ * Os objetos Order são montados apenas na leitura.
+ *
+ * Concorrência: cada ID é gravado por uma única thread; as colunas são
+ * escritas antes do estado ACTIVE (escrita volátil), e os leitores só
+ * leem as colunas depois de observar esse estado.
+ */
+@Repository("orderRepositoryEngine")
+@ConditionalOnProperty(name = "orders.repository.engine", havingValue = "columnar")
+public class ColumnarOrderRepository implements OrderRepository {
+
+    private static final int PAGE_SHIFT = 14;
+    private static final int PAGE_SIZE = 1 << PAGE_SHIFT;
+    private static final int PAGE_MASK = PAGE_SIZE - 1;
+
+    private static final int EMPTY = 0;
+    private static final int ACTIVE = 1;
+    private static final int DELETED = 2;
+
+    private static final long NANOS_PER_SECOND = 1_000_000_000L;
+
+    // Gerador de IDs atômico (thread-safe)
+    private final AtomicLong idGenerator = new AtomicLong(1);
+    private final AtomicLong activeCount = new AtomicLong();
+
+    private final StringDictionary customerDictionary = new StringDictionary();
+    private final StringDictionary productDictionary = new StringDictionary();
+
+    // Índices secundários por código do dicionário: cliente → IDs e produto → IDs
+    private final PostingListIndex customerIndex = new PostingListIndex();
+    private final PostingListIndex productIndex = new PostingListIndex();
+
+    private final ReentrantLock pageLock = new ReentrantLock();
+    private volatile Page[] pages = new Page[16];
+
+    @Override
+    public Order save(Order order) {
+        long id = idGenerator.getAndIncrement();
+        Order saved = order.withId(id);
+        writeRow(id, saved);
+        return saved;
+    }
+
+    @Override
+    public long nextId() {
+        return idGenerator.getAndIncrement();
+    }
+
+    @Override
+    public void restore(Order order) {
+        long id = order.getId();
+        reserveIdsThrough(id);
+        writeRow(id, order);
+    }
+
+    /**
+     * Grava as colunas da linha e a publica para os leitores.
+     * Linhas já ocupadas (ativas ou removidas) não são sobrescritas.
+     */
+    private void writeRow(long id, Order order) {
+        int row = (int) ((id - 1) & PAGE_MASK);
+        Page page = pageFor(id - 1);
+        if (page.state.get(row) != EMPTY) {
+            return;
+        }
+        int customer = customerDictionary.encode(order.getCustomerName());
+        int product = productDictionary.encode(order.getProduct());
+        page.amount[row] = order.getAmount();
+        page.createdAt[row] = toEpochNanos(order.getCreatedAt());
+        page.customer[row] = customer;
+        page.product[row] = product;
+        // Publica a linha: a partir daqui ela é visível para os leitores
+        page.state.set(row, ACTIVE);
+        page.active.incrementAndGet();
+        activeCount.incrementAndGet();
+
+        customerIndex.add(customer, id);
+        productIndex.add(product, id);
+    }
+
+    @Override
+    public void reserveIdsThrough(long id) {
+        idGenerator.accumulateAndGet(id + 1, Math::max);
+    }
+
+    @Override
+    public Optional<Order> findById(Long id) {
+        return Optional.ofNullable(read(id));
+    }
+
+    @Override
+    public List<Order> findAll() {
+        List<Order> result = new ArrayList<>((int) Math.min(activeCount.get(), Integer.MAX_VALUE));
+        streamAll().forEach(result::add);
+        return result;
+    }
+
+    @Override
+    public List<Order> findPage(Long afterId, int limit) {
+        long maxId = idGenerator.get() - 1;
+        List<Order> result = new ArrayList<>(limit);
+        long id = afterId == null ? 1 : Math.max(1, afterId + 1);
+        while (id <= maxId && result.size() < limit) {
+            Page page = existingPage(id);
+            // Último ID coberto pela página de id
+            long pageEnd = ((id - 1) | PAGE_MASK) + 1;
+            if (page == null || page.active.get() == 0) {
+                // Página inexistente ou só com linhas removidas (ou ainda não gravadas)
+                id = pageEnd + 1;
+                continue;
+            }
+            for (long last = Math.min(pageEnd, maxId); id <= last && result.size() < limit; id++) {
+                Order order = read(id);
+                if (order != null) {
+                    result.add(order);
+                }
+            }
+        }
+        return result;
+    }
+
+    @Override
+    public List<Order> findByCustomerName(String customerName, Long afterId, int limit) {
+        int code = customerDictionary.find(customerName);
+        return code < 0 ? List.of() : resolve(customerIndex.find(code, afterId, limit));
+    }
+
+    @Override
+    public List<Order> findByProduct(String product, Long afterId, int limit) {
+        int code = productDictionary.find(product);
+        return code < 0 ? List.of() : resolve(productIndex.find(code, afterId, limit));
+    }
+
+    private List<Order> resolve(long[] ids) {
+        List<Order> result = new ArrayList<>(ids.length);
+        for (long id : ids) {
+            Order order = read(id);
+            if (order != null) {
+                result.add(order);
+            }
+        }
+        return result;
+    }
+
+    @Override
+    public Stream<Order> streamAll() {
+        return LongStream.rangeClosed(1, idGenerator.get() - 1)
+                .mapToObj(this::read)
+                .filter(Objects::nonNull);
+    }
+
+    @Override
+    public long count() {
+        return activeCount.get();
+    }
+
+    @Override
+    public void deleteById(Long id) {
+        Page page = existingPage(id);
+        if (page == null) {
+            return;
+        }
+        int row = (int) ((id - 1) & PAGE_MASK);
+        if (page.state.compareAndSet(row, ACTIVE, DELETED)) {
+            page.active.decrementAndGet();
+            activeCount.decrementAndGet();
+            customerIndex.remove(page.customer[row], id);
+            productIndex.remove(page.product[row], id);
+        }
+    }
+
+    @Override
+    public void deleteAll() {
+        pageLock.lock();
+        try {
+            pages = new Page[16];
+            activeCount.set(0);
+            customerIndex.clear();
+            productIndex.clear();
+            customerDictionary.clear();
+            productDictionary.clear();
+        } finally {
+            pageLock.unlock();
+        }
+    }
+
+    /**
+     * Monta o Order de uma linha ativa, ou null se a linha não existir.
+     */
+    private Order read(Long id) {
+        if (id == null) {
+            return null;
+        }
+        Page page = existingPage(id);
+        if (page == null) {
+            return null;
+        }
+        int row = (int) ((id - 1) & PAGE_MASK);
+        if (page.state.get(row) != ACTIVE) {
+            return null;
+        }
+
+        return new Order(id,
+                customerDictionary.decode(page.customer[row]),
+                productDictionary.decode(page.product[row]),
+                page.amount[row],
+                fromEpochNanos(page.createdAt[row]));
+    }
+
+    private Page existingPage(long id) {
+        if (id < 1) {
+            return null;
+        }
+        long pageIndex = (id - 1) >>> PAGE_SHIFT;
+        Page[] current = pages;
+        return pageIndex < current.length ? current[(int) pageIndex] : null;
+    }
+
+    /**
+     * Retorna a página da linha, alocando-a (e crescendo a tabela) se necessário.
+     */
+    private Page pageFor(long rowIndex) {
+        int pageIndex = (int) (rowIndex >>> PAGE_SHIFT);
+        Page[] current = pages;
+        if (pageIndex < current.length && current[pageIndex] != null) {
+            return current[pageIndex];
+        }
+        pageLock.lock();
+        try {
+            current = pages;
+            if (pageIndex >= current.length) {
+                current = Arrays.copyOf(current, Math.max(current.length * 2, pageIndex + 1));
+            }
+            if (current[pageIndex] == null) {
+                current[pageIndex] = new Page();
+            }
+            pages = current;
+            return current[pageIndex];
+        } finally {
+            pageLock.unlock();
+        }
+    }
+
+    private static long toEpochNanos(LocalDateTime dateTime) {
+        return dateTime.toEpochSecond(ZoneOffset.UTC) * NANOS_PER_SECOND + dateTime.getNano();
+    }
+
+    private static LocalDateTime fromEpochNanos(long epochNanos) {
+        return LocalDateTime.ofEpochSecond(
+                Math.floorDiv(epochNanos, NANOS_PER_SECOND),
+                (int) Math.floorMod(epochNanos, NANOS_PER_SECOND),
+                ZoneOffset.UTC);
+    }
+
+    /**
+     * Página com PAGE_SIZE linhas de cada coluna.
+     */
+    private static final class Page {
+
+        private final double[] amount = new double[PAGE_SIZE];
+        private final long[] createdAt = new long[PAGE_SIZE];
+        private final int[] customer = new int[PAGE_SIZE];
+        private final int[] product = new int[PAGE_SIZE];
+        private final AtomicIntegerArray state = new AtomicIntegerArray(PAGE_SIZE);
+        // Linhas ativas: a paginação pula páginas sem nenhuma
+        private final AtomicInteger active = new AtomicInteger();
+    }
+}
@@ -0,0 +1,192 @@
+package br.com.ecommerce.orderservice.repository;
+
+import br.com.ecommerce.orderservice.model.Order;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Repository;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.NavigableMap;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+
+/**
+ * Repositório em memória para armazenar pedidos (engine padrão: orders.repository.engine=map).
+ * Utiliza ConcurrentSkipListMap para thread-safety e AtomicLong para gerar IDs únicos.
+ * O mapa é ordenado por ID, o que permite paginação por cursor (keyset) sem
+ * copiar todos os pedidos.
+ * Esta implementação simula um banco de dados para fins didáticos.
+ */
+@Repository("orderRepositoryEngine")
+@ConditionalOnProperty(name = "orders.repository.engine", havingValue = "map", matchIfMissing = true)
+public class InMemoryOrderRepository implements OrderRepository {
+
+    // Map thread-safe e ordenado por ID para armazenar os pedidos
+    private final NavigableMap<Long, Order> orders = new ConcurrentSkipListMap<>();
+    
+    // Gerador de IDs atômico (thread-safe)
+    private final AtomicLong idGenerator = new AtomicLong(1);
+
+    // Índices secundários: cliente → IDs e produto → IDs
+    private final OrderSecondaryIndex customerIndex = new OrderSecondaryIndex();
+    private final OrderSecondaryIndex productIndex = new OrderSecondaryIndex();
+
+    /**
+     * Salva um novo pedido gerando um ID automático.
+     * @param order Pedido a ser salvo
+     * @return Pedido salvo com ID gerado
+     */
+    @Override
+    public Order save(Order order) {
+        Long id = idGenerator.getAndIncrement();
+        Order saved = order.withId(id);
+        orders.put(id, saved);
+        customerIndex.add(saved.getCustomerName(), id);
+        productIndex.add(saved.getProduct(), id);
+        return saved;
+    }
+
+    /**
+     * Busca um pedido por ID.
+     * @param id ID do pedido
+     * @return Optional contendo o pedido se encontrado
+     */
+    @Override
+    public Optional<Order> findById(Long id) {
+        return Optional.ofNullable(orders.get(id));
+    }
+
+    /**
+     * Retorna todos os pedidos.
+     * @return Lista com todos os pedidos
+     */
+    @Override
+    public List<Order> findAll() {
+        return new ArrayList<>(orders.values());
+    }
+
+    /**
+     * Retorna uma página de pedidos ordenada por ID (paginação por cursor).
+     * O custo depende apenas do tamanho da página, não do total de pedidos.
+     *
+     * @param afterId Último ID da página anterior (null para a primeira página)
+     * @param limit Quantidade máxima de pedidos na página
+     * @return Pedidos com ID maior que afterId, em ordem crescente
+     */
+    @Override
+    public List<Order> findPage(Long afterId, int limit) {
+        NavigableMap<Long, Order> tail = afterId == null ? orders : orders.tailMap(afterId, false);
+        List<Order> page = new ArrayList<>(limit);
+        for (Order order : tail.values()) {
+            if (page.size() == limit) {
+                break;
+            }
+            page.add(order);
+        }
+        return page;
+    }
+
+    /**
+     * Busca pedidos de um cliente usando o índice secundário.
+     *
+     * @param customerName Nome do cliente
+     * @param afterId Último ID da página anterior (null para a primeira página)
+     * @param limit Quantidade máxima de pedidos
+     * @return Pedidos do cliente em ordem crescente de ID
+     */
+    @Override
+    public List<Order> findByCustomerName(String customerName, Long afterId, int limit) {
+        return resolve(customerIndex.find(customerName, afterId, limit));
+    }
+
+    /**
+     * Busca pedidos de um produto usando o índice secundário.
+     *
+     * @param product Nome do produto
+     * @param afterId Último ID da página anterior (null para a primeira página)
+     * @param limit Quantidade máxima de pedidos
+     * @return Pedidos do produto em ordem crescente de ID
+     */
+    @Override
+    public List<Order> findByProduct(String product, Long afterId, int limit) {
+        return resolve(productIndex.find(product, afterId, limit));
+    }
+
+    private List<Order> resolve(List<Long> ids) {
+        List<Order> result = new ArrayList<>(ids.size());
+        for (Long id : ids) {
+            // O pedido pode ter sido removido entre a leitura do índice e do mapa
+            Order order = orders.get(id);
+            if (order != null) {
+                result.add(order);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Percorre todos os pedidos em ordem de ID sem copiá-los para uma lista.
+     * A iteração é fracamente consistente: pedidos criados durante a leitura
+     * podem ou não aparecer.
+     *
+     * @return Stream lazy sobre os pedidos armazenados
+     */
+    @Override
+    public Stream<Order> streamAll() {
+        return orders.values().stream();
+    }
+
+    /**
+     * Retorna a quantidade de pedidos armazenados.
+     * @return Número de pedidos
+     */
+    @Override
+    public long count() {
+        return orders.size();
+    }
+
+    /**
+     * Remove um pedido por ID.
+     * @param id ID do pedido a ser removido
+     */
+    @Override
+    public void deleteById(Long id) {
+        Order removed = orders.remove(id);
+        if (removed != null) {
+            customerIndex.remove(removed.getCustomerName(), id);
+            productIndex.remove(removed.getProduct(), id);
+        }
+    }
+
+    /**
+     * Limpa todos os pedidos (útil para testes).
+     */
+    @Override
+    public void deleteAll() {
+        orders.clear();
+        customerIndex.clear();
+        productIndex.clear();
+    }
+
+    @Override
+    public long nextId() {
+        return idGenerator.getAndIncrement();
+    }
+
+    @Override
+    public void restore(Order order) {
+        Long id = order.getId();
+        if (orders.putIfAbsent(id, order) == null) {
+            customerIndex.add(order.getCustomerName(), id);
+            productIndex.add(order.getProduct(), id);
+        }
+        reserveIdsThrough(id);
+    }
+
+    @Override
+    public void reserveIdsThrough(long id) {
+        idGenerator.accumulateAndGet(id + 1, Math::max);
+    }
+}
@@ -1,78 +1,110 @@
 package br.com.ecommerce.orderservice.repository;
 
 import br.com.ecommerce.orderservice.model.Order;
-import org.springframework.stereotype.Repository;
 
-import java.util.ArrayList;
 import java.util.List;
-import java.util.Map;
 import java.util.Optional;
-import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
 
 /**
- * Repositório em memória para armazenar pedidos.
- * Utiliza ConcurrentHashMap para thread-safety e AtomicLong para gerar IDs únicos.
- * Esta implementação simula um banco de dados para fins didáticos.
+ * Repositório de pedidos.
+ *
+ * A engine de armazenamento é escolhida pela propriedade orders.repository.engine:
+ * - map (padrão): InMemoryOrderRepository, um objeto Order por pedido em um mapa ordenado
+ * - columnar: ColumnarOrderRepository, colunas de tipos primitivos com dicionário
+ *   para cliente e produto, com footprint bem menor por pedido
+ *
+ * Com orders.persistence.enabled=true, a engine é envolvida pelo
+ * DurableOrderRepository, que grava cada alteração em um write-ahead log.
  */
-@Repository
-public class OrderRepository {
-
-    // Map thread-safe para armazenar os pedidos
-    private final Map<Long, Order> orders = new ConcurrentHashMap<>();
-    
-    // Gerador de IDs atômico (thread-safe)
-    private final AtomicLong idGenerator = new AtomicLong(1);
+public interface OrderRepository {
 
     /**
      * Salva um novo pedido gerando um ID automático.
      * @param order Pedido a ser salvo
-     * @return Pedido salvo com ID gerado
+     * @return Cópia do pedido com o ID gerado (Order é imutável)
      */
-    public Order save(Order order) {
-        Long id = idGenerator.getAndIncrement();
-        order.setId(id);
-        orders.put(id, order);
-        return order;
-    }
+    Order save(Order order);
 
     /**
      * Busca um pedido por ID.
      * @param id ID do pedido
      * @return Optional contendo o pedido se encontrado
      */
-    public Optional<Order> findById(Long id) {
-        return Optional.ofNullable(orders.get(id));
-    }
+    Optional<Order> findById(Long id);
 
     /**
      * Retorna todos os pedidos.
      * @return Lista com todos os pedidos
      */
-    public List<Order> findAll() {
-        return new ArrayList<>(orders.values());
-    }
+    List<Order> findAll();
+
+    /**
+     * Retorna uma página de pedidos ordenada por ID (paginação por cursor).
+     * @param afterId Último ID da página anterior (null para a primeira página)
+     * @param limit Quantidade máxima de pedidos na página
+     * @return Pedidos com ID maior que afterId, em ordem crescente
+     */
+    List<Order> findPage(Long afterId, int limit);
+
+    /**
+     * Busca pedidos de um cliente usando o índice secundário.
+     * @param customerName Nome do cliente
+     * @param afterId Último ID da página anterior (null para a primeira página)
+     * @param limit Quantidade máxima de pedidos
+     * @return Pedidos do cliente em ordem crescente de ID
+     */
+    List<Order> findByCustomerName(String customerName, Long afterId, int limit);
+
+    /**
+     * Busca pedidos de um produto usando o índice secundário.
+     * @param product Nome do produto
+     * @param afterId Último ID da página anterior (null para a primeira página)
+     * @param limit Quantidade máxima de pedidos
+     * @return Pedidos do produto em ordem crescente de ID
+     */
+    List<Order> findByProduct(String product, Long afterId, int limit);
+
+    /**
+     * Percorre todos os pedidos em ordem de ID sem copiá-los para uma lista.
+     * @return Stream lazy sobre os pedidos armazenados
+     */
+    Stream<Order> streamAll();
 
     /**
      * Retorna a quantidade de pedidos armazenados.
      * @return Número de pedidos
      */
-    public long count() {
-        return orders.size();
-    }
+    long count();
 
     /**
      * Remove um pedido por ID.
      * @param id ID do pedido a ser removido
      */
-    public void deleteById(Long id) {
-        orders.remove(id);
-    }
+    void deleteById(Long id);
 
     /**
      * Limpa todos os pedidos (útil para testes).
      */
-    public void deleteAll() {
-        orders.clear();
-    }
+    void deleteAll();
+
+    /**
+     * Reserva o próximo ID sem inserir pedido; o pedido é inserido depois com restore.
+     * Usado quando o pedido precisa do ID antes de ser gravado no repositório (outbox).
+     * @return ID reservado
+     */
+    long nextId();
+
+    /**
+     * Insere um pedido com ID já definido (recuperação a partir de snapshot ou
+     * log, ou pedido com ID reservado por nextId). Se o pedido já existir, nada é alterado.
+     * @param order Pedido com ID
+     */
+    void restore(Order order);
+
+    /**
+     * Garante que os próximos IDs gerados sejam maiores que o informado.
+     * @param id Maior ID já utilizado
+     */
+    void reserveIdsThrough(long id);
 }
@@ -0,0 +1,70 @@
+package br.com.ecommerce.orderservice.repository;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.NavigableSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+
+/**
+ * Índice secundário em memória: valor de um campo (ex.: cliente) → IDs dos pedidos.
+ *
+ * Os IDs de cada valor ficam em um ConcurrentSkipListSet ordenado, então a
+ * consulta paginada por cursor custa proporcionalmente ao tamanho da página.
+ * Inclusões e remoções usam compute do ConcurrentHashMap, que bloqueia apenas
+ * a entrada da chave alterada (sem lock global).
+ */
+public class OrderSecondaryIndex {
+
+    private final ConcurrentHashMap<String, NavigableSet<Long>> entries = new ConcurrentHashMap<>();
+
+    /**
+     * Associa o ID do pedido ao valor indexado.
+     */
+    public void add(String key, long id) {
+        entries.compute(key, (k, ids) -> {
+            NavigableSet<Long> set = ids != null ? ids : new ConcurrentSkipListSet<>();
+            set.add(id);
+            return set;
+        });
+    }
+
+    /**
+     * Remove o ID do pedido do valor indexado, descartando valores sem pedidos.
+     */
+    public void remove(String key, long id) {
+        entries.computeIfPresent(key, (k, ids) -> {
+            ids.remove(id);
+            return ids.isEmpty() ? null : ids;
+        });
+    }
+
+    /**
+     * Retorna os IDs associados ao valor, em ordem crescente, após o cursor.
+     *
+     * @param key Valor indexado
+     * @param afterId Último ID da página anterior (null para a primeira página)
+     * @param limit Quantidade máxima de IDs
+     * @return IDs encontrados
+     */
+    public List<Long> find(String key, Long afterId, int limit) {
+        NavigableSet<Long> ids = entries.get(key);
+        if (ids == null) {
+            return Collections.emptyList();
+        }
+        NavigableSet<Long> tail = afterId == null ? ids : ids.tailSet(afterId, false);
+        List<Long> page = new ArrayList<>(Math.min(limit, 256));
+        for (Long id : tail) {
+            if (page.size() == limit) {
+                break;
+            }
+            page.add(id);
+        }
+        return page;
+    }
+
+    public void clear() {
+        entries.clear();
+    }
+}
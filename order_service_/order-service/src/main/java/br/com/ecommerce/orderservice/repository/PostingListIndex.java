@@ -0,0 +1,160 @@
+package br.com.ecommerce.orderservice.repository;
+
+import java.util.Arrays;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Índice secundário compacto do ColumnarOrderRepository: código do
+ * StringDictionary (ex.: cliente) → IDs dos pedidos em um long[] ordenado.
+ *
+ * Cada pedido ocupa 8 bytes no array (mais a folga de crescimento), em vez
+ * de um nó de ConcurrentSkipListSet e um Long por pedido como no
+ * OrderSecondaryIndex. Os IDs chegam quase sempre em ordem crescente e são
+ * anexados ao fim; IDs fora de ordem (saves concorrentes, IDs reservados
+ * pelo outbox) e remoções usam busca binária e deslocamento do array.
+ * Cada lista tem lock próprio, então códigos diferentes não disputam entre si.
+ */
+public class PostingListIndex {
+
+    private static final long[] EMPTY = new long[0];
+
+    private final ReentrantLock growLock = new ReentrantLock();
+    private volatile PostingList[] lists = new PostingList[1024];
+
+    /**
+     * Associa o ID do pedido ao código indexado.
+     */
+    public void add(int code, long id) {
+        listFor(code).add(id);
+    }
+
+    /**
+     * Remove o ID do pedido do código indexado.
+     */
+    public void remove(int code, long id) {
+        PostingList list = existingList(code);
+        if (list != null) {
+            list.remove(id);
+        }
+    }
+
+    /**
+     * Retorna os IDs associados ao código, em ordem crescente, após o cursor.
+     *
+     * @param code Código do valor indexado
+     * @param afterId Último ID da página anterior (null para a primeira página)
+     * @param limit Quantidade máxima de IDs
+     * @return IDs encontrados
+     */
+    public long[] find(int code, Long afterId, int limit) {
+        PostingList list = existingList(code);
+        return list == null ? EMPTY : list.find(afterId, limit);
+    }
+
+    public void clear() {
+        growLock.lock();
+        try {
+            lists = new PostingList[1024];
+        } finally {
+            growLock.unlock();
+        }
+    }
+
+    private PostingList existingList(int code) {
+        PostingList[] current = lists;
+        return code >= 0 && code < current.length ? current[code] : null;
+    }
+
+    /**
+     * Retorna a lista do código, alocando-a (e crescendo a tabela) se necessário.
+     */
+    private PostingList listFor(int code) {
+        PostingList list = existingList(code);
+        if (list != null) {
+            return list;
+        }
+        growLock.lock();
+        try {
+            PostingList[] current = lists;
+            if (code >= current.length) {
+                current = Arrays.copyOf(current, Math.max(current.length * 2, code + 1));
+            }
+            if (current[code] == null) {
+                current[code] = new PostingList();
+            }
+            lists = current;
+            return current[code];
+        } finally {
+            growLock.unlock();
+        }
+    }
+
+    /**
+     * IDs de um código em ordem crescente.
+     */
+    private static final class PostingList {
+
+        private final ReentrantLock lock = new ReentrantLock();
+        private long[] ids = new long[4];
+        private int size;
+
+        void add(long id) {
+            lock.lock();
+            try {
+                if (size > 0 && ids[size - 1] >= id) {
+                    insertOutOfOrder(id);
+                    return;
+                }
+                ensureCapacity();
+                ids[size++] = id;
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        private void insertOutOfOrder(long id) {
+            int index = Arrays.binarySearch(ids, 0, size, id);
+            if (index >= 0) {
+                return;
+            }
+            int insertAt = -index - 1;
+            ensureCapacity();
+            System.arraycopy(ids, insertAt, ids, insertAt + 1, size - insertAt);
+            ids[insertAt] = id;
+            size++;
+        }
+
+        private void ensureCapacity() {
+            if (size == ids.length) {
+                ids = Arrays.copyOf(ids, size + (size >> 1));
+            }
+        }
+
+        void remove(long id) {
+            lock.lock();
+            try {
+                int index = Arrays.binarySearch(ids, 0, size, id);
+                if (index >= 0) {
+                    System.arraycopy(ids, index + 1, ids, index, size - index - 1);
+                    size--;
+                }
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        long[] find(Long afterId, int limit) {
+            lock.lock();
+            try {
+                int start = 0;
+                if (afterId != null) {
+                    int index = Arrays.binarySearch(ids, 0, size, afterId);
+                    start = index >= 0 ? index + 1 : -index - 1;
+                }
+                return Arrays.copyOfRange(ids, start, start + Math.min(limit, size - start));
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+}
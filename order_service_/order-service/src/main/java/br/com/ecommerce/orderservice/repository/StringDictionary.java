@@ -0,0 +1,82 @@
+package br.com.ecommerce.orderservice.repository;
+
+import java.util.Arrays;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Dicionário de strings para codificação de colunas com valores repetidos.
+ *
+ * Cada valor distinto recebe um código int sequencial; a coluna guarda só o
+ * código e a string é armazenada uma única vez. A leitura (decode) não usa
+ * lock; apenas a criação de um código novo é serializada.
+ */
+public class StringDictionary {
+
+    private final ConcurrentHashMap<String, Integer> codes = new ConcurrentHashMap<>();
+    private final ReentrantLock growLock = new ReentrantLock();
+    private volatile String[] values = new String[1024];
+    private int size;
+
+    /**
+     * Retorna o código do valor, criando um novo se ainda não existir.
+     */
+    public int encode(String value) {
+        Integer code = codes.get(value);
+        if (code != null) {
+            return code;
+        }
+        growLock.lock();
+        try {
+            code = codes.get(value);
+            if (code != null) {
+                return code;
+            }
+            String[] current = values;
+            if (size == current.length) {
+                current = Arrays.copyOf(current, current.length * 2);
+            }
+            int newCode = size++;
+            current[newCode] = value;
+            values = current;
+            // Publicado no mapa só depois de gravado no array
+            codes.put(value, newCode);
+            return newCode;
+        } finally {
+            growLock.unlock();
+        }
+    }
+
+    /**
+     * Retorna o código do valor sem criá-lo, ou -1 se ele nunca foi codificado.
+     */
+    public int find(String value) {
+        Integer code = value == null ? null : codes.get(value);
+        return code == null ? -1 : code;
+    }
+
+    /**
+     * Retorna o valor associado ao código.
+     */
+    public String decode(int code) {
+        return values[code];
+    }
+
+    /**
+     * @return Quantidade de valores distintos
+     */
+    public int size() {
+        return codes.size();
+    }
+
+    public void clear() {
+        growLock.lock();
+        try {
+            codes.clear();
+            values = new String[1024];
+            size = 0;
+        } finally {
+            growLock.unlock();
+        }
+    }
+}
@@ -0,0 +1,247 @@
+package br.com.ecommerce.orderservice.service;
+
+import br.com.ecommerce.orderservice.dto.BatchItemResult;
+import br.com.ecommerce.orderservice.dto.OrderRequest;
+import br.com.ecommerce.orderservice.dto.OrderResponse;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonParseException;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.JsonMappingException;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.deser.DeserializationProblemHandler;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Serviço de ingestão de pedidos em massa (POST /orders/batch).
+ *
+ * O corpo da requisição (NDJSON ou array JSON) é lido como stream:
+ * cada OrderRequest é desserializado e validado individualmente, e os
+ * pedidos válidos são salvos e publicados em blocos de tamanho fixo.
+ * O resultado de cada item é escrito na resposta como uma linha NDJSON
+ * ao fim de cada bloco, então a memória usada não depende do tamanho
+ * do payload.
+ */
+@Service
+public class OrderBatchIngestionService {
+
+    private static final Logger logger = LoggerFactory.getLogger(OrderBatchIngestionService.class);
+
+    /**
+     * Entrega um elemento null como item nulo (INVALID), em vez de interromper o stream.
+     */
+    private static final DeserializationProblemHandler NULL_ITEMS = new DeserializationProblemHandler() {
+        @Override
+        public Object handleUnexpectedToken(DeserializationContext ctxt, JavaType targetType, JsonToken token,
+                                            JsonParser parser, String failureMsg) {
+            return token == JsonToken.VALUE_NULL ? null : NOT_HANDLED;
+        }
+    };
+
+    private final OrderService orderService;
+    private final Validator validator;
+    private final ObjectMapper objectMapper;
+    private final ObjectReader requestReader;
+    private final ObjectWriter resultWriter;
+
+    @Value("${orders.batch.chunk-size:500}")
+    private int chunkSize;
+
+    public OrderBatchIngestionService(OrderService orderService, Validator validator, ObjectMapper objectMapper) {
+        this.orderService = orderService;
+        this.validator = validator;
+        this.objectMapper = objectMapper;
+        this.requestReader = objectMapper.readerFor(OrderRequest.class).withHandler(NULL_ITEMS);
+        // O flush é feito ao fim de cada bloco, e não a cada item. Sem separador
+        // entre valores raiz: cada linha NDJSON já termina com '\n'
+        this.resultWriter = objectMapper.writerFor(BatchItemResult.class)
+                .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE)
+                .withRootValueSeparator("");
+    }
+
+    /**
+     * Lê os pedidos do stream de entrada e escreve um resultado por item no stream de saída.
+     *
+     * @param input Corpo da requisição (NDJSON ou array JSON de OrderRequest)
+     * @param output Corpo da resposta (NDJSON de BatchItemResult)
+     * @return Quantidade de itens lidos
+     */
+    public long ingest(InputStream input, OutputStream output) throws IOException {
+        Chunk chunk = new Chunk(chunkSize);
+        long index = 0;
+
+        try (JsonGenerator generator = objectMapper.getFactory().createGenerator(output);
+             MappingIterator<OrderRequest> requests = requestReader.readValues(input)) {
+
+            generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            generator.setRootValueSeparator(null);
+
+            try {
+                while (requests.hasNextValue()) {
+                    try {
+                        OrderRequest request = requests.nextValue();
+                        chunk.add(index, request, validate(request));
+                    } catch (JsonMappingException e) {
+                        // JSON bem formado com tipo errado (ex.: "amount":"abc"): só este
+                        // item é inválido; o MappingIterator pula o restante dele
+                        chunk.add(index, null, mappingErrors(e));
+                    }
+                    index++;
+                    if (chunk.isFull()) {
+                        flush(chunk, generator);
+                    }
+                }
+            } catch (JsonParseException e) {
+                // JSON malformado: o restante do stream não pode ser lido com segurança
+                flush(chunk, generator);
+                write(generator, BatchItemResult.error(index, "JSON inválido: " + e.getOriginalMessage()));
+                generator.flush();
+                logger.warn("[BATCH] JSON inválido no item {}: {}", index, e.getOriginalMessage());
+                return index;
+            }
+
+            flush(chunk, generator);
+        }
+
+        logger.info("[BATCH] Ingestão concluída: {} itens", index);
+        return index;
+    }
+
+    private static List<String> mappingErrors(JsonMappingException e) {
+        String field = e.getPath().stream()
+                .map(JsonMappingException.Reference::getFieldName)
+                .filter(Objects::nonNull)
+                .collect(Collectors.joining("."));
+        String message = Objects.requireNonNullElse(e.getOriginalMessage(), "tipo inválido");
+        return List.of(field.isEmpty() ? message : field + ": " + message);
+    }
+
+    private List<String> validate(OrderRequest request) {
+        // Elemento null no array ou linha "null" no NDJSON
+        if (request == null) {
+            return List.of("item nulo");
+        }
+        Set<ConstraintViolation<OrderRequest>> violations = validator.validate(request);
+        if (violations.isEmpty()) {
+            return null;
+        }
+        List<String> errors = new ArrayList<>(violations.size());
+        for (ConstraintViolation<OrderRequest> violation : violations) {
+            errors.add(violation.getPropertyPath() + ": " + violation.getMessage());
+        }
+        return errors;
+    }
+
+    /**
+     * Salva e publica os pedidos válidos do bloco e escreve os resultados na ordem de chegada.
+     *
+     * Se a criação falhar depois que parte do bloco foi gravada, os pedidos
+     * gravados são reportados como CREATED e apenas os demais como ERROR.
+     */
+    private void flush(Chunk chunk, JsonGenerator generator) throws IOException {
+        if (chunk.size() == 0) {
+            return;
+        }
+
+        List<OrderResponse> created = List.of();
+        String failure = null;
+        if (!chunk.validRequests.isEmpty()) {
+            try {
+                created = orderService.createOrders(chunk.validRequests);
+            } catch (PartialBatchException e) {
+                logger.error("[BATCH] Falha ao criar bloco de {} pedidos após {} criados: {}",
+                        chunk.validRequests.size(), e.getCreated().size(), e.getMessage());
+                created = e.getCreated();
+                failure = describe(e.getCause());
+            } catch (RuntimeException e) {
+                logger.error("[BATCH] Falha ao criar bloco de {} pedidos: {}",
+                        chunk.validRequests.size(), e.getMessage());
+                failure = describe(e);
+            }
+        }
+
+        int validPosition = 0;
+        for (int i = 0; i < chunk.size(); i++) {
+            long itemIndex = chunk.indexes[i];
+            List<String> errors = chunk.errors.get(i);
+            if (errors != null) {
+                write(generator, BatchItemResult.invalid(itemIndex, errors));
+            } else if (validPosition < created.size()) {
+                write(generator, BatchItemResult.created(itemIndex, created.get(validPosition++).getOrderId()));
+            } else {
+                write(generator, BatchItemResult.error(itemIndex, failure));
+            }
+        }
+        generator.flush();
+        chunk.clear();
+    }
+
+    // Exceções sem mensagem (ex.: NullPointerException) são descritas pela classe
+    private static String describe(Throwable e) {
+        return Objects.requireNonNullElse(e.getMessage(), e.getClass().getName());
+    }
+
+    private void write(JsonGenerator generator, BatchItemResult result) throws IOException {
+        resultWriter.writeValue(generator, result);
+        generator.writeRaw('\n');
+    }
+
+    /**
+     * Bloco de itens lidos aguardando gravação. Reutilizado entre blocos.
+     */
+    private static final class Chunk {
+
+        private final long[] indexes;
+        private final List<List<String>> errors;
+        private final List<OrderRequest> validRequests;
+        private int size;
+
+        private Chunk(int capacity) {
+            this.indexes = new long[capacity];
+            this.errors = new ArrayList<>(capacity);
+            this.validRequests = new ArrayList<>(capacity);
+        }
+
+        private void add(long index, OrderRequest request, List<String> itemErrors) {
+            indexes[size++] = index;
+            errors.add(itemErrors);
+            if (itemErrors == null) {
+                validRequests.add(request);
+            }
+        }
+
+        private boolean isFull() {
+            return size == indexes.length;
+        }
+
+        private int size() {
+            return size;
+        }
+
+        private void clear() {
+            size = 0;
+            errors.clear();
+            validRequests.clear();
+        }
+    }
+}
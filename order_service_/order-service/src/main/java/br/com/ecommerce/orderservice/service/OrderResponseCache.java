@@ -0,0 +1,180 @@
+package br.com.ecommerce.orderservice.service;
+
+import br.com.ecommerce.orderservice.dto.OrderResponse;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.UncheckedIOException;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Cache do JSON já serializado de cada pedido para o GET /orders/{id}.
+ *
+ * Como o Order é imutável, o OrderResponse de um pedido é serializado uma
+ * única vez; as leituras seguintes devolvem os mesmos bytes e o mesmo ETag,
+ * sem montar o DTO nem passar pelo Jackson. O ETag combina o ID e o
+ * createdAt em nanossegundos, então um ID reaproveitado (repositório em
+ * memória após um restart) não casa com o ETag antigo de um cliente.
+ *
+ * Limitado por orders.response-cache.max-entries, com remoção do menos
+ * usado (LRU) em segmentos com lock próprio, como os demais caches do projeto.
+ *
+ * Métricas: orders.response.cache.requests (hit/miss) e orders.response.cache.entries.
+ */
+@Component
+public class OrderResponseCache {
+
+    /**
+     * Corpo JSON e ETag (entre aspas, pronto para o cabeçalho) de um pedido.
+     */
+    public record CachedOrder(byte[] json, String etag) {
+    }
+
+    private final OrderService orderService;
+    private final ObjectWriter writer;
+    private final boolean enabled;
+    private final Segment[] segments;
+    private final int segmentMask;
+    private final int segmentCapacity;
+    private final MeterRegistry registry;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+
+    public OrderResponseCache(OrderService orderService,
+                              ObjectMapper objectMapper,
+                              MeterRegistry registry,
+                              @Value("${orders.response-cache.enabled:true}") boolean enabled,
+                              @Value("${orders.response-cache.max-entries:100000}") int maxEntries,
+                              @Value("${orders.response-cache.concurrency:64}") int concurrency) {
+        this.orderService = orderService;
+        this.writer = objectMapper.writerFor(OrderResponse.class);
+        this.enabled = enabled;
+        int segmentCount = 1;
+        while (segmentCount < concurrency) {
+            segmentCount <<= 1;
+        }
+        this.segments = new Segment[segmentCount];
+        for (int i = 0; i < segmentCount; i++) {
+            segments[i] = new Segment();
+        }
+        this.segmentMask = segmentCount - 1;
+        this.segmentCapacity = Math.max(1, maxEntries / segmentCount);
+        this.registry = registry;
+    }
+
+    // Fora do construtor: o gauge guarda uma referência a this
+    @PostConstruct
+    public void registerMetrics() {
+        counter(registry, "hit", hits);
+        counter(registry, "miss", misses);
+        Gauge.builder("orders.response.cache.entries", this, OrderResponseCache::size)
+                .description("Pedidos com JSON em cache")
+                .register(registry);
+    }
+
+    private static void counter(MeterRegistry registry, String result, LongAdder adder) {
+        FunctionCounter.builder("orders.response.cache.requests", adder, LongAdder::sum)
+                .description("Leituras do cache de JSON dos pedidos por resultado")
+                .tag("result", result)
+                .register(registry);
+    }
+
+    /**
+     * Busca o JSON e o ETag de um pedido, serializando-o na primeira leitura.
+     *
+     * @param id ID do pedido
+     * @return Pedido serializado, ou vazio se não existir
+     */
+    public Optional<CachedOrder> findById(Long id) {
+        if (!enabled) {
+            return orderService.findById(id).map(this::serialize);
+        }
+        Segment segment = segmentFor(id);
+        CachedOrder cached;
+        segment.lock.lock();
+        try {
+            cached = segment.entries.get(id);
+        } finally {
+            segment.lock.unlock();
+        }
+        if (cached != null) {
+            hits.increment();
+            return Optional.of(cached);
+        }
+
+        // Serializa fora do lock; duas leituras simultâneas do mesmo pedido
+        // produzem bytes idênticos, então a última a gravar não muda nada
+        misses.increment();
+        Optional<CachedOrder> loaded = orderService.findById(id).map(this::serialize);
+        loaded.ifPresent(order -> {
+            segment.lock.lock();
+            try {
+                segment.entries.put(id, order);
+            } finally {
+                segment.lock.unlock();
+            }
+        });
+        return loaded;
+    }
+
+    private CachedOrder serialize(OrderResponse response) {
+        try {
+            return new CachedOrder(writer.writeValueAsBytes(response),
+                    etag(response.getOrderId(), response.getCreatedAt()));
+        } catch (JsonProcessingException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static String etag(long id, LocalDateTime createdAt) {
+        long createdAtNanos = createdAt == null ? 0
+                : createdAt.toEpochSecond(ZoneOffset.UTC) * 1_000_000_000L + createdAt.getNano();
+        return "\"" + Long.toHexString(id) + "-" + Long.toHexString(createdAtNanos) + "\"";
+    }
+
+    public long size() {
+        long size = 0;
+        for (Segment segment : segments) {
+            segment.lock.lock();
+            try {
+                size += segment.entries.size();
+            } finally {
+                segment.lock.unlock();
+            }
+        }
+        return size;
+    }
+
+    private Segment segmentFor(long id) {
+        // Espalha IDs sequenciais entre os segmentos
+        long hash = id * 0x9E3779B97F4A7C15L;
+        return segments[(int) (hash >>> 32) & segmentMask];
+    }
+
+    private final class Segment {
+
+        private final ReentrantLock lock = new ReentrantLock();
+
+        // accessOrder=true: cada get move a entrada para o fim; a primeira é a menos usada
+        private final LinkedHashMap<Long, CachedOrder> entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Long, CachedOrder> eldest) {
+                return size() > segmentCapacity;
+            }
+        };
+    }
+}
@@ -1,18 +1,25 @@
 package br.com.ecommerce.orderservice.service;
 
+import br.com.ecommerce.orderservice.analytics.OrderAnalytics;
+import br.com.ecommerce.orderservice.audit.AuditLog;
+import br.com.ecommerce.orderservice.dto.OrderPageResponse;
 import br.com.ecommerce.orderservice.dto.OrderRequest;
 import br.com.ecommerce.orderservice.dto.OrderResponse;
 import br.com.ecommerce.orderservice.event.OrderCreatedEvent;
 import br.com.ecommerce.orderservice.model.Order;
+import br.com.ecommerce.orderservice.outbox.OutboxJournal;
 import br.com.ecommerce.orderservice.producer.OrderMessageProducer;
 import br.com.ecommerce.orderservice.repository.OrderRepository;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.stereotype.Service;
 
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 /**
  * Serviço que contém a lógica de negócio para pedidos.
@@ -20,6 +27,8 @@ import java.util.stream.Collectors;
  * Responsabilidades:
  * - Criar pedidos e salvar no repositório em memória
  * - Publicar eventos de pedidos criados no RabbitMQ
+ *   (diretamente ou via outbox, quando orders.outbox.enabled=true)
+ * - Atualizar os agregados do OrderAnalytics a cada pedido criado
  * - Consultar pedidos existentes
  */
 @Service
@@ -29,10 +38,22 @@ public class OrderService {
 
     private final OrderRepository orderRepository;
     private final OrderMessageProducer messageProducer;
+    private final AuditLog auditLog;
+    private final OrderAnalytics analytics;
 
-    public OrderService(OrderRepository orderRepository, OrderMessageProducer messageProducer) {
+    // Journal do outbox; nulo quando o outbox está desabilitado
+    private final OutboxJournal outboxJournal;
+
+    public OrderService(OrderRepository orderRepository,
+                        OrderMessageProducer messageProducer,
+                        AuditLog auditLog,
+                        OrderAnalytics analytics,
+                        ObjectProvider<OutboxJournal> outboxJournal) {
         this.orderRepository = orderRepository;
         this.messageProducer = messageProducer;
+        this.auditLog = auditLog;
+        this.analytics = analytics;
+        this.outboxJournal = outboxJournal.getIfAvailable();
     }
 
     /**
@@ -42,7 +63,7 @@ public class OrderService {
      * @return Resposta com os dados do pedido criado
      */
     public OrderResponse createOrder(OrderRequest request) {
-        logger.info("Criando novo pedido para cliente: {}", request.getCustomerName());
+        logger.debug("Criando novo pedido para cliente: {}", request.getCustomerName());
 
         // 1. Cria o modelo Order a partir do request
         Order order = new Order(
@@ -52,29 +73,150 @@ public class OrderService {
                 request.getAmount()
         );
 
-        // 2. Salva o pedido no repositório em memória
-        Order savedOrder = orderRepository.save(order);
-        logger.info("Pedido salvo com ID: {}", savedOrder.getId());
+        // 2. Salva o pedido (com outbox, o journal é gravado antes do repositório)
+        Order savedOrder;
+        if (outboxJournal != null) {
+            savedOrder = order.withId(orderRepository.nextId());
+            saveViaOutbox(List.of(savedOrder), new ArrayList<>(1));
+        } else {
+            savedOrder = orderRepository.save(order);
+        }
+        logger.debug("Pedido salvo com ID: {}", savedOrder.getId());
+        auditLog.orderCreated(savedOrder);
+        analytics.record(savedOrder);
 
-        // 3. Cria o evento para publicar no RabbitMQ
-        OrderCreatedEvent event = new OrderCreatedEvent(
-                savedOrder.getId(),
-                savedOrder.getCustomerName(),
-                savedOrder.getProduct(),
-                savedOrder.getAmount()
+        // 3. Publica o evento do pedido (com outbox, o OutboxRelay publica em background)
+        if (outboxJournal == null) {
+            publish(savedOrder);
+        }
+
+        // 4. Retorna a resposta com os dados do pedido criado
+        return toResponse(savedOrder);
+    }
+
+    /**
+     * Cria um lote de pedidos já validados.
+     *
+     * Com outbox habilitado, o lote inteiro é gravado no journal com um
+     * único fsync (todos ou nenhum); caso contrário, cada pedido é salvo e
+     * publicado individualmente.
+     *
+     * @param requests Pedidos do lote
+     * @return Respostas na mesma ordem dos pedidos recebidos
+     * @throws PartialBatchException se a falha acontecer depois que parte dos pedidos foi gravada
+     */
+    public List<OrderResponse> createOrders(List<OrderRequest> requests) {
+        List<Order> savedOrders = new ArrayList<>(requests.size());
+        try {
+            if (outboxJournal != null) {
+                List<Order> reserved = new ArrayList<>(requests.size());
+                for (OrderRequest request : requests) {
+                    reserved.add(toOrder(request).withId(orderRepository.nextId()));
+                }
+                try {
+                    saveViaOutbox(reserved, savedOrders);
+                } finally {
+                    for (Order savedOrder : savedOrders) {
+                        auditLog.orderCreated(savedOrder);
+                        analytics.record(savedOrder);
+                    }
+                }
+            } else {
+                for (OrderRequest request : requests) {
+                    Order savedOrder = orderRepository.save(toOrder(request));
+                    savedOrders.add(savedOrder);
+                    auditLog.orderCreated(savedOrder);
+                    analytics.record(savedOrder);
+                    publish(savedOrder);
+                }
+            }
+        } catch (RuntimeException e) {
+            if (savedOrders.isEmpty()) {
+                throw e;
+            }
+            throw new PartialBatchException(toResponses(savedOrders), e);
+        }
+        logger.debug("Lote de {} pedidos criado", savedOrders.size());
+        return toResponses(savedOrders);
+    }
+
+    private static Order toOrder(OrderRequest request) {
+        return new Order(
+                null,
+                request.getCustomerName(),
+                request.getProduct(),
+                request.getAmount()
         );
+    }
 
-        // 4. Publica o evento no RabbitMQ (comunicação assíncrona)
-        messageProducer.sendOrderCreatedEvent(event);
+    private List<OrderResponse> toResponses(List<Order> orders) {
+        List<OrderResponse> responses = new ArrayList<>(orders.size());
+        for (Order order : orders) {
+            responses.add(toResponse(order));
+        }
+        return responses;
+    }
 
-        // 5. Retorna a resposta com os dados do pedido criado
-        return new OrderResponse(
+    /**
+     * Grava os pedidos (com ID já reservado) no journal do outbox e depois
+     * os insere no repositório, adicionando a applied os que foram inseridos.
+     *
+     * O journal é o ponto de commit do evento: se a gravação falhar, nenhum
+     * pedido foi criado e a exceção chega ao cliente. Se a inserção no
+     * repositório falhar mesmo depois de uma nova tentativa, a exceção
+     * também chega ao cliente (o pedido não pode ser lido), embora o evento
+     * já esteja no journal e seja publicado pelo OutboxRelay. Nesse caso o
+     * journal não é compactado, e com orders.persistence.enabled=true o
+     * pedido é reaplicado ao repositório durável na inicialização (OutboxConfig).
+     */
+    private void saveViaOutbox(List<Order> orders, List<Order> applied) {
+        outboxJournal.appendAll(orders);
+        int count = 0;
+        try {
+            for (Order order : orders) {
+                restoreWithRetry(order);
+                applied.add(order);
+                count++;
+            }
+        } catch (RuntimeException e) {
+            logger.error("{} pedido(s) gravado(s) no outbox mas não aplicado(s) ao repositório: {}",
+                    orders.size() - count, e.getMessage());
+            throw e;
+        } finally {
+            outboxJournal.markApplied(count);
+        }
+    }
+
+    private void restoreWithRetry(Order order) {
+        try {
+            orderRepository.restore(order);
+        } catch (RuntimeException e) {
+            logger.warn("Falha ao aplicar o pedido {} ao repositório, tentando novamente: {}",
+                    order.getId(), e.getMessage());
+            // restore é idempotente: se a primeira tentativa chegou a inserir, nada muda
+            orderRepository.restore(order);
+        }
+    }
+
+    /**
+     * Publica o evento de um pedido salvo no RabbitMQ (outbox desabilitado),
+     * sem que a thread da requisição espere a confirmação do broker.
+     */
+    private void publish(Order savedOrder) {
+        OrderCreatedEvent event = new OrderCreatedEvent(
                 savedOrder.getId(),
                 savedOrder.getCustomerName(),
                 savedOrder.getProduct(),
-                savedOrder.getAmount(),
-                savedOrder.getCreatedAt()
+                savedOrder.getAmount()
         );
+
+        messageProducer.sendOrderCreatedEvent(event)
+                .whenComplete((ignored, error) -> {
+                    if (error != null) {
+                        logger.error("Falha ao publicar evento do pedido {}: {}",
+                                savedOrder.getId(), error.getMessage());
+                    }
+                });
     }
 
     /**
@@ -85,13 +227,7 @@ public class OrderService {
      */
     public Optional<OrderResponse> findById(Long id) {
         return orderRepository.findById(id)
-                .map(order -> new OrderResponse(
-                        order.getId(),
-                        order.getCustomerName(),
-                        order.getProduct(),
-                        order.getAmount(),
-                        order.getCreatedAt()
-                ));
+                .map(this::toResponse);
     }
 
     /**
@@ -101,16 +237,66 @@ public class OrderService {
      */
     public List<OrderResponse> findAll() {
         return orderRepository.findAll().stream()
-                .map(order -> new OrderResponse(
-                        order.getId(),
-                        order.getCustomerName(),
-                        order.getProduct(),
-                        order.getAmount(),
-                        order.getCreatedAt()
-                ))
+                .map(this::toResponse)
                 .collect(Collectors.toList());
     }
 
+    /**
+     * Retorna uma página de pedidos a partir do cursor (último ID da página anterior).
+     *
+     * @param cursor Cursor recebido na página anterior (null para a primeira página)
+     * @param limit Quantidade máxima de pedidos na página
+     * @return Página com os pedidos e o cursor da próxima página
+     */
+    public OrderPageResponse findPage(Long cursor, int limit) {
+        // Busca um pedido a mais para saber se existe próxima página
+        return toPage(orderRepository.findPage(cursor, limit + 1), limit);
+    }
+
+    /**
+     * Busca pedidos de um cliente, paginados por cursor.
+     *
+     * @param customerName Nome do cliente
+     * @param cursor Cursor recebido na página anterior (null para a primeira página)
+     * @param limit Quantidade máxima de pedidos na página
+     * @return Página com os pedidos do cliente
+     */
+    public OrderPageResponse findByCustomerName(String customerName, Long cursor, int limit) {
+        // Busca um pedido a mais para saber se existe próxima página
+        return toPage(orderRepository.findByCustomerName(customerName, cursor, limit + 1), limit);
+    }
+
+    /**
+     * Busca pedidos de um produto, paginados por cursor.
+     *
+     * @param product Nome do produto
+     * @param cursor Cursor recebido na página anterior (null para a primeira página)
+     * @param limit Quantidade máxima de pedidos na página
+     * @return Página com os pedidos do produto
+     */
+    public OrderPageResponse findByProduct(String product, Long cursor, int limit) {
+        return toPage(orderRepository.findByProduct(product, cursor, limit + 1), limit);
+    }
+
+    private OrderPageResponse toPage(List<Order> orders, int limit) {
+        int size = Math.min(orders.size(), limit);
+        List<OrderResponse> items = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            items.add(toResponse(orders.get(i)));
+        }
+        Long nextCursor = orders.size() > limit ? items.get(size - 1).getOrderId() : null;
+        return new OrderPageResponse(items, nextCursor);
+    }
+
+    /**
+     * Percorre todos os pedidos sem materializar listas intermediárias.
+     *
+     * @return Stream lazy com os pedidos em ordem de ID
+     */
+    public Stream<OrderResponse> streamAll() {
+        return orderRepository.streamAll().map(this::toResponse);
+    }
+
     /**
      * Retorna a quantidade de pedidos.
      * 
@@ -119,4 +305,14 @@ public class OrderService {
     public long count() {
         return orderRepository.count();
     }
+
+    private OrderResponse toResponse(Order order) {
+        return new OrderResponse(
+                order.getId(),
+                order.getCustomerName(),
+                order.getProduct(),
+                order.getAmount(),
+                order.getCreatedAt()
+        );
+    }
 }
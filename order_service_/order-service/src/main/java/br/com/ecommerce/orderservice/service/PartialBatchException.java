@@ -0,0 +1,27 @@
+package br.com.ecommerce.orderservice.service;
+
+import br.com.ecommerce.orderservice.dto.OrderResponse;
+
+import java.util.List;
+
+/**
+ * Falha na criação de um lote depois que parte dos pedidos já foi gravada.
+ *
+ * Os pedidos em created foram criados (na ordem do lote, do primeiro em
+ * diante); os demais não foram gravados.
+ */
+public class PartialBatchException extends RuntimeException {
+
+    private static final long serialVersionUID = 1L;
+
+    private final transient List<OrderResponse> created;
+
+    public PartialBatchException(List<OrderResponse> created, RuntimeException cause) {
+        super(cause.getMessage(), cause);
+        this.created = created;
+    }
+
+    public List<OrderResponse> getCreated() {
+        return created;
+    }
+}
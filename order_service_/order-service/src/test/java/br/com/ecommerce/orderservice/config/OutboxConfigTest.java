@@ -0,0 +1,62 @@
+package br.com.ecommerce.orderservice.config;
+
+import br.com.ecommerce.orderservice.model.Order;
+import br.com.ecommerce.orderservice.outbox.OutboxJournal;
+import br.com.ecommerce.orderservice.persistence.DurableOrderRepository;
+import br.com.ecommerce.orderservice.repository.InMemoryOrderRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class OutboxConfigTest {
+
+    private static final long COMPACT_THRESHOLD = 1 << 20;
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void reservesJournalIdsWithoutPersistence() throws Exception {
+        // Pedidos gravados no journal e não publicados antes do restart
+        try (OutboxJournal journal = new OutboxJournal(directory.resolve("outbox"), true, COMPACT_THRESHOLD)) {
+            journal.appendAll(List.of(order(4L), order(5L)));
+        }
+
+        InMemoryOrderRepository repository = new InMemoryOrderRepository();
+        try (OutboxJournal ignored = new OutboxConfig().outboxJournal(
+                directory.resolve("outbox").toString(), true, COMPACT_THRESHOLD, repository)) {
+            assertThat(repository.nextId()).isGreaterThan(5L);
+            // Sem persistência os pedidos do journal não são reaplicados
+            assertThat(repository.count()).isZero();
+        }
+    }
+
+    @Test
+    void reappliesJournalOrdersMissingFromDurableRepository() throws Exception {
+        // Crash entre a gravação no journal e a inserção no repositório
+        try (OutboxJournal journal = new OutboxJournal(directory.resolve("outbox"), true, COMPACT_THRESHOLD)) {
+            journal.appendAll(List.of(order(1L), order(2L)));
+        }
+
+        DurableOrderRepository repository = DurableOrderRepository.open(new InMemoryOrderRepository(),
+                directory.resolve("persistence"), true, true, 16, 8, TimeUnit.HOURS.toMillis(1), 1);
+        try (OutboxJournal ignored = new OutboxConfig().outboxJournal(
+                directory.resolve("outbox").toString(), true, COMPACT_THRESHOLD, repository)) {
+            assertThat(repository.findById(1L)).isPresent();
+            assertThat(repository.findById(2L)).isPresent();
+            assertThat(repository.nextId()).isGreaterThan(2L);
+        } finally {
+            repository.close();
+        }
+    }
+
+    private static Order order(Long id) {
+        return new Order(id, "Maria", "Notebook", 3500.0, LocalDateTime.of(2024, 1, 15, 10, 30));
+    }
+}
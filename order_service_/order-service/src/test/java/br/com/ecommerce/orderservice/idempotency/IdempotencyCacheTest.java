@@ -0,0 +1,190 @@
+package br.com.ecommerce.orderservice.idempotency;
+
+import br.com.ecommerce.orderservice.dto.OrderRequest;
+import br.com.ecommerce.orderservice.dto.OrderResponse;
+import br.com.ecommerce.orderservice.idempotency.IdempotencyCache.Outcome;
+import br.com.ecommerce.orderservice.idempotency.IdempotencyCache.Result;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class IdempotencyCacheTest {
+
+    private static final long TTL_MILLIS = 1000;
+    private static final OrderRequest REQUEST = new OrderRequest("Maria", "Notebook", 3500.0);
+
+    private final AtomicLong clock = new AtomicLong(1_000_000);
+
+    @Test
+    void concurrentRequestsWithSameKeyCreateOneOrder() throws Exception {
+        IdempotencyCache cache = cache(10_000);
+        AtomicInteger executions = new AtomicInteger();
+        CountDownLatch release = new CountDownLatch(1);
+        Supplier<OrderResponse> action = () -> {
+            executions.incrementAndGet();
+            await(release);
+            return response(1L);
+        };
+
+        int threads = 8;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<Result>> results = new ArrayList<>();
+            for (int i = 0; i < threads; i++) {
+                results.add(executor.submit(() -> cache.execute("key-1", REQUEST, action)));
+            }
+            release.countDown();
+
+            int executed = 0;
+            for (Future<Result> future : results) {
+                Result result = future.get(5, TimeUnit.SECONDS);
+                assertThat(result.response().getOrderId()).isEqualTo(1L);
+                assertThat(result.outcome()).isIn(Outcome.EXECUTED, Outcome.COLLAPSED, Outcome.REPLAYED);
+                if (result.outcome() == Outcome.EXECUTED) {
+                    executed++;
+                }
+            }
+            assertThat(executions).hasValue(1);
+            assertThat(executed).isEqualTo(1);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void failureIsDeliveredToWaitersAndReleasesKey() throws Exception {
+        IdempotencyCache cache = cache(10_000);
+        CountDownLatch ownerStarted = new CountDownLatch(1);
+        CountDownLatch fail = new CountDownLatch(1);
+
+        CompletableFuture<Result> owner = new CompletableFuture<>();
+        Thread ownerThread = new Thread(() -> {
+            try {
+                owner.complete(cache.execute("key-1", REQUEST, () -> {
+                    ownerStarted.countDown();
+                    await(fail);
+                    throw new IllegalStateException("broker indisponível");
+                }));
+            } catch (RuntimeException e) {
+                owner.completeExceptionally(e);
+            }
+        });
+        ownerThread.start();
+        assertThat(ownerStarted.await(5, TimeUnit.SECONDS)).isTrue();
+
+        CompletableFuture<Result> waiter = new CompletableFuture<>();
+        Thread waiterThread = new Thread(() -> {
+            try {
+                waiter.complete(cache.execute("key-1", REQUEST, () -> {
+                    throw new AssertionError("a requisição em espera não deve executar");
+                }));
+            } catch (RuntimeException e) {
+                waiter.completeExceptionally(e);
+            }
+        });
+        waiterThread.start();
+        // A requisição em espera fica bloqueada no future da execução em andamento
+        awaitState(waiterThread, Thread.State.TIMED_WAITING);
+        fail.countDown();
+
+        assertThatThrownBy(() -> owner.get(5, TimeUnit.SECONDS)).hasRootCauseMessage("broker indisponível");
+        assertThatThrownBy(() -> waiter.get(5, TimeUnit.SECONDS)).hasRootCauseMessage("broker indisponível");
+
+        // A chave foi liberada: a retentativa executa de novo
+        Result retry = cache.execute("key-1", REQUEST, () -> response(2L));
+        assertThat(retry.outcome()).isEqualTo(Outcome.EXECUTED);
+        assertThat(retry.response().getOrderId()).isEqualTo(2L);
+    }
+
+    @Test
+    void completedKeyExpiresAfterTtl() {
+        IdempotencyCache cache = cache(10_000);
+        assertThat(cache.execute("key-1", REQUEST, () -> response(1L)).outcome()).isEqualTo(Outcome.EXECUTED);
+
+        clock.addAndGet(TTL_MILLIS - 1);
+        Result replayed = cache.execute("key-1", REQUEST, () -> response(2L));
+        assertThat(replayed.outcome()).isEqualTo(Outcome.REPLAYED);
+        assertThat(replayed.response().getOrderId()).isEqualTo(1L);
+
+        clock.addAndGet(1);
+        Result executed = cache.execute("key-1", REQUEST, () -> response(2L));
+        assertThat(executed.outcome()).isEqualTo(Outcome.EXECUTED);
+        assertThat(executed.response().getOrderId()).isEqualTo(2L);
+    }
+
+    @Test
+    void inProgressKeyIsNotExpiredByTtl() throws Exception {
+        IdempotencyCache cache = cache(50);
+        CountDownLatch ownerStarted = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        CompletableFuture<Result> owner = CompletableFuture.supplyAsync(() ->
+                cache.execute("key-1", REQUEST, () -> {
+                    ownerStarted.countDown();
+                    await(release);
+                    return response(1L);
+                }));
+        try {
+            assertThat(ownerStarted.await(5, TimeUnit.SECONDS)).isTrue();
+
+            clock.addAndGet(TTL_MILLIS * 10);
+            Result result = cache.execute("key-1", REQUEST, () -> response(2L));
+            assertThat(result.outcome()).isEqualTo(Outcome.IN_PROGRESS);
+        } finally {
+            release.countDown();
+        }
+        assertThat(owner.get(5, TimeUnit.SECONDS).outcome()).isEqualTo(Outcome.EXECUTED);
+    }
+
+    @Test
+    void sameKeyWithDifferentPayloadIsConflict() {
+        IdempotencyCache cache = cache(10_000);
+        cache.execute("key-1", REQUEST, () -> response(1L));
+
+        Result result = cache.execute("key-1", new OrderRequest("Maria", "Mouse", 80.0), () -> response(2L));
+        assertThat(result.outcome()).isEqualTo(Outcome.CONFLICT);
+        assertThat(result.response()).isNull();
+    }
+
+    private IdempotencyCache cache(long waitTimeoutMillis) {
+        return new IdempotencyCache(true, 1000, TTL_MILLIS, 4, waitTimeoutMillis, clock::get,
+                new SimpleMeterRegistry());
+    }
+
+    private static OrderResponse response(Long orderId) {
+        return new OrderResponse(orderId, "Maria", "Notebook", 3500.0, LocalDateTime.of(2024, 1, 15, 10, 30));
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            if (!latch.await(5, TimeUnit.SECONDS)) {
+                throw new IllegalStateException("Tempo esgotado no teste");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static void awaitState(Thread thread, Thread.State state) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (thread.getState() != state) {
+            assertThat(System.nanoTime()).isLessThan(deadline);
+            Thread.sleep(1);
+        }
+    }
+}
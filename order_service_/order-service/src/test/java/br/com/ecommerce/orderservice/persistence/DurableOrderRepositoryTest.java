@@ -0,0 +1,97 @@
+package br.com.ecommerce.orderservice.persistence;
+
+import br.com.ecommerce.orderservice.model.Order;
+import br.com.ecommerce.orderservice.repository.InMemoryOrderRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class DurableOrderRepositoryTest {
+
+    private static final LocalDateTime CREATED_AT = LocalDateTime.of(2024, 1, 15, 10, 30);
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void replaysRecordAppendedBeforeCrashEvenIfNeverApplied() throws Exception {
+        // Crash entre o fsync do log e a alteração da engine: só o log tem o pedido
+        try (WriteAheadLog wal = new WriteAheadLog(directory, 1, true, 16, 8)) {
+            wal.appendSave(order(7L, "Maria")).get(5, TimeUnit.SECONDS);
+        }
+
+        DurableOrderRepository recovered = open();
+        try {
+            assertThat(recovered.findById(7L)).get()
+                    .extracting(Order::getCustomerName).isEqualTo("Maria");
+            assertThat(recovered.nextId()).isGreaterThan(7L);
+        } finally {
+            recovered.close();
+        }
+    }
+
+    @Test
+    void recoversSavesAndDeletesAfterRestart() throws Exception {
+        DurableOrderRepository repository = open();
+        Order kept = repository.save(order(null, "Maria"));
+        Order removed = repository.save(order(null, "João"));
+        repository.deleteById(removed.getId());
+        // Sem close(): nenhum snapshot, a recuperação vem apenas do log
+
+        DurableOrderRepository recovered = open();
+        try {
+            assertThat(recovered.findById(kept.getId())).isPresent();
+            assertThat(recovered.findById(removed.getId())).isEmpty();
+            assertThat(recovered.count()).isEqualTo(1);
+        } finally {
+            recovered.close();
+        }
+    }
+
+    @Test
+    void recoversWritesMadeAfterSnapshot() throws Exception {
+        DurableOrderRepository repository = open();
+        Order before = repository.save(order(null, "Maria"));
+        repository.snapshot();
+        Order after = repository.save(order(null, "João"));
+
+        DurableOrderRepository recovered = open();
+        try {
+            assertThat(recovered.findById(before.getId())).isPresent();
+            assertThat(recovered.findById(after.getId())).isPresent();
+        } finally {
+            recovered.close();
+        }
+    }
+
+    @Test
+    void failedAppendLeavesEngineUnchanged() throws Exception {
+        InMemoryOrderRepository engine = new InMemoryOrderRepository();
+        DurableOrderRepository repository = DurableOrderRepository.open(engine, directory, true, true,
+                16, 8, TimeUnit.HOURS.toMillis(1), 1);
+        repository.save(order(null, "Maria"));
+        repository.close();
+
+        // Log encerrado: a gravação falha antes de a engine ser alterada
+        assertThatThrownBy(() -> repository.save(order(null, "João")))
+                .isInstanceOf(IllegalStateException.class);
+        assertThat(engine.count()).isEqualTo(1);
+        assertThat(engine.findByCustomerName("João", null, 10)).isEmpty();
+    }
+
+    private DurableOrderRepository open() throws IOException {
+        return DurableOrderRepository.open(new InMemoryOrderRepository(), directory, true, true,
+                16, 8, TimeUnit.HOURS.toMillis(1), 1);
+    }
+
+    private static Order order(Long id, String customerName) {
+        return new Order(id, customerName, "Notebook", 3500.0, CREATED_AT);
+    }
+}